@@ -0,0 +1,66 @@
+package me.colingrimes.midnight.benchmark;
+
+import me.colingrimes.midnight.Midnight;
+import me.colingrimes.midnight.plugin.LoadingPlugin;
+import me.colingrimes.midnight.plugin.MidnightPlugin;
+import org.mockbukkit.mockbukkit.MockBukkit;
+import org.mockbukkit.mockbukkit.ServerMock;
+
+import javax.annotation.Nonnull;
+import java.lang.reflect.Field;
+
+/**
+ * Starts a MockBukkit server with the loading plugin for benchmarks that need server objects.
+ * <p>
+ * Unlike the tests, nothing is mocked with Mockito, since static mocks are bound to a single thread and would
+ * also be measured. Instead, the loading plugin is set directly so that {@link MidnightPlugin#get()} and the
+ * schedulers work like they do on a real server.
+ */
+final class BenchmarkServer {
+
+	private static ServerMock server;
+
+	/**
+	 * Starts the server if it is not running.
+	 *
+	 * @return the server
+	 */
+	@Nonnull
+	static synchronized ServerMock start() {
+		if (server != null) {
+			return server;
+		}
+
+		System.setProperty("bstats.relocatecheck", "false");
+		server = MockBukkit.mock();
+		setPlugin(MockBukkit.load(LoadingPlugin.class));
+		return server;
+	}
+
+	/**
+	 * Stops the server if it is running.
+	 */
+	static synchronized void stop() {
+		if (server == null) {
+			return;
+		}
+
+		setPlugin(null);
+		MockBukkit.unmock();
+		server = null;
+	}
+
+	private static void setPlugin(Midnight plugin) {
+		try {
+			Field field = MidnightPlugin.class.getDeclaredField("plugin");
+			field.setAccessible(true);
+			field.set(null, plugin);
+		} catch (ReflectiveOperationException e) {
+			throw new IllegalStateException("Failed to set the loading plugin.", e);
+		}
+	}
+
+	private BenchmarkServer() {
+		throw new UnsupportedOperationException("This class cannot be instantiated.");
+	}
+}
@@ -0,0 +1,86 @@
+package me.colingrimes.midnight.benchmark;
+
+import me.colingrimes.midnight.Midnight;
+import me.colingrimes.midnight.command.Command;
+import me.colingrimes.midnight.command.handler.CommandHandler;
+import me.colingrimes.midnight.command.handler.util.ArgumentList;
+import me.colingrimes.midnight.command.handler.util.CommandProperties;
+import me.colingrimes.midnight.command.handler.util.Sender;
+import me.colingrimes.midnight.command.node.CommandNode;
+import me.colingrimes.midnight.plugin.MidnightPlugin;
+import org.bukkit.command.CommandSender;
+import org.mockbukkit.mockbukkit.ServerMock;
+import org.mockbukkit.mockbukkit.entity.PlayerMock;
+import org.openjdk.jmh.annotations.*;
+
+import javax.annotation.Nonnull;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks dispatching a sub command through a tree of {@link CommandNode} objects.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CommandBenchmark {
+
+	private final String[] args = new String[] { "give", "Colin", "starter" };
+	private CommandNode root;
+	private CommandSender sender;
+	private org.bukkit.command.Command cmd;
+	private GiveCommand command;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		ServerMock server = BenchmarkServer.start();
+		Midnight plugin = MidnightPlugin.get();
+
+		PlayerMock player = server.addPlayer();
+		player.addAttachment(plugin, "kit.give", true);
+		sender = player;
+
+		command = new GiveCommand();
+		root = new CommandNode(null);
+		CommandNode give = new CommandNode(root, CommandHandler.create(plugin, command));
+		root.getChildren().put("give", give);
+		root.getChildren().put("list", new CommandNode(root));
+		root.getChildren().put("reload", new CommandNode(root));
+
+		cmd = new org.bukkit.command.Command("kit") {
+			@Override
+			public boolean execute(@Nonnull CommandSender sender, @Nonnull String label, @Nonnull String[] args) {
+				return true;
+			}
+		};
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		BenchmarkServer.stop();
+	}
+
+	@Benchmark
+	public int onCommand() {
+		root.onCommand(sender, cmd, "kit", args);
+		return command.executions;
+	}
+
+	private static class GiveCommand implements Command<Midnight> {
+		int executions = 0;
+
+		@Override
+		public void execute(@Nonnull Midnight plugin, @Nonnull Sender sender, @Nonnull ArgumentList args) {
+			executions++;
+		}
+
+		@Override
+		public void configureProperties(@Nonnull CommandProperties properties) {
+			properties.setPermission("kit.give");
+			properties.setArgumentsRequired(2);
+			properties.setPlayerRequired(true);
+		}
+	}
+}
@@ -0,0 +1,57 @@
+package me.colingrimes.midnight.benchmark;
+
+import me.colingrimes.midnight.cache.Cooldown;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks checking keys of a {@link Cooldown} that holds many cooldowns.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CooldownBenchmark {
+
+	@Param({ "100", "10000" })
+	private int keys;
+
+	private Cooldown<UUID> cooldown;
+	private UUID[] active;
+	private UUID inactive;
+	private int index = 0;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		BenchmarkServer.start();
+		cooldown = Cooldown.create(Duration.ofHours(1));
+		active = new UUID[keys];
+		for (int i = 0; i < keys; i++) {
+			active[i] = UUID.randomUUID();
+			cooldown.add(active[i]);
+		}
+		inactive = UUID.randomUUID();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		cooldown.close();
+		BenchmarkServer.stop();
+	}
+
+	@Benchmark
+	public boolean onCooldown() {
+		index = (index + 1) % keys;
+		return cooldown.onCooldown(active[index]);
+	}
+
+	@Benchmark
+	public boolean notOnCooldown() {
+		return cooldown.onCooldown(inactive);
+	}
+}
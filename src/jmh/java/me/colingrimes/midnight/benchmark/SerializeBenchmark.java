@@ -0,0 +1,62 @@
+package me.colingrimes.midnight.benchmark;
+
+import com.google.gson.JsonElement;
+import me.colingrimes.midnight.geometry.Position;
+import me.colingrimes.midnight.geometry.Region;
+import me.colingrimes.midnight.geometry.Size;
+import me.colingrimes.midnight.serialize.Json;
+import me.colingrimes.midnight.serialize.Serializable;
+import org.bukkit.World;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks deserializing geometry from json elements and reading it straight from JSON text.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializeBenchmark {
+
+	private JsonElement size;
+	private JsonElement region;
+	private String regionJson;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		World world = BenchmarkServer.start().addSimpleWorld("world");
+		size = Size.of(3, 4, 5).serialize();
+		region = Region.of(Position.of(world, 1, 2, 3), Position.of(world, 10, 20, 30)).serialize();
+		regionJson = Json.toString(region);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		BenchmarkServer.stop();
+	}
+
+	@Benchmark
+	public Size deserializeSize() {
+		return Serializable.deserialize(Size.class, size);
+	}
+
+	@Benchmark
+	public Region deserializeRegion() {
+		return Serializable.deserialize(Region.class, region);
+	}
+
+	@Benchmark
+	public Region parseAndDeserializeRegion() {
+		return Serializable.deserialize(Region.class, Json.toElement(regionJson));
+	}
+
+	@Benchmark
+	public Region readRegion() {
+		return Json.read(Region.class, new StringReader(regionJson));
+	}
+}
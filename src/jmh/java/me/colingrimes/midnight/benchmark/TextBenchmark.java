@@ -0,0 +1,57 @@
+package me.colingrimes.midnight.benchmark;
+
+import me.colingrimes.midnight.message.Message;
+import me.colingrimes.midnight.message.Placeholders;
+import me.colingrimes.midnight.message.implementation.ComponentMessage;
+import me.colingrimes.midnight.util.text.Component;
+import me.colingrimes.midnight.util.text.Text;
+import me.colingrimes.midnight.util.text.Tooltip;
+import net.md_5.bungee.api.chat.TextComponent;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks coloring text and replacing placeholders.
+ * <p>
+ * {@link Component#replace(TextComponent, String, Message)} changes the component it is given, so the component
+ * is created in every invocation and its creation is part of the measured time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TextBenchmark {
+
+	private static final String TEXT = "&aWelcome back &l{player}&r&a, you have &e{coins} &acoins and &e{kills} &akills.";
+
+	private final Message<?> player = Message.of("Colin");
+	private final Message<?> tooltip = Tooltip.create("&dColin", List.of("&7Level 10", "&7Click to message!"));
+	private final Placeholders placeholders = Placeholders
+			.of("{player}", "Colin")
+			.add("{coins}", 1500)
+			.add("{kills}", 42);
+
+	@Benchmark
+	public String color() {
+		return Text.color(TEXT);
+	}
+
+	@Benchmark
+	public TextComponent replaceText() {
+		return Component.replace(Component.of(TEXT), "{player}", player);
+	}
+
+	@Benchmark
+	public TextComponent replaceComponent() {
+		return Component.replace(Component.of(TEXT), "{player}", tooltip);
+	}
+
+	@Benchmark
+	public ComponentMessage applyPlaceholders() {
+		return placeholders.apply(TEXT);
+	}
+}
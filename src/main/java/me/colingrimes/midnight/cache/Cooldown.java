@@ -1,7 +1,5 @@
 package me.colingrimes.midnight.cache;
 
-import me.colingrimes.midnight.scheduler.Scheduler;
-
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.time.Duration;
@@ -10,11 +8,15 @@ import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 
-public class Cooldown<K> {
+public class Cooldown<K> implements AutoCloseable {
+
+    private static final Duration DEFAULT_RESOLUTION = Duration.ofSeconds(1);
 
     private final Map<K, CooldownEntry<K>> cooldowns = new ConcurrentHashMap<>();
+    private final TimingWheel<CooldownEntry<K>> wheel;
     private final Duration defaultDuration;
     private final Consumer<K> defaultAction;
+    private volatile boolean closed = false;
 
     /**
      * Creates a cooldown cache with a default duration.
@@ -24,7 +26,7 @@ public class Cooldown<K> {
      * @param <K> the type of the keys in this cache
      */
     public static <K> Cooldown<K> create(@Nonnull Duration defaultDuration) {
-        return new Cooldown<>(defaultDuration, null);
+        return new Cooldown<>(defaultDuration, null, DEFAULT_RESOLUTION);
     }
 
     /**
@@ -36,27 +38,48 @@ public class Cooldown<K> {
      * @param <K> the type of the keys in this cache
      */
     public static <K> Cooldown<K> create(@Nonnull Duration defaultDuration, @Nullable Consumer<K> defaultAction) {
-        return new Cooldown<>(defaultDuration, defaultAction);
+        return new Cooldown<>(defaultDuration, defaultAction, DEFAULT_RESOLUTION);
     }
 
-    private Cooldown(@Nonnull Duration defaultDuration, @Nullable Consumer<K> defaultAction) {
+    /**
+     * Creates a cooldown cache with a default duration, a default action to be executed when the cooldown period ends,
+     * and the resolution at which expired cooldowns are detected.
+     * <p>
+     * The resolution is rounded down to whole server ticks (50ms), so sub-second resolutions are supported.
+     * Expiration actions may run up to one resolution after the cooldown period ends.
+     *
+     * @param defaultDuration the default duration of the cooldown period
+     * @param defaultAction the default action to be executed when the cooldown period ends
+     * @param resolution the precision at which expired cooldowns are detected
+     * @return a new cooldown cache
+     * @param <K> the type of the keys in this cache
+     */
+    public static <K> Cooldown<K> create(@Nonnull Duration defaultDuration, @Nullable Consumer<K> defaultAction, @Nonnull Duration resolution) {
+        return new Cooldown<>(defaultDuration, defaultAction, resolution);
+    }
+
+    private Cooldown(@Nonnull Duration defaultDuration, @Nullable Consumer<K> defaultAction, @Nonnull Duration resolution) {
+        this.wheel = new TimingWheel<>(Math.max(1, resolution.toMillis() / 50) * 50, Instant.now().toEpochMilli());
         this.defaultDuration = defaultDuration;
         this.defaultAction = defaultAction;
-        this.schedule();
+        CooldownRegistry.register(this);
     }
 
     /**
      * Checks for expired cooldowns and executes the action if necessary.
+     * Only the cooldowns that are due on the timing wheel are visited.
+     * <p>
+     * This is called every tick by the {@link CooldownRegistry}.
      */
-    private void schedule() {
-        Scheduler.sync().runRepeating(() -> {
-            cooldowns.entrySet().stream().filter(e -> !onCooldown(e.getKey())).forEach(e -> {
-                cancel(e.getKey());
-                if (e.getValue().action != null) {
-                    e.getValue().action.accept(e.getKey());
-                }
-            });
-        }, 0, 20);
+    void sweep() {
+        Instant now = Instant.now();
+        for (CooldownEntry<K> entry : wheel.advance(now.toEpochMilli())) {
+            if (entry.expiration.isAfter(now)) {
+                wheel.schedule(entry, entry.expiration.toEpochMilli());
+            } else if (cooldowns.remove(entry.key, entry) && entry.action != null) {
+                entry.action.accept(entry.key);
+            }
+        }
     }
 
     /**
@@ -86,8 +109,18 @@ public class Cooldown<K> {
      * @param action the action to be executed when the cooldown period ends
      */
     public void add(@Nonnull K key, @Nonnull Duration duration, @Nullable Consumer<K> action) {
-        CooldownEntry<K> entry = new CooldownEntry<>(Instant.now().plus(duration), action);
-        cooldowns.put(key, entry);
+        if (closed) {
+            throw new IllegalStateException("Cooldown has already been closed.");
+        }
+
+        CooldownEntry<K> entry = new CooldownEntry<>(key, Instant.now().plus(duration), action);
+        synchronized (wheel) {
+            CooldownEntry<K> previous = cooldowns.put(key, entry);
+            if (previous != null) {
+                wheel.cancel(previous);
+            }
+            wheel.schedule(entry, entry.expiration.toEpochMilli());
+        }
     }
 
     /**
@@ -96,7 +129,12 @@ public class Cooldown<K> {
      * @param key the key to be cancelled
      */
     public void cancel(@Nonnull K key) {
-        cooldowns.remove(key);
+        synchronized (wheel) {
+            CooldownEntry<K> entry = cooldowns.remove(key);
+            if (entry != null) {
+                wheel.cancel(entry);
+            }
+        }
     }
 
     /**
@@ -124,11 +162,39 @@ public class Cooldown<K> {
         return Duration.between(Instant.now(), entry.expiration);
     }
 
-    private static class CooldownEntry<K> {
-        Instant expiration;
-        Consumer<K> action;
+    /**
+     * Gets the amount of keys in the cooldown cache.
+     *
+     * @return the amount of keys
+     */
+    public int size() {
+        return cooldowns.size();
+    }
+
+    /**
+     * Clears the cooldown cache and stops checking it for expired cooldowns.
+     * Expiration actions of the remaining keys are not executed.
+     * <p>
+     * Cooldowns that are no longer referenced are cleaned up automatically,
+     * but closing them frees their resources right away.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        CooldownRegistry.unregister(this);
+        synchronized (wheel) {
+            cooldowns.values().forEach(wheel::cancel);
+            cooldowns.clear();
+        }
+    }
+
+    private static class CooldownEntry<K> extends TimingWheel.Node {
+        final K key;
+        final Instant expiration;
+        final Consumer<K> action;
 
-        CooldownEntry(@Nonnull Instant expiration, @Nullable Consumer<K> action) {
+        CooldownEntry(@Nonnull K key, @Nonnull Instant expiration, @Nullable Consumer<K> action) {
+            this.key = key;
             this.expiration = expiration;
             this.action = action;
         }
@@ -0,0 +1,105 @@
+package me.colingrimes.midnight.cache;
+
+import me.colingrimes.midnight.scheduler.Scheduler;
+import me.colingrimes.midnight.scheduler.task.Task;
+import me.colingrimes.midnight.util.io.Logger;
+
+import javax.annotation.Nonnull;
+import java.lang.ref.WeakReference;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Drives every live {@link Cooldown} from a single repeating task.
+ * <p>
+ * Cooldowns are registered weakly, so they are dropped from the registry once they are no longer referenced.
+ * The task only runs while at least one cooldown is registered.
+ */
+public final class CooldownRegistry {
+
+	private static final Set<WeakReference<Cooldown<?>>> cooldowns = ConcurrentHashMap.newKeySet();
+	private static Task task = null;
+
+	/**
+	 * Registers the cooldown and starts the sweeping task if it is not running.
+	 *
+	 * @param cooldown the cooldown to register
+	 */
+	static synchronized void register(@Nonnull Cooldown<?> cooldown) {
+		cooldowns.add(new WeakReference<>(cooldown));
+		if (task == null || task.isCancelled()) {
+			task = Scheduler.sync().runRepeating(CooldownRegistry::sweep, 1, 1);
+		}
+	}
+
+	/**
+	 * Unregisters the cooldown.
+	 *
+	 * @param cooldown the cooldown to unregister
+	 */
+	static void unregister(@Nonnull Cooldown<?> cooldown) {
+		cooldowns.removeIf(reference -> reference.get() == cooldown);
+	}
+
+	/**
+	 * Gets the amount of cooldowns that are currently registered.
+	 *
+	 * @return the amount of registered cooldowns
+	 */
+	public static int getInstances() {
+		int instances = 0;
+		for (WeakReference<Cooldown<?>> reference : cooldowns) {
+			if (reference.get() != null) {
+				instances++;
+			}
+		}
+		return instances;
+	}
+
+	/**
+	 * Gets the total amount of keys across all registered cooldowns.
+	 *
+	 * @return the amount of keys
+	 */
+	public static int getEntries() {
+		int entries = 0;
+		for (WeakReference<Cooldown<?>> reference : cooldowns) {
+			Cooldown<?> cooldown = reference.get();
+			if (cooldown != null) {
+				entries += cooldown.size();
+			}
+		}
+		return entries;
+	}
+
+	/**
+	 * Sweeps every registered cooldown and drops the ones that have been garbage collected.
+	 * Stops the task once no cooldowns are left.
+	 */
+	private static void sweep() {
+		for (WeakReference<Cooldown<?>> reference : cooldowns) {
+			Cooldown<?> cooldown = reference.get();
+			if (cooldown == null) {
+				cooldowns.remove(reference);
+				continue;
+			}
+
+			try {
+				cooldown.sweep();
+			} catch (Exception e) {
+				Logger.severe("Cooldown has failed to execute its expiration actions:", e);
+			}
+		}
+
+		synchronized (CooldownRegistry.class) {
+			if (cooldowns.isEmpty() && task != null) {
+				task.stop();
+				task = null;
+			}
+		}
+	}
+
+	private CooldownRegistry() {
+		throw new UnsupportedOperationException("This class cannot be instantiated.");
+	}
+}
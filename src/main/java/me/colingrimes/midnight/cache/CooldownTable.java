@@ -0,0 +1,259 @@
+package me.colingrimes.midnight.cache;
+
+import javax.annotation.Nonnull;
+import java.time.Duration;
+
+/**
+ * An open-addressing hash table that maps a key made of two longs to an expiration time.
+ * <p>
+ * Expirations are stored as nanoseconds relative to the creation of the table, where {@code 0} marks an empty slot.
+ * Lookups never allocate. Expired entries are dropped whenever the table is rebuilt.
+ * Durations saturate instead of overflowing, so a very large duration simply never expires.
+ * <p>
+ * This class is not thread-safe, callers are expected to synchronize access.
+ */
+final class CooldownTable {
+
+	private static final int MIN_CAPACITY = 16;
+
+	private final long origin = System.nanoTime();
+	private long[] highs;
+	private long[] lows;
+	private long[] expirations;
+	private int mask;
+	private int size;
+
+	CooldownTable() {
+		allocate(MIN_CAPACITY);
+	}
+
+	/**
+	 * Gets the current time of the table in nanoseconds.
+	 *
+	 * @return the current time
+	 */
+	long now() {
+		return System.nanoTime() - origin;
+	}
+
+	/**
+	 * Converts the duration to nanoseconds, saturating at {@link Long#MAX_VALUE} and {@link Long#MIN_VALUE}.
+	 *
+	 * @param duration the duration
+	 * @return the duration in nanoseconds
+	 */
+	static long toNanos(@Nonnull Duration duration) {
+		try {
+			return duration.toNanos();
+		} catch (ArithmeticException e) {
+			return duration.isNegative() ? Long.MIN_VALUE : Long.MAX_VALUE;
+		}
+	}
+
+	/**
+	 * Converts the milliseconds to nanoseconds, saturating at {@link Long#MAX_VALUE} and {@link Long#MIN_VALUE}.
+	 *
+	 * @param millis the milliseconds
+	 * @return the milliseconds in nanoseconds
+	 */
+	static long millisToNanos(long millis) {
+		if (millis > Long.MAX_VALUE / 1_000_000) {
+			return Long.MAX_VALUE;
+		} else if (millis < Long.MIN_VALUE / 1_000_000) {
+			return Long.MIN_VALUE;
+		}
+		return millis * 1_000_000;
+	}
+
+	/**
+	 * Starts the cooldown of the specified key, replacing any cooldown it already had.
+	 *
+	 * @param high the high bits of the key
+	 * @param low the low bits of the key
+	 * @param nanos the duration of the cooldown in nanoseconds
+	 */
+	void start(long high, long low, long nanos) {
+		// The current time is never negative, so only positive durations can overflow.
+		long now = now();
+		put(high, low, nanos > Long.MAX_VALUE - now ? Long.MAX_VALUE : now + nanos);
+	}
+
+	/**
+	 * Checks if the specified key is still on cooldown.
+	 *
+	 * @param high the high bits of the key
+	 * @param low the low bits of the key
+	 * @return true if the key is on cooldown
+	 */
+	boolean onCooldown(long high, long low) {
+		return get(high, low) > now();
+	}
+
+	/**
+	 * Gets the amount of milliseconds left for the specified key, rounded up.
+	 *
+	 * @param high the high bits of the key
+	 * @param low the low bits of the key
+	 * @return the milliseconds left of the key, or 0 if the key is not on cooldown
+	 */
+	long remainingMillis(long high, long low) {
+		long remaining = get(high, low) - now();
+		if (remaining <= 0) {
+			return 0;
+		}
+		return remaining / 1_000_000 + (remaining % 1_000_000 == 0 ? 0 : 1);
+	}
+
+	/**
+	 * Gets the expiration of the specified key.
+	 *
+	 * @param high the high bits of the key
+	 * @param low the low bits of the key
+	 * @return the expiration of the key, or 0 if the key is not in the table
+	 */
+	long get(long high, long low) {
+		int slot = find(high, low);
+		return slot < 0 ? 0 : expirations[slot];
+	}
+
+	/**
+	 * Sets the expiration of the specified key.
+	 *
+	 * @param high the high bits of the key
+	 * @param low the low bits of the key
+	 * @param expiration the expiration of the key
+	 */
+	void put(long high, long low, long expiration) {
+		int slot = find(high, low);
+		if (slot >= 0) {
+			expirations[slot] = Math.max(1, expiration);
+			return;
+		}
+
+		if ((size + 1) * 2 > expirations.length) {
+			rebuild();
+		}
+
+		slot = index(high, low);
+		while (expirations[slot] != 0) {
+			slot = (slot + 1) & mask;
+		}
+
+		highs[slot] = high;
+		lows[slot] = low;
+		expirations[slot] = Math.max(1, expiration);
+		size++;
+	}
+
+	/**
+	 * Removes the specified key.
+	 *
+	 * @param high the high bits of the key
+	 * @param low the low bits of the key
+	 * @return true if the key was in the table
+	 */
+	boolean remove(long high, long low) {
+		int slot = find(high, low);
+		if (slot < 0) {
+			return false;
+		}
+
+		// Shifts the following entries back so that no lookup chain is broken.
+		int hole = slot;
+		int next = (hole + 1) & mask;
+		while (expirations[next] != 0) {
+			int ideal = index(highs[next], lows[next]);
+			if (((next - ideal) & mask) >= ((next - hole) & mask)) {
+				highs[hole] = highs[next];
+				lows[hole] = lows[next];
+				expirations[hole] = expirations[next];
+				hole = next;
+			}
+			next = (next + 1) & mask;
+		}
+
+		expirations[hole] = 0;
+		size--;
+		return true;
+	}
+
+	/**
+	 * Removes every expired entry from the table.
+	 */
+	void purge() {
+		rebuild();
+	}
+
+	/**
+	 * Gets the amount of entries in the table, including expired entries that have not been purged yet.
+	 *
+	 * @return the amount of entries
+	 */
+	int size() {
+		return size;
+	}
+
+	/**
+	 * Rebuilds the table without its expired entries.
+	 * The table grows if it would still be more than a quarter full afterward, so rebuilds stay amortized.
+	 */
+	private void rebuild() {
+		long now = now();
+		long[] oldHighs = highs;
+		long[] oldLows = lows;
+		long[] oldExpirations = expirations;
+
+		int live = 0;
+		for (long expiration : oldExpirations) {
+			if (expiration > now) {
+				live++;
+			}
+		}
+
+		int capacity = oldExpirations.length;
+		while ((live + 1) * 4 > capacity) {
+			capacity <<= 1;
+		}
+
+		allocate(capacity);
+		for (int i = 0; i < oldExpirations.length; i++) {
+			if (oldExpirations[i] > now) {
+				int slot = index(oldHighs[i], oldLows[i]);
+				while (expirations[slot] != 0) {
+					slot = (slot + 1) & mask;
+				}
+				highs[slot] = oldHighs[i];
+				lows[slot] = oldLows[i];
+				expirations[slot] = oldExpirations[i];
+				size++;
+			}
+		}
+	}
+
+	private void allocate(int capacity) {
+		highs = new long[capacity];
+		lows = new long[capacity];
+		expirations = new long[capacity];
+		mask = capacity - 1;
+		size = 0;
+	}
+
+	private int find(long high, long low) {
+		int slot = index(high, low);
+		while (expirations[slot] != 0) {
+			if (highs[slot] == high && lows[slot] == low) {
+				return slot;
+			}
+			slot = (slot + 1) & mask;
+		}
+		return -1;
+	}
+
+	private int index(long high, long low) {
+		long hash = high * 0x9E3779B97F4A7C15L ^ low;
+		hash ^= hash >>> 32;
+		hash *= 0xD6E8FEB86659FD93L;
+		hash ^= hash >>> 32;
+		return (int) hash & mask;
+	}
+}
@@ -0,0 +1,474 @@
+package me.colingrimes.midnight.cache;
+
+import me.colingrimes.midnight.scheduler.Scheduler;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A thread-safe cache that is bounded by size and time.
+ * <p>
+ * Once the cache is full, the least recently used entry is evicted. Entries can also expire a set amount
+ * of time after they were written or last accessed. Expired entries are removed lazily when they are read,
+ * or all at once with {@link #cleanUp()}.
+ * <p>
+ * If a {@link Loader} is provided, missing values can be loaded asynchronously with {@link #get(Object)}.
+ * A value that is put or invalidated while it is being loaded is not replaced by the loaded value.
+ *
+ * @param <K> the type of the keys in this cache
+ * @param <V> the type of the values in this cache
+ */
+public class ExpiringCache<K, V> {
+
+	private final Map<K, CacheEntry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+	private final Map<K, Load<V>> loading = new ConcurrentHashMap<>();
+	private final long maximumSize;
+	private final long expireAfterWrite;
+	private final long expireAfterAccess;
+	private final Loader<K, V> loader;
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+	private final LongAdder loads = new LongAdder();
+	private final LongAdder loadFailures = new LongAdder();
+
+	/**
+	 * Creates a new {@link Builder} object.
+	 *
+	 * @return the cache builder object
+	 * @param <K> the type of the keys in the cache
+	 * @param <V> the type of the values in the cache
+	 */
+	@Nonnull
+	public static <K, V> Builder<K, V> builder() {
+		return new Builder<>();
+	}
+
+	private ExpiringCache(@Nonnull Builder<K, V> builder) {
+		this.maximumSize = builder.maximumSize;
+		this.expireAfterWrite = builder.expireAfterWrite;
+		this.expireAfterAccess = builder.expireAfterAccess;
+		this.loader = builder.loader;
+	}
+
+	/**
+	 * Gets the value of the specified key if it is cached.
+	 *
+	 * @param key the key to get
+	 * @return the cached value
+	 */
+	@Nonnull
+	public Optional<V> getIfPresent(@Nonnull K key) {
+		synchronized (entries) {
+			return Optional.ofNullable(lookup(key, System.nanoTime()));
+		}
+	}
+
+	/**
+	 * Gets the value of the specified key, loading it asynchronously with the {@link Loader} if it is not cached.
+	 * <p>
+	 * Concurrent calls for the same key share a single load. If the loader returns null, nothing is cached
+	 * and the future is completed with null.
+	 *
+	 * @param key the key to get
+	 * @return a future that will be completed with the value
+	 */
+	@Nonnull
+	public CompletableFuture<V> get(@Nonnull K key) {
+		Load<V> load;
+		synchronized (entries) {
+			// The load is registered under the same lock as the miss, so a put right after the miss marks it stale.
+			V value = lookup(key, System.nanoTime());
+			if (value != null) {
+				return CompletableFuture.completedFuture(value);
+			} else if (loader == null) {
+				return CompletableFuture.failedFuture(new IllegalStateException("Cache has no loader."));
+			}
+
+			Load<V> existing = loading.get(key);
+			if (existing != null) {
+				return existing.future;
+			}
+			load = new Load<>();
+			loading.put(key, load);
+		}
+
+		Scheduler.async().call(() -> loader.load(key)).whenComplete((result, e) -> {
+			if (e != null) {
+				loadFailures.increment();
+				loading.remove(key, load);
+				load.future.completeExceptionally(e);
+				return;
+			}
+
+			loads.increment();
+			V loaded = result;
+			synchronized (entries) {
+				loading.remove(key, load);
+				if (!load.stale) {
+					if (result != null) {
+						store(key, result, System.nanoTime());
+					}
+				} else {
+					// The key was changed during the load, so the loaded value is out of date.
+					CacheEntry<V> entry = entries.get(key);
+					loaded = entry != null ? entry.value : result;
+				}
+			}
+			load.future.complete(loaded);
+		});
+		return load.future;
+	}
+
+	/**
+	 * Caches the value for the specified key, replacing any previous value.
+	 *
+	 * @param key the key to cache
+	 * @param value the value to cache
+	 */
+	public void put(@Nonnull K key, @Nonnull V value) {
+		long now = System.nanoTime();
+		synchronized (entries) {
+			markStale(key);
+			store(key, value, now);
+		}
+	}
+
+	/**
+	 * Removes the value of the specified key from the cache.
+	 *
+	 * @param key the key to remove
+	 */
+	public void invalidate(@Nonnull K key) {
+		synchronized (entries) {
+			markStale(key);
+			entries.remove(key);
+		}
+	}
+
+	/**
+	 * Removes every value from the cache.
+	 */
+	public void invalidateAll() {
+		synchronized (entries) {
+			loading.values().forEach(load -> load.stale = true);
+			entries.clear();
+		}
+	}
+
+	/**
+	 * Removes every expired value from the cache.
+	 */
+	public void cleanUp() {
+		if (expireAfterWrite < 0 && expireAfterAccess < 0) {
+			return;
+		}
+
+		long now = System.nanoTime();
+		synchronized (entries) {
+			Iterator<CacheEntry<V>> iterator = entries.values().iterator();
+			while (iterator.hasNext()) {
+				if (isExpired(iterator.next(), now)) {
+					iterator.remove();
+					evictions.increment();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Gets the keys that are currently cached, including values that have expired but have not been removed yet.
+	 *
+	 * @return the list of cached keys
+	 */
+	@Nonnull
+	public List<K> keys() {
+		synchronized (entries) {
+			return new ArrayList<>(entries.keySet());
+		}
+	}
+
+	/**
+	 * Gets the amount of values in the cache, including values that have expired but have not been removed yet.
+	 *
+	 * @return the amount of values
+	 */
+	public int size() {
+		synchronized (entries) {
+			return entries.size();
+		}
+	}
+
+	/**
+	 * Gets a snapshot of the statistics of the cache.
+	 *
+	 * @return the cache statistics
+	 */
+	@Nonnull
+	public Stats getStats() {
+		return new Stats(hits.sum(), misses.sum(), evictions.sum(), loads.sum(), loadFailures.sum());
+	}
+
+	/**
+	 * Gets the cached value of the key, removing it if it has expired. Must be called under the entries lock.
+	 *
+	 * @param key the key to get
+	 * @param now the current time in nanoseconds
+	 * @return the cached value, or null if it is not cached
+	 */
+	@Nullable
+	private V lookup(@Nonnull K key, long now) {
+		CacheEntry<V> entry = entries.get(key);
+		if (entry != null && isExpired(entry, now)) {
+			entries.remove(key);
+			evictions.increment();
+			entry = null;
+		}
+
+		if (entry == null) {
+			misses.increment();
+			return null;
+		}
+
+		entry.accessed = now;
+		hits.increment();
+		return entry.value;
+	}
+
+	private void store(@Nonnull K key, @Nonnull V value, long now) {
+		entries.put(key, new CacheEntry<>(value, now));
+		if (entries.size() <= maximumSize) {
+			return;
+		}
+
+		// Evicts the least recently used entries.
+		Iterator<CacheEntry<V>> iterator = entries.values().iterator();
+		while (entries.size() > maximumSize && iterator.hasNext()) {
+			iterator.next();
+			iterator.remove();
+			evictions.increment();
+		}
+	}
+
+	private void markStale(@Nonnull K key) {
+		Load<V> load = loading.get(key);
+		if (load != null) {
+			load.stale = true;
+		}
+	}
+
+	private boolean isExpired(@Nonnull CacheEntry<V> entry, long now) {
+		return (expireAfterWrite >= 0 && now - entry.written >= expireAfterWrite)
+				|| (expireAfterAccess >= 0 && now - entry.accessed >= expireAfterAccess);
+	}
+
+	private static class Load<V> {
+		final CompletableFuture<V> future = new CompletableFuture<>();
+		// Guarded by the entries lock.
+		boolean stale = false;
+	}
+
+	private static class CacheEntry<V> {
+		final V value;
+		final long written;
+		long accessed;
+
+		CacheEntry(@Nonnull V value, long written) {
+			this.value = value;
+			this.written = written;
+			this.accessed = written;
+		}
+	}
+
+	/**
+	 * Loads values that are missing from an {@link ExpiringCache}.
+	 *
+	 * @param <K> the type of the keys
+	 * @param <V> the type of the values
+	 */
+	@FunctionalInterface
+	public interface Loader<K, V> {
+
+		/**
+		 * Loads the value of the specified key.
+		 * This is called asynchronously.
+		 *
+		 * @param key the key to load
+		 * @return the loaded value, or null if there is no value for the key
+		 * @throws Exception if the value could not be loaded
+		 */
+		@Nullable
+		V load(@Nonnull K key) throws Exception;
+	}
+
+	/**
+	 * A snapshot of the statistics of an {@link ExpiringCache}.
+	 */
+	public static class Stats {
+
+		private final long hits;
+		private final long misses;
+		private final long evictions;
+		private final long loads;
+		private final long loadFailures;
+
+		Stats(long hits, long misses, long evictions, long loads, long loadFailures) {
+			this.hits = hits;
+			this.misses = misses;
+			this.evictions = evictions;
+			this.loads = loads;
+			this.loadFailures = loadFailures;
+		}
+
+		/**
+		 * Gets the amount of lookups that found a cached value.
+		 *
+		 * @return the amount of hits
+		 */
+		public long getHits() {
+			return hits;
+		}
+
+		/**
+		 * Gets the amount of lookups that did not find a cached value.
+		 *
+		 * @return the amount of misses
+		 */
+		public long getMisses() {
+			return misses;
+		}
+
+		/**
+		 * Gets the ratio of lookups that found a cached value.
+		 *
+		 * @return the hit rate between 0 and 1
+		 */
+		public double getHitRate() {
+			long total = hits + misses;
+			return total == 0 ? 1.0 : (double) hits / total;
+		}
+
+		/**
+		 * Gets the amount of values that were evicted because of the size limit or because they expired.
+		 *
+		 * @return the amount of evictions
+		 */
+		public long getEvictions() {
+			return evictions;
+		}
+
+		/**
+		 * Gets the amount of loads that completed successfully.
+		 *
+		 * @return the amount of successful loads
+		 */
+		public long getLoads() {
+			return loads;
+		}
+
+		/**
+		 * Gets the amount of loads that failed with an exception.
+		 *
+		 * @return the amount of failed loads
+		 */
+		public long getLoadFailures() {
+			return loadFailures;
+		}
+
+		@Nonnull
+		@Override
+		public String toString() {
+			return "Stats{" +
+					"hits=" + hits +
+					", misses=" + misses +
+					", evictions=" + evictions +
+					", loads=" + loads +
+					", loadFailures=" + loadFailures +
+					'}';
+		}
+	}
+
+	/**
+	 * Provides a simple way to build {@link ExpiringCache} objects.
+	 *
+	 * @param <K> the type of the keys in the cache
+	 * @param <V> the type of the values in the cache
+	 */
+	public static class Builder<K, V> {
+
+		private long maximumSize = Long.MAX_VALUE;
+		private long expireAfterWrite = -1;
+		private long expireAfterAccess = -1;
+		private Loader<K, V> loader;
+
+		/**
+		 * Sets the maximum amount of values in the cache.
+		 * The least recently used values are evicted once the cache grows past this size.
+		 *
+		 * @param maximumSize the maximum size
+		 * @return the cache builder object
+		 */
+		@Nonnull
+		public Builder<K, V> maximumSize(long maximumSize) {
+			this.maximumSize = maximumSize;
+			return this;
+		}
+
+		/**
+		 * Sets the amount of time after which values expire once they are written.
+		 *
+		 * @param duration the duration after writing
+		 * @return the cache builder object
+		 */
+		@Nonnull
+		public Builder<K, V> expireAfterWrite(@Nonnull Duration duration) {
+			this.expireAfterWrite = duration.toNanos();
+			return this;
+		}
+
+		/**
+		 * Sets the amount of time after which values expire once they were last read or written.
+		 *
+		 * @param duration the duration after accessing
+		 * @return the cache builder object
+		 */
+		@Nonnull
+		public Builder<K, V> expireAfterAccess(@Nonnull Duration duration) {
+			this.expireAfterAccess = duration.toNanos();
+			return this;
+		}
+
+		/**
+		 * Sets the loader that is used to load missing values in {@link ExpiringCache#get(Object)}.
+		 *
+		 * @param loader the value loader
+		 * @return the cache builder object
+		 */
+		@Nonnull
+		public Builder<K, V> loader(@Nullable Loader<K, V> loader) {
+			this.loader = loader;
+			return this;
+		}
+
+		/**
+		 * Builds the {@link ExpiringCache} object.
+		 *
+		 * @return the cache
+		 */
+		@Nonnull
+		public ExpiringCache<K, V> build() {
+			return new ExpiringCache<>(this);
+		}
+	}
+}
@@ -0,0 +1,118 @@
+package me.colingrimes.midnight.cache;
+
+import javax.annotation.Nonnull;
+import java.time.Duration;
+
+/**
+ * A cooldown cache specialized for {@code int} keys, such as entity ids.
+ * <p>
+ * Unlike {@link Cooldown}, expirations are stored as primitive values and checking a cooldown never allocates,
+ * which makes it suitable for hot paths such as combat checks. Expired entries are cleaned up lazily, so there
+ * is no repeating task and no expiration action.
+ */
+public class IntCooldown {
+
+	private final CooldownTable table = new CooldownTable();
+	private final long defaultNanos;
+
+	/**
+	 * Creates a cooldown cache with a default duration.
+	 *
+	 * @param defaultDuration the default duration of the cooldown period
+	 * @return a new cooldown cache
+	 */
+	@Nonnull
+	public static IntCooldown create(@Nonnull Duration defaultDuration) {
+		return new IntCooldown(defaultDuration);
+	}
+
+	private IntCooldown(@Nonnull Duration defaultDuration) {
+		this.defaultNanos = CooldownTable.toNanos(defaultDuration);
+	}
+
+	/**
+	 * Adds an entry to the cooldown cache with the default duration.
+	 *
+	 * @param key the key to be added
+	 */
+	public synchronized void add(int key) {
+		table.start(key, 0, defaultNanos);
+	}
+
+	/**
+	 * Adds an entry to the cooldown cache with the specified duration.
+	 *
+	 * @param key the key to be added
+	 * @param duration the duration of the cooldown period
+	 */
+	public synchronized void add(int key, @Nonnull Duration duration) {
+		table.start(key, 0, CooldownTable.toNanos(duration));
+	}
+
+	/**
+	 * Adds an entry to the cooldown cache with the specified duration in milliseconds.
+	 *
+	 * @param key the key to be added
+	 * @param millis the duration of the cooldown period in milliseconds
+	 */
+	public synchronized void addMillis(int key, long millis) {
+		table.start(key, 0, CooldownTable.millisToNanos(millis));
+	}
+
+	/**
+	 * Cancels the cooldown for a given key.
+	 *
+	 * @param key the key to be cancelled
+	 */
+	public synchronized void cancel(int key) {
+		table.remove(key, 0);
+	}
+
+	/**
+	 * Checks if the specified key is still on cooldown.
+	 *
+	 * @param key the key to check
+	 * @return true if the key is on cooldown, false otherwise
+	 */
+	public synchronized boolean onCooldown(int key) {
+		return table.onCooldown(key, 0);
+	}
+
+	/**
+	 * Gets the amount of milliseconds left for the specified key, rounded up.
+	 *
+	 * @param key the key to check
+	 * @return the milliseconds left of the key, or 0 if the key is not on cooldown
+	 */
+	public synchronized long remainingMillis(int key) {
+		return table.remainingMillis(key, 0);
+	}
+
+	/**
+	 * Gets the amount of time left for the specified key.
+	 *
+	 * @param key the key to check
+	 * @return the duration left of the key
+	 */
+	@Nonnull
+	public Duration getTimeLeft(int key) {
+		return Duration.ofMillis(remainingMillis(key));
+	}
+
+	/**
+	 * Removes every expired entry from the cache.
+	 * This happens automatically as the cache grows, but can be called to free memory early.
+	 */
+	public synchronized void purge() {
+		table.purge();
+	}
+
+	/**
+	 * Gets the amount of entries in the cache, including expired entries that have not been purged yet.
+	 *
+	 * @return the amount of entries
+	 */
+	public synchronized int size() {
+		return table.size();
+	}
+}
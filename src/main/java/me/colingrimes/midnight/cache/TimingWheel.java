@@ -0,0 +1,212 @@
+package me.colingrimes.midnight.cache;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A hierarchical timing wheel that buckets nodes by their deadline.
+ * <p>
+ * The lowest level has one bucket per tick and every level above it covers 64 times the range of the level below.
+ * Nodes are placed in the level that fits their remaining time and are cascaded down as the wheel turns.
+ * Advancing the wheel only visits the buckets whose time has come, so the work scales with the number
+ * of nodes that expire instead of the number of nodes that are stored.
+ *
+ * @param <N> the type of the nodes stored in the wheel
+ */
+public class TimingWheel<N extends TimingWheel.Node> {
+
+	private static final int WHEEL_BITS = 6;
+	private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+	private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+	private static final int LEVELS = 6;
+	private static final long MAX_DELTA = (1L << (WHEEL_BITS * LEVELS)) - 1;
+
+	private final Node[][] buckets = new Node[LEVELS][WHEEL_SIZE];
+	private final long tickMillis;
+	private long currentTick;
+	private int size;
+
+	/**
+	 * Creates a timing wheel.
+	 *
+	 * @param tickMillis the duration of a single tick in milliseconds
+	 * @param startMillis the time in milliseconds that the wheel starts at
+	 */
+	public TimingWheel(long tickMillis, long startMillis) {
+		if (tickMillis <= 0) {
+			throw new IllegalArgumentException("Tick duration must be positive.");
+		}
+
+		this.tickMillis = tickMillis;
+		this.currentTick = Math.floorDiv(startMillis, tickMillis);
+		for (Node[] level : buckets) {
+			for (int i = 0; i < WHEEL_SIZE; i++) {
+				level[i] = Node.sentinel();
+			}
+		}
+	}
+
+	/**
+	 * Schedules the node to expire at the specified time.
+	 * If the node is already scheduled, it is moved to its new deadline.
+	 *
+	 * @param node the node to schedule
+	 * @param deadlineMillis the time in milliseconds when the node expires
+	 */
+	public synchronized void schedule(@Nonnull N node, long deadlineMillis) {
+		cancel(node);
+
+		Node base = node;
+		base.deadlineTick = Math.floorDiv(deadlineMillis, tickMillis);
+		insert(base);
+		size++;
+	}
+
+	/**
+	 * Cancels the node if it is scheduled.
+	 *
+	 * @param node the node to cancel
+	 * @return true if the node was scheduled
+	 */
+	public synchronized boolean cancel(@Nonnull N node) {
+		if (!node.isScheduled()) {
+			return false;
+		}
+
+		((Node) node).unlink();
+		size--;
+		return true;
+	}
+
+	/**
+	 * Advances the wheel to the specified time and removes every node that is due.
+	 * <p>
+	 * Nodes are due once the tick containing their deadline has been reached, so callers that need
+	 * exact expiration should check the node again and reschedule it if it is not quite expired.
+	 *
+	 * @param nowMillis the current time in milliseconds
+	 * @return the list of nodes that are due
+	 */
+	@Nonnull
+	@SuppressWarnings("unchecked")
+	public synchronized List<N> advance(long nowMillis) {
+		long nowTick = Math.floorDiv(nowMillis, tickMillis);
+		if (size == 0) {
+			currentTick = Math.max(currentTick, nowTick + 1);
+			return List.of();
+		}
+
+		List<N> expired = new ArrayList<>();
+		while (currentTick <= nowTick && size > 0) {
+			cascade(currentTick);
+
+			Node head = buckets[0][(int) (currentTick & WHEEL_MASK)];
+			while (head.next != head) {
+				Node node = head.next;
+				node.unlink();
+				size--;
+				expired.add((N) node);
+			}
+			currentTick++;
+		}
+
+		currentTick = Math.max(currentTick, nowTick + 1);
+		return expired;
+	}
+
+	/**
+	 * Gets the amount of nodes that are scheduled.
+	 *
+	 * @return the amount of scheduled nodes
+	 */
+	public synchronized int size() {
+		return size;
+	}
+
+	/**
+	 * Places the node in the bucket that fits its remaining time.
+	 * Nodes that are already due are placed in the bucket for the next tick.
+	 *
+	 * @param node the node to place
+	 */
+	private void insert(@Nonnull Node node) {
+		long delta = node.deadlineTick - currentTick;
+		if (delta < 0) {
+			buckets[0][(int) (currentTick & WHEEL_MASK)].append(node);
+			return;
+		}
+
+		// Deadlines beyond the highest level are parked at its far end and cascaded again later.
+		long tick = delta > MAX_DELTA ? currentTick + MAX_DELTA : node.deadlineTick;
+		int level = 0;
+		while (level < LEVELS - 1 && Math.min(delta, MAX_DELTA) >= 1L << (WHEEL_BITS * (level + 1))) {
+			level++;
+		}
+
+		buckets[level][(int) ((tick >>> (WHEEL_BITS * level)) & WHEEL_MASK)].append(node);
+	}
+
+	/**
+	 * Moves the nodes of every higher level bucket that starts at the specified tick into the lower levels.
+	 *
+	 * @param tick the tick that is about to be processed
+	 */
+	private void cascade(long tick) {
+		for (int level = 1; level < LEVELS; level++) {
+			int shift = WHEEL_BITS * level;
+			if ((tick & ((1L << shift) - 1)) != 0) {
+				return;
+			}
+
+			Node head = buckets[level][(int) ((tick >>> shift) & WHEEL_MASK)];
+			while (head.next != head) {
+				Node node = head.next;
+				node.unlink();
+				insert(node);
+			}
+		}
+	}
+
+	/**
+	 * Represents an element that can be scheduled in a {@link TimingWheel}.
+	 * A node can only be scheduled in a single wheel at a time.
+	 */
+	public static class Node {
+
+		private Node prev;
+		private Node next;
+		private long deadlineTick;
+
+		private static Node sentinel() {
+			Node node = new Node();
+			node.prev = node;
+			node.next = node;
+			return node;
+		}
+
+		/**
+		 * Gets whether the node is currently scheduled in a wheel.
+		 * This should only be relied on while holding the lock of the wheel.
+		 *
+		 * @return true if the node is scheduled
+		 */
+		public final boolean isScheduled() {
+			return next != null;
+		}
+
+		private void append(@Nonnull Node node) {
+			node.prev = prev;
+			node.next = this;
+			prev.next = node;
+			prev = node;
+		}
+
+		private void unlink() {
+			prev.next = next;
+			next.prev = prev;
+			prev = null;
+			next = null;
+		}
+	}
+}
@@ -2,19 +2,22 @@ package me.colingrimes.midnight.geometry;
 
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import me.colingrimes.midnight.serialize.BinarySerializable;
 import me.colingrimes.midnight.serialize.Json;
-import me.colingrimes.midnight.serialize.Serializable;
 import me.colingrimes.midnight.util.misc.Validator;
 import org.bukkit.Location;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.Objects;
 
 /**
  * Represents a direction in the form of yaw and pitch angles.
  */
-public class Direction implements Serializable {
+public class Direction implements BinarySerializable {
 
     private final double yaw;
     private final double pitch;
@@ -111,4 +114,15 @@ public class Direction implements Serializable {
         JsonObject object = Validator.checkJson(element, "yaw", "pitch");
         return of(object.get("yaw").getAsDouble(), object.get("pitch").getAsDouble());
     }
+
+    @Override
+    public void writeTo(@Nonnull DataOutput out) throws IOException {
+        out.writeDouble(yaw);
+        out.writeDouble(pitch);
+    }
+
+    @Nonnull
+    public static Direction readFrom(@Nonnull DataInput in) throws IOException {
+        return of(in.readDouble(), in.readDouble());
+    }
 }
@@ -3,17 +3,20 @@ package me.colingrimes.midnight.geometry;
 import com.google.common.base.Preconditions;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import me.colingrimes.midnight.serialize.BinarySerializable;
 import me.colingrimes.midnight.serialize.Json;
-import me.colingrimes.midnight.serialize.Serializable;
 import me.colingrimes.midnight.util.misc.Validator;
 import org.bukkit.Location;
 import org.bukkit.World;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.Objects;
 
-public class Pose implements Serializable {
+public class Pose implements BinarySerializable {
 
 	private final Position position;
 	private final Direction direction;
@@ -220,4 +223,17 @@ public class Pose implements Serializable {
 		JsonObject object = Validator.checkJson(element, "position", "direction");
 		return of(Position.deserialize(object.get("position")), Direction.deserialize(object.get("direction")));
 	}
-}
\ No newline at end of file
+
+	@Override
+	public void writeTo(@Nonnull DataOutput out) throws IOException {
+		// The direction may be a rotation, so only its own fields are written.
+		position.writeTo(out);
+		out.writeDouble(direction.getYaw());
+		out.writeDouble(direction.getPitch());
+	}
+
+	@Nonnull
+	public static Pose readFrom(@Nonnull DataInput in) throws IOException {
+		return of(Position.readFrom(in), Direction.readFrom(in));
+	}
+}
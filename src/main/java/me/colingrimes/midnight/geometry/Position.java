@@ -3,8 +3,12 @@ package me.colingrimes.midnight.geometry;
 import com.google.common.base.Preconditions;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import me.colingrimes.midnight.serialize.Binary;
+import me.colingrimes.midnight.serialize.BinarySerializable;
 import me.colingrimes.midnight.serialize.Json;
-import me.colingrimes.midnight.serialize.Serializable;
+import me.colingrimes.midnight.serialize.StreamSerializable;
 import me.colingrimes.midnight.util.bukkit.Worlds;
 import me.colingrimes.midnight.util.misc.Validator;
 import org.bukkit.Location;
@@ -13,13 +17,16 @@ import org.bukkit.block.Block;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.Objects;
 import java.util.Optional;
 
 /**
  * Represents a 3D position in the form of x, y, and z coordinates.
  */
-public class Position implements Serializable {
+public class Position implements BinarySerializable, StreamSerializable {
 
     private final World world;
     private final double x;
@@ -248,4 +255,51 @@ public class Position implements Serializable {
         double z = object.get("z").getAsDouble();
         return of(world.get(), x, y, z);
     }
+
+    @Override
+    public void writeTo(@Nonnull JsonWriter out) throws IOException {
+        out.beginObject();
+        out.name("world").value(world.getName());
+        out.name("x").value(x);
+        out.name("y").value(y);
+        out.name("z").value(z);
+        out.endObject();
+    }
+
+    @Nonnull
+    public static Position readFrom(@Nonnull JsonReader in) throws IOException {
+        String world = null;
+        Double x = null, y = null, z = null;
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "world" -> world = in.nextString();
+                case "x" -> x = in.nextDouble();
+                case "y" -> y = in.nextDouble();
+                case "z" -> z = in.nextDouble();
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+
+        Preconditions.checkArgument(world != null && x != null && y != null && z != null, "Position is missing a required field.");
+        Optional<World> bukkitWorld = Worlds.get(world);
+        Preconditions.checkArgument(bukkitWorld.isPresent());
+        return of(bukkitWorld.get(), x, y, z);
+    }
+
+    @Override
+    public void writeTo(@Nonnull DataOutput out) throws IOException {
+        Binary.writeString(out, world.getName());
+        out.writeDouble(x);
+        out.writeDouble(y);
+        out.writeDouble(z);
+    }
+
+    @Nonnull
+    public static Position readFrom(@Nonnull DataInput in) throws IOException {
+        Optional<World> world = Worlds.get(Binary.readString(in));
+        Preconditions.checkArgument(world.isPresent());
+        return of(world.get(), in.readDouble(), in.readDouble(), in.readDouble());
+    }
 }
@@ -2,10 +2,13 @@ package me.colingrimes.midnight.geometry;
 
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
 import me.colingrimes.midnight.functional.TriConsumer;
 import me.colingrimes.midnight.functional.TriPredicate;
+import me.colingrimes.midnight.serialize.BinarySerializable;
 import me.colingrimes.midnight.serialize.Json;
-import me.colingrimes.midnight.serialize.Serializable;
+import me.colingrimes.midnight.serialize.StreamSerializable;
 import me.colingrimes.midnight.util.misc.Validator;
 import org.bukkit.World;
 import org.bukkit.entity.LivingEntity;
@@ -14,6 +17,9 @@ import org.bukkit.util.BoundingBox;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.List;
 import java.util.Objects;
 
@@ -21,7 +27,7 @@ import java.util.Objects;
  * Represents a region with a minimum and maximum {@link Position}.
  * You can also retrieve the region's middle {@link Position} and {@link Size}.
  */
-public class Region implements Serializable {
+public class Region implements BinarySerializable, StreamSerializable {
 
 	protected final Position min;
 	protected final Position max;
@@ -223,4 +229,44 @@ public class Region implements Serializable {
 		JsonObject object = Validator.checkJson(element, "min", "max");
 		return of(Position.deserialize(object.get("min")), Position.deserialize(object.get("max")));
 	}
+
+	@Override
+	public void writeTo(@Nonnull JsonWriter out) throws IOException {
+		out.beginObject();
+		out.name("min");
+		min.writeTo(out);
+		out.name("max");
+		max.writeTo(out);
+		out.endObject();
+	}
+
+	@Nonnull
+	public static Region readFrom(@Nonnull JsonReader in) throws IOException {
+		Position min = null, max = null;
+		in.beginObject();
+		while (in.hasNext()) {
+			switch (in.nextName()) {
+				case "min" -> min = Position.readFrom(in);
+				case "max" -> max = Position.readFrom(in);
+				default -> in.skipValue();
+			}
+		}
+		in.endObject();
+
+		if (min == null || max == null) {
+			throw new IllegalArgumentException("Region is missing a required field.");
+		}
+		return of(min, max);
+	}
+
+	@Override
+	public void writeTo(@Nonnull DataOutput out) throws IOException {
+		min.writeTo(out);
+		max.writeTo(out);
+	}
+
+	@Nonnull
+	public static Region readFrom(@Nonnull DataInput in) throws IOException {
+		return of(Position.readFrom(in), Position.readFrom(in));
+	}
 }
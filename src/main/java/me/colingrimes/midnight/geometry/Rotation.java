@@ -2,18 +2,21 @@ package me.colingrimes.midnight.geometry;
 
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import me.colingrimes.midnight.serialize.BinarySerializable;
 import me.colingrimes.midnight.serialize.Json;
-import me.colingrimes.midnight.serialize.Serializable;
 import me.colingrimes.midnight.util.misc.Validator;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.Objects;
 
 /**
  * Represents a rotation in the form of yaw, pitch, and roll angles.
  */
-public class Rotation extends Direction implements Serializable {
+public class Rotation extends Direction implements BinarySerializable {
 
     private final double roll;
 
@@ -90,4 +93,15 @@ public class Rotation extends Direction implements Serializable {
         JsonObject object = Validator.checkJson(element, "yaw", "pitch", "roll");
         return of(object.get("yaw").getAsDouble(), object.get("pitch").getAsDouble(), object.get("roll").getAsDouble());
     }
+
+    @Override
+    public void writeTo(@Nonnull DataOutput out) throws IOException {
+        super.writeTo(out);
+        out.writeDouble(roll);
+    }
+
+    @Nonnull
+    public static Rotation readFrom(@Nonnull DataInput in) throws IOException {
+        return of(in.readDouble(), in.readDouble(), in.readDouble());
+    }
 }
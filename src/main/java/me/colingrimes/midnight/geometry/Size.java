@@ -2,13 +2,17 @@ package me.colingrimes.midnight.geometry;
 
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import me.colingrimes.midnight.serialize.Binary;
+import me.colingrimes.midnight.serialize.BinarySerializable;
 import me.colingrimes.midnight.serialize.Json;
-import me.colingrimes.midnight.serialize.Serializable;
 import me.colingrimes.midnight.util.misc.Types;
 import me.colingrimes.midnight.util.misc.Validator;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
@@ -16,7 +20,7 @@ import java.util.Objects;
 /**
  * Represents a size in the form of length (X/Z), height (Y), and width (X/Z).
  */
-public class Size implements Serializable {
+public class Size implements BinarySerializable {
 
     private final int length;
     private final int height;
@@ -162,4 +166,16 @@ public class Size implements Serializable {
         JsonObject object = Validator.checkJson(element, "length", "height", "width");
         return of(object.get("length").getAsInt(), object.get("height").getAsInt(), object.get("width").getAsInt());
     }
+
+    @Override
+    public void writeTo(@Nonnull DataOutput out) throws IOException {
+        Binary.writeVarInt(out, length);
+        Binary.writeVarInt(out, height);
+        Binary.writeVarInt(out, width);
+    }
+
+    @Nonnull
+    public static Size readFrom(@Nonnull DataInput in) throws IOException {
+        return of(Binary.readVarInt(in), Binary.readVarInt(in), Binary.readVarInt(in));
+    }
 }
@@ -3,17 +3,20 @@ package me.colingrimes.midnight.geometry;
 import com.google.common.base.Preconditions;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import me.colingrimes.midnight.serialize.BinarySerializable;
 import me.colingrimes.midnight.serialize.Json;
-import me.colingrimes.midnight.serialize.Serializable;
 import me.colingrimes.midnight.util.misc.Validator;
 import org.bukkit.Location;
 import org.bukkit.World;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.Objects;
 
-public class Transform implements Serializable {
+public class Transform implements BinarySerializable {
 
 	private final Position position;
 	private final Rotation rotation;
@@ -229,4 +232,15 @@ public class Transform implements Serializable {
 		JsonObject object = Validator.checkJson(element, "position", "rotation");
 		return of(Position.deserialize(object.get("position")), Rotation.deserialize(object.get("rotation")));
 	}
-}
\ No newline at end of file
+
+	@Override
+	public void writeTo(@Nonnull DataOutput out) throws IOException {
+		position.writeTo(out);
+		rotation.writeTo(out);
+	}
+
+	@Nonnull
+	public static Transform readFrom(@Nonnull DataInput in) throws IOException {
+		return of(Position.readFrom(in), Rotation.readFrom(in));
+	}
+}
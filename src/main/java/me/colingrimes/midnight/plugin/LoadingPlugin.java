@@ -1,12 +1,16 @@
 package me.colingrimes.midnight.plugin;
 
 import me.colingrimes.midnight.Midnight;
+import me.colingrimes.midnight.command.handler.CommandHandler;
+import me.colingrimes.midnight.command.node.CommandNode;
 import me.colingrimes.midnight.hologram.Hologram;
 import me.colingrimes.midnight.listener.*;
 import me.colingrimes.midnight.menu.Gui;
+import me.colingrimes.midnight.plugin.command.TasksCommand;
 import me.colingrimes.midnight.util.Common;
 import org.bstats.bukkit.Metrics;
 import org.bstats.charts.AdvancedPie;
+import org.bukkit.command.PluginCommand;
 
 import java.util.HashMap;
 import java.util.HashSet;
@@ -23,6 +27,7 @@ public class LoadingPlugin extends Midnight {
         Common.register(this, new InventoryListener());
         Common.register(this, new ArmorEquipListeners());
         Common.register(this, new MenuListeners());
+        setupCommands();
         setupMetrics();
     }
 
@@ -32,6 +37,21 @@ public class LoadingPlugin extends Midnight {
         new HashSet<>(Hologram.SPAWNED_HOLOGRAMS).forEach(Hologram::remove);
     }
 
+    /**
+     * Sets up the admin commands of the library, which are declared in the plugin.yml.
+     */
+    private void setupCommands() {
+        PluginCommand command = getCommand("midnight");
+        if (command == null) {
+            return;
+        }
+
+        CommandNode root = new CommandNode(null);
+        root.getChildren().put("tasks", new CommandNode(root, CommandHandler.create(this, new TasksCommand())));
+        command.setExecutor(root);
+        command.setTabCompleter(root);
+    }
+
     /**
      * Sets up the Metrics for the library.
      */
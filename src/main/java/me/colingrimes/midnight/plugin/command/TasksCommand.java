@@ -0,0 +1,112 @@
+package me.colingrimes.midnight.plugin.command;
+
+import me.colingrimes.midnight.command.Command;
+import me.colingrimes.midnight.command.handler.util.ArgumentList;
+import me.colingrimes.midnight.command.handler.util.CommandProperties;
+import me.colingrimes.midnight.command.handler.util.Sender;
+import me.colingrimes.midnight.plugin.LoadingPlugin;
+import me.colingrimes.midnight.scheduler.profiler.TaskProfiler;
+import me.colingrimes.midnight.scheduler.profiler.TaskReport;
+import me.colingrimes.midnight.util.text.Text;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Admin command for the {@link TaskProfiler}.
+ * <p>
+ * Usage: {@code /midnight tasks [on [budget ms] | off | reset | stack <id>]}
+ */
+public class TasksCommand implements Command<LoadingPlugin> {
+
+	private static final int SHOWN_TASKS = 10;
+
+	@Override
+	public void execute(@Nonnull LoadingPlugin plugin, @Nonnull Sender sender, @Nonnull ArgumentList args) {
+		if (args.isEqual(0, "on")) {
+			TaskProfiler.enable(Duration.ofNanos((long) (args.getDoubleOrDefault(1, TaskProfiler.getBudgetNanos() / 1e6) * 1e6)));
+			sender.message(Text.color("&aTask profiler enabled with a budget of " + millis(TaskProfiler.getBudgetNanos()) + "."));
+		} else if (args.isEqual(0, "off")) {
+			TaskProfiler.disable();
+			sender.message(Text.color("&cTask profiler disabled."));
+		} else if (args.isEqual(0, "reset")) {
+			TaskProfiler.reset();
+			sender.message(Text.color("&aTask profiler stats have been reset."));
+		} else if (args.isEqual(0, "stack")) {
+			showStack(sender, args.getIntOrDefault(1, -1));
+		} else {
+			showReports(sender);
+		}
+	}
+
+	@Nullable
+	@Override
+	public List<String> tabComplete(@Nonnull LoadingPlugin plugin, @Nonnull Sender sender, @Nonnull ArgumentList args) {
+		return args.size() == 1 ? List.of("on", "off", "reset", "stack") : null;
+	}
+
+	@Override
+	public void configureProperties(@Nonnull CommandProperties properties) {
+		properties.setPermission("midnight.admin");
+	}
+
+	private void showReports(@Nonnull Sender sender) {
+		List<TaskReport> reports = TaskProfiler.getReports();
+		String status = TaskProfiler.isEnabled() ? "&aenabled" : "&cdisabled";
+		sender.message(Text.color("&8&m------&r &eTask Profiler &7(" + status + "&7, budget " + millis(TaskProfiler.getBudgetNanos()) + ") &8&m------"));
+		if (reports.isEmpty()) {
+			sender.message(Text.color("&7No tasks have been profiled. Use &e/midnight tasks on &7to start profiling."));
+			return;
+		}
+
+		for (TaskReport report : reports.subList(0, Math.min(SHOWN_TASKS, reports.size()))) {
+			sender.message(Text.color(String.format(
+					"&e#%d &7%s%s &f%s",
+					report.getTaskId(),
+					report.getOwner(),
+					report.isAsync() ? " (async)" : "",
+					simpleName(report.getName())
+			)));
+			sender.message(Text.color(String.format(
+					"  &7runs &f%d &7avg &f%s &7p95 &f%s &7max &f%s &7overruns &f%d",
+					report.getRuns(),
+					millis(report.getAverage().toNanos()),
+					millis(report.getPercentile(0.95).toNanos()),
+					millis(report.getMax().toNanos()),
+					report.getOverruns()
+			)));
+		}
+	}
+
+	private void showStack(@Nonnull Sender sender, int taskId) {
+		Optional<TaskReport> report = TaskProfiler.getReports().stream().filter(r -> r.getTaskId() == taskId).findFirst();
+		if (report.isEmpty()) {
+			sender.message(Text.color("&cThere is no profiled task with that id."));
+			return;
+		}
+
+		Optional<StackTraceElement[]> stack = report.get().getCreationStack();
+		if (stack.isEmpty()) {
+			sender.message(Text.color("&7The task was created before the profiler was enabled, so its creation stack is unknown."));
+			return;
+		}
+
+		sender.message(Text.color("&eTask #" + taskId + " was created at:"));
+		for (StackTraceElement element : stack.get()) {
+			sender.message(Text.color("  &7" + element));
+		}
+	}
+
+	@Nonnull
+	private static String simpleName(@Nonnull String name) {
+		return name.substring(name.lastIndexOf('.') + 1);
+	}
+
+	@Nonnull
+	private static String millis(long nanos) {
+		return String.format("%.2fms", nanos / 1e6);
+	}
+}
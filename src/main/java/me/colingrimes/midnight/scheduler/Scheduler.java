@@ -1,14 +1,21 @@
 package me.colingrimes.midnight.scheduler;
 
 import me.colingrimes.midnight.functional.Execution;
+import me.colingrimes.midnight.scheduler.executor.MainThreadExecutor;
 import me.colingrimes.midnight.scheduler.implementation.AsyncScheduler;
 import me.colingrimes.midnight.scheduler.implementation.SyncScheduler;
+import me.colingrimes.midnight.scheduler.implementation.VirtualScheduler;
+import me.colingrimes.midnight.scheduler.task.RepeatPolicy;
 import me.colingrimes.midnight.scheduler.task.Task;
+import me.colingrimes.midnight.scheduler.task.TimedTask;
 import me.colingrimes.midnight.util.io.Logger;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.time.Duration;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.function.Consumer;
 
 /**
@@ -19,6 +26,8 @@ public interface Scheduler {
 	class Holder {
 		private static final Scheduler SYNC = new SyncScheduler();
 		private static final Scheduler ASYNC = new AsyncScheduler();
+		private static final Scheduler VIRTUAL = new VirtualScheduler();
+		private static final MainThreadExecutor MAIN_THREAD = new MainThreadExecutor();
 	}
 
 	/**
@@ -41,6 +50,32 @@ public interface Scheduler {
 		return Holder.ASYNC;
 	}
 
+	/**
+	 * Gets the virtual thread scheduler.
+	 * <p>
+	 * Every task runs on its own virtual thread, which makes this the preferred scheduler for blocking I/O.
+	 * Use {@link VirtualScheduler#limited(int)} to limit the concurrency for a specific resource.
+	 *
+	 * @return the virtual thread scheduler
+	 */
+	@Nonnull
+	static Scheduler virtual() {
+		return Holder.VIRTUAL;
+	}
+
+	/**
+	 * Gets the main thread executor.
+	 * <p>
+	 * Tasks are queued and run together once per tick, which makes this executor cheap to use for
+	 * moving work back to the main thread, such as {@code future.thenAcceptAsync(action, Scheduler.mainThread())}.
+	 *
+	 * @return the main thread executor
+	 */
+	@Nonnull
+	static Executor mainThread() {
+		return Holder.MAIN_THREAD;
+	}
+
 	/**
 	 * Calls the given task.
 	 *
@@ -156,4 +191,64 @@ public interface Scheduler {
 	 */
 	@Nonnull
 	Task runRepeating(@Nonnull Consumer<Task> task, long delayTicks, long periodTicks, long cancelTicks);
+
+	/**
+	 * Runs a task repeatedly with a period in wall-clock time.
+	 * Missed runs are skipped, see {@link #runRepeating(Runnable, Duration, Duration, Duration, RepeatPolicy)}.
+	 *
+	 * @param task   the task to run
+	 * @param delay  the delay before the first run
+	 * @param period the period between runs
+	 * @return a task that can be used to cancel the task
+	 */
+	@Nonnull
+	default Task runRepeating(@Nonnull Runnable task, @Nonnull Duration delay, @Nonnull Duration period) {
+		return runRepeating(task, delay, period, null, RepeatPolicy.SKIP);
+	}
+
+	/**
+	 * Runs a task repeatedly with a period in wall-clock time.
+	 * Missed runs are skipped, see {@link #runRepeating(Consumer, Duration, Duration, Duration, RepeatPolicy)}.
+	 *
+	 * @param task   the task to run
+	 * @param delay  the delay before the first run
+	 * @param period the period between runs
+	 * @return a task that can be used to cancel the task
+	 */
+	@Nonnull
+	default Task runRepeating(@Nonnull Consumer<Task> task, @Nonnull Duration delay, @Nonnull Duration period) {
+		return runRepeating(task, delay, period, null, RepeatPolicy.SKIP);
+	}
+
+	/**
+	 * Runs a task repeatedly with a period in wall-clock time.
+	 * <p>
+	 * Runs are scheduled relative to the start of the task, so they do not drift when ticks lag behind,
+	 * and the task is cancelled once the next run would be due after {@code cancelAfter}. See {@link TimedTask}.
+	 *
+	 * @param task        the task to run
+	 * @param delay       the delay before the first run
+	 * @param period      the period between runs
+	 * @param cancelAfter the duration until the task is cancelled (or null to never cancel it)
+	 * @param policy      what to do with runs that were missed because of lag
+	 * @return a task that can be used to cancel the task
+	 */
+	@Nonnull
+	Task runRepeating(@Nonnull Runnable task, @Nonnull Duration delay, @Nonnull Duration period, @Nullable Duration cancelAfter, @Nonnull RepeatPolicy policy);
+
+	/**
+	 * Runs a task repeatedly with a period in wall-clock time.
+	 * <p>
+	 * Runs are scheduled relative to the start of the task, so they do not drift when ticks lag behind,
+	 * and the task is cancelled once the next run would be due after {@code cancelAfter}. See {@link TimedTask}.
+	 *
+	 * @param task        the task to run
+	 * @param delay       the delay before the first run
+	 * @param period      the period between runs
+	 * @param cancelAfter the duration until the task is cancelled (or null to never cancel it)
+	 * @param policy      what to do with runs that were missed because of lag
+	 * @return a task that can be used to cancel the task
+	 */
+	@Nonnull
+	Task runRepeating(@Nonnull Consumer<Task> task, @Nonnull Duration delay, @Nonnull Duration period, @Nullable Duration cancelAfter, @Nonnull RepeatPolicy policy);
 }
@@ -0,0 +1,211 @@
+package me.colingrimes.midnight.scheduler.budget;
+
+import me.colingrimes.midnight.scheduler.Scheduler;
+import me.colingrimes.midnight.scheduler.task.Task;
+import org.bukkit.Bukkit;
+import org.bukkit.Server;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Spreads heavy jobs over multiple ticks on the main thread.
+ * <p>
+ * Every tick, the executor processes as many items as fit in its time budget and then yields back to the server.
+ * Jobs are processed in the order they were submitted. The budget is reduced so that the executor does not make lag worse:
+ * on servers that measure their tick time (Paper and its forks), only the time the tick has left is used. Spigot does
+ * not expose its tick time, so there the executor measures the time between its own ticks instead and reduces the
+ * budget proportionally once ticks take longer than 50 milliseconds.
+ * <p>
+ * Jobs can be submitted from any thread, but their items are always processed on the main thread.
+ */
+public class BudgetedExecutor {
+
+	private static final long TICK_NANOS = 50_000_000L;
+	private static final Method AVERAGE_TICK_TIME = findAverageTickTime();
+
+	private final Queue<BudgetedJob<?>> jobs = new ConcurrentLinkedQueue<>();
+	private final long budgetNanos;
+	private final DoubleSupplier serverTickMillis;
+	private double averageTickNanos = TICK_NANOS;
+	private double averageWorkNanos = 0;
+	private long lastTick = -1;
+	private Task task = null;
+
+	/**
+	 * Creates a budgeted executor.
+	 *
+	 * @param budgetMillis the amount of milliseconds per tick that can be spent processing items
+	 * @return a new budgeted executor
+	 */
+	@Nonnull
+	public static BudgetedExecutor create(double budgetMillis) {
+		return new BudgetedExecutor((long) (budgetMillis * 1_000_000), BudgetedExecutor::getServerTickMillis);
+	}
+
+	/**
+	 * Creates a budgeted executor.
+	 *
+	 * @param budgetNanos the amount of nanoseconds per tick that can be spent processing items
+	 * @param serverTickMillis the average milliseconds per tick of the server, or -1 if it is not measured
+	 */
+	BudgetedExecutor(long budgetNanos, @Nonnull DoubleSupplier serverTickMillis) {
+		this.budgetNanos = budgetNanos;
+		this.serverTickMillis = serverTickMillis;
+	}
+
+	/**
+	 * Submits a job that applies the action to every item.
+	 *
+	 * @param items the items to process
+	 * @param action the action to apply to each item
+	 * @return the submitted job
+	 * @param <T> the type of the items
+	 */
+	@Nonnull
+	public <T> BudgetedJob<T> submit(@Nonnull Spliterator<T> items, @Nonnull Consumer<T> action) {
+		BudgetedJob<T> job = new BudgetedJob<>(items, action);
+		jobs.add(job);
+		start();
+		return job;
+	}
+
+	/**
+	 * Submits a job that applies the action to every item.
+	 *
+	 * @param items the items to process
+	 * @param action the action to apply to each item
+	 * @return the submitted job
+	 * @param <T> the type of the items
+	 */
+	@Nonnull
+	public <T> BudgetedJob<T> submit(@Nonnull Iterator<T> items, @Nonnull Consumer<T> action) {
+		return submit(Spliterators.spliteratorUnknownSize(items, 0), action);
+	}
+
+	/**
+	 * Submits a job that applies the action to every item.
+	 * The items are not copied, so the collection should not be modified until the job is done.
+	 *
+	 * @param items the items to process
+	 * @param action the action to apply to each item
+	 * @return the submitted job
+	 * @param <T> the type of the items
+	 */
+	@Nonnull
+	public <T> BudgetedJob<T> submit(@Nonnull Collection<T> items, @Nonnull Consumer<T> action) {
+		return submit(items.spliterator(), action);
+	}
+
+	/**
+	 * Gets the amount of time that can currently be spent per tick.
+	 * This is lower than the configured budget when the server has little time left per tick, but never lower than a tenth of it.
+	 *
+	 * @return the current budget in nanoseconds
+	 */
+	public long getBudgetNanos() {
+		long minimum = budgetNanos / 10;
+		double tickMillis = serverTickMillis.getAsDouble();
+		if (tickMillis >= 0) {
+			// The measured tick time includes the work of this executor, which is what the budget is spent on.
+			double otherNanos = tickMillis * 1_000_000 - averageWorkNanos;
+			return Math.max(minimum, Math.min(budgetNanos, (long) (TICK_NANOS - otherNanos)));
+		} else if (averageTickNanos <= TICK_NANOS) {
+			return budgetNanos;
+		}
+		return Math.max(minimum, (long) (budgetNanos * (TICK_NANOS / averageTickNanos)));
+	}
+
+	/**
+	 * Gets the average time between ticks as measured by the executor while it is running.
+	 *
+	 * @return the average milliseconds per tick
+	 */
+	public double getAverageTickMillis() {
+		return averageTickNanos / 1_000_000;
+	}
+
+	/**
+	 * Gets the amount of jobs that have not finished yet.
+	 *
+	 * @return the amount of queued jobs
+	 */
+	public int getQueuedJobs() {
+		return jobs.size();
+	}
+
+	/**
+	 * Starts the processing task if it is not running.
+	 */
+	private synchronized void start() {
+		if (task == null || task.isCancelled()) {
+			lastTick = -1;
+			task = Scheduler.sync().runRepeating(this::tick, 1, 1);
+		}
+	}
+
+	/**
+	 * Processes the queued jobs until the budget of this tick is used up.
+	 * Stops the task once no jobs are left.
+	 */
+	private void tick() {
+		long start = System.nanoTime();
+		if (lastTick != -1) {
+			averageTickNanos = averageTickNanos * 0.9 + (start - lastTick) * 0.1;
+		}
+		lastTick = start;
+
+		long deadline = start + getBudgetNanos();
+		do {
+			BudgetedJob<?> job = jobs.peek();
+			if (job == null || !job.process(deadline)) {
+				break;
+			}
+			jobs.poll();
+		} while (System.nanoTime() < deadline);
+		averageWorkNanos = averageWorkNanos * 0.9 + (System.nanoTime() - start) * 0.1;
+
+		synchronized (this) {
+			if (jobs.isEmpty() && task != null) {
+				task.stop();
+				task = null;
+			}
+		}
+	}
+
+	/**
+	 * Gets the average time the server spends per tick, which is only measured by Paper and its forks.
+	 *
+	 * @return the average milliseconds per tick, or -1 if the server does not measure it
+	 */
+	private static double getServerTickMillis() {
+		Server server = Bukkit.getServer();
+		if (AVERAGE_TICK_TIME == null || server == null) {
+			return -1;
+		}
+
+		try {
+			return ((Number) AVERAGE_TICK_TIME.invoke(server)).doubleValue();
+		} catch (ReflectiveOperationException | RuntimeException e) {
+			return -1;
+		}
+	}
+
+	@Nullable
+	private static Method findAverageTickTime() {
+		try {
+			return Server.class.getMethod("getAverageTickTime");
+		} catch (NoSuchMethodException e) {
+			return null;
+		}
+	}
+}
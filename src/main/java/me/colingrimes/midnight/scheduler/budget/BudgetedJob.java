@@ -0,0 +1,122 @@
+package me.colingrimes.midnight.scheduler.budget;
+
+import javax.annotation.Nonnull;
+import java.util.Spliterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Represents a job that has been submitted to a {@link BudgetedExecutor}.
+ * Provides the progress of the job and allows it to be cancelled.
+ *
+ * @param <T> the type of the items being processed
+ */
+public class BudgetedJob<T> {
+
+	private final CompletableFuture<Void> future = new CompletableFuture<>();
+	private final Spliterator<T> items;
+	private final Consumer<T> action;
+	private final long total;
+	private volatile long processed = 0;
+
+	BudgetedJob(@Nonnull Spliterator<T> items, @Nonnull Consumer<T> action) {
+		this.items = items;
+		this.action = action;
+		this.total = items.getExactSizeIfKnown();
+	}
+
+	/**
+	 * Processes items until the deadline has passed or there are no items left.
+	 * At least one item is processed every time so that the job always makes progress.
+	 *
+	 * @param deadline the {@link System#nanoTime()} at which to stop
+	 * @return true if the job is done, false if it ran out of time
+	 */
+	boolean process(long deadline) {
+		try {
+			do {
+				if (future.isDone()) {
+					return true;
+				} else if (!items.tryAdvance(this::accept)) {
+					future.complete(null);
+					return true;
+				}
+			} while (System.nanoTime() < deadline);
+		} catch (Exception e) {
+			future.completeExceptionally(e);
+			return true;
+		}
+		return false;
+	}
+
+	private void accept(@Nonnull T item) {
+		action.accept(item);
+		processed++;
+	}
+
+	/**
+	 * Gets the future that is completed once every item has been processed.
+	 * The future is completed exceptionally if processing an item throws an exception.
+	 *
+	 * @return the future of the job
+	 */
+	@Nonnull
+	public CompletableFuture<Void> getFuture() {
+		return future;
+	}
+
+	/**
+	 * Gets the amount of items that have been processed.
+	 *
+	 * @return the amount of processed items
+	 */
+	public long getProcessed() {
+		return processed;
+	}
+
+	/**
+	 * Gets the total amount of items if it was known when the job was submitted.
+	 *
+	 * @return the total amount of items, or -1 if it is unknown
+	 */
+	public long getTotal() {
+		return total;
+	}
+
+	/**
+	 * Gets the progress of the job.
+	 *
+	 * @return the progress between 0 and 1, or -1 if the total amount of items is unknown
+	 */
+	public double getProgress() {
+		if (future.isDone() && !future.isCompletedExceptionally()) {
+			return 1;
+		}
+		return total < 0 ? -1 : total == 0 ? 1 : (double) processed / total;
+	}
+
+	/**
+	 * Cancels the job. Items that have not been processed yet are skipped.
+	 */
+	public void cancel() {
+		future.cancel(false);
+	}
+
+	/**
+	 * Gets whether the job has been cancelled.
+	 *
+	 * @return true if the job has been cancelled
+	 */
+	public boolean isCancelled() {
+		return future.isCancelled();
+	}
+
+	/**
+	 * Gets whether the job is done, either because it has finished, failed, or been cancelled.
+	 *
+	 * @return true if the job is done
+	 */
+	public boolean isDone() {
+		return future.isDone();
+	}
+}
@@ -0,0 +1,78 @@
+package me.colingrimes.midnight.scheduler.executor;
+
+import me.colingrimes.midnight.scheduler.Scheduler;
+import me.colingrimes.midnight.scheduler.task.Task;
+import me.colingrimes.midnight.util.io.Logger;
+
+import javax.annotation.Nonnull;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An {@link Executor} that runs its tasks on the main thread.
+ * <p>
+ * Tasks are added to a lock-free queue and a single repeating task drains the queue once per tick,
+ * so handing work over to the main thread costs a queue offer instead of scheduling a new Bukkit task.
+ * This makes it a good fit for {@link java.util.concurrent.CompletableFuture} methods such as
+ * {@code thenAcceptAsync(action, executor)}.
+ * <p>
+ * Tasks that are submitted while the queue is being drained run on the next tick.
+ */
+public class MainThreadExecutor implements Executor {
+
+	private final Queue<Runnable> queue = new ConcurrentLinkedQueue<>();
+	private final AtomicInteger queued = new AtomicInteger();
+	private volatile Task task = null;
+
+	@Override
+	public void execute(@Nonnull Runnable command) {
+		queue.offer(command);
+		queued.incrementAndGet();
+
+		Task current = task;
+		if (current == null || current.isCancelled()) {
+			start();
+		}
+	}
+
+	/**
+	 * Gets the amount of tasks that are waiting for the next tick.
+	 *
+	 * @return the amount of queued tasks
+	 */
+	public int getQueued() {
+		return queued.get();
+	}
+
+	/**
+	 * Starts the draining task if it is not running.
+	 * The task keeps running once started, so it is only restarted if it has been cancelled.
+	 */
+	private synchronized void start() {
+		if (task == null || task.isCancelled()) {
+			task = Scheduler.sync().runRepeating(this::drain, 0, 1);
+		}
+	}
+
+	/**
+	 * Runs every task that was queued before the drain started.
+	 */
+	private void drain() {
+		int amount = queued.get();
+		for (int i = 0; i < amount; i++) {
+			Runnable command = queue.poll();
+			if (command == null) {
+				break;
+			}
+
+			queued.decrementAndGet();
+			try {
+				command.run();
+			} catch (Exception e) {
+				Logger.severe("MainThreadExecutor has failed to run a task:", e);
+			}
+		}
+	}
+}
@@ -3,11 +3,15 @@ package me.colingrimes.midnight.scheduler.implementation;
 import me.colingrimes.midnight.plugin.MidnightPlugin;
 import me.colingrimes.midnight.scheduler.Scheduler;
 import me.colingrimes.midnight.scheduler.task.AsyncTask;
+import me.colingrimes.midnight.scheduler.task.RepeatPolicy;
 import me.colingrimes.midnight.scheduler.task.SyncTask;
 import me.colingrimes.midnight.scheduler.task.Task;
+import me.colingrimes.midnight.scheduler.task.TimedTask;
 import org.bukkit.Bukkit;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.time.Duration;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
@@ -53,4 +57,16 @@ public class AsyncScheduler implements Scheduler {
     public Task runRepeating(@Nonnull Consumer<Task> task, long delay, long period, long cancelTicks) {
         return new SyncTask(task, delay, period, cancelTicks);
     }
+
+    @Nonnull
+    @Override
+    public Task runRepeating(@Nonnull Runnable task, @Nonnull Duration delay, @Nonnull Duration period, @Nullable Duration cancelAfter, @Nonnull RepeatPolicy policy) {
+        return new TimedTask(task, delay, period, cancelAfter, policy, true);
+    }
+
+    @Nonnull
+    @Override
+    public Task runRepeating(@Nonnull Consumer<Task> task, @Nonnull Duration delay, @Nonnull Duration period, @Nullable Duration cancelAfter, @Nonnull RepeatPolicy policy) {
+        return new TimedTask(task, delay, period, cancelAfter, policy, true);
+    }
 }
@@ -2,11 +2,15 @@ package me.colingrimes.midnight.scheduler.implementation;
 
 import me.colingrimes.midnight.plugin.MidnightPlugin;
 import me.colingrimes.midnight.scheduler.Scheduler;
+import me.colingrimes.midnight.scheduler.task.RepeatPolicy;
 import me.colingrimes.midnight.scheduler.task.SyncTask;
 import me.colingrimes.midnight.scheduler.task.Task;
+import me.colingrimes.midnight.scheduler.task.TimedTask;
 import org.bukkit.Bukkit;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.time.Duration;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
@@ -17,7 +21,7 @@ public class SyncScheduler implements Scheduler {
     @Override
     public <T> CompletableFuture<T> call(@Nonnull Callable<T> task) {
         CompletableFuture<T> future = new CompletableFuture<>();
-        Bukkit.getScheduler().runTask(MidnightPlugin.get(), () -> {
+        Scheduler.mainThread().execute(() -> {
             try {
                 future.complete(task.call());
             } catch (Exception e) {
@@ -52,4 +56,16 @@ public class SyncScheduler implements Scheduler {
     public Task runRepeating(@Nonnull Consumer<Task> task, long delay, long period, long cancelTicks) {
         return new SyncTask(task, delay, period, cancelTicks);
     }
+
+    @Nonnull
+    @Override
+    public Task runRepeating(@Nonnull Runnable task, @Nonnull Duration delay, @Nonnull Duration period, @Nullable Duration cancelAfter, @Nonnull RepeatPolicy policy) {
+        return new TimedTask(task, delay, period, cancelAfter, policy, false);
+    }
+
+    @Nonnull
+    @Override
+    public Task runRepeating(@Nonnull Consumer<Task> task, @Nonnull Duration delay, @Nonnull Duration period, @Nullable Duration cancelAfter, @Nonnull RepeatPolicy policy) {
+        return new TimedTask(task, delay, period, cancelAfter, policy, false);
+    }
 }
@@ -0,0 +1,129 @@
+package me.colingrimes.midnight.scheduler.implementation;
+
+import me.colingrimes.midnight.scheduler.Scheduler;
+import me.colingrimes.midnight.scheduler.task.AsyncTask;
+import me.colingrimes.midnight.scheduler.task.RepeatPolicy;
+import me.colingrimes.midnight.scheduler.task.Task;
+import me.colingrimes.midnight.scheduler.task.TimedTask;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * A scheduler that runs every task on its own virtual thread.
+ * <p>
+ * This is intended for blocking I/O such as database queries, file writes, and HTTP requests, which would
+ * otherwise occupy the threads of the shared Bukkit async pool. A scheduler can be limited to a maximum amount
+ * of concurrent tasks to protect a resource, such as limiting database tasks to the size of the connection pool.
+ * <p>
+ * Repeating tasks are still scheduled through Bukkit, as they are not blocking by nature. This includes the
+ * wall-clock {@link TimedTask}, whose runs happen on the Bukkit async pool instead of a virtual thread.
+ */
+public class VirtualScheduler implements Scheduler {
+
+	private static final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+	private final Semaphore permits;
+
+	/**
+	 * Creates a virtual thread scheduler that limits how many of its tasks can run at the same time.
+	 * Tasks that are over the limit wait on their virtual thread until a permit is released.
+	 *
+	 * @param maxConcurrency the maximum amount of tasks that can run at the same time
+	 * @return the limited scheduler
+	 */
+	@Nonnull
+	public static VirtualScheduler limited(int maxConcurrency) {
+		if (maxConcurrency <= 0) {
+			throw new IllegalArgumentException("Max concurrency must be positive.");
+		}
+		return new VirtualScheduler(new Semaphore(maxConcurrency, true));
+	}
+
+	public VirtualScheduler() {
+		this(null);
+	}
+
+	private VirtualScheduler(Semaphore permits) {
+		this.permits = permits;
+	}
+
+	@Nonnull
+	@Override
+	public <T> CompletableFuture<T> call(@Nonnull Callable<T> task) {
+		return call(task, executor);
+	}
+
+	@Nonnull
+	@Override
+	public <T> CompletableFuture<T> callLater(@Nonnull Callable<T> task, long delayTicks) {
+		return call(task, CompletableFuture.delayedExecutor(delayTicks * 50, TimeUnit.MILLISECONDS, executor));
+	}
+
+	@Nonnull
+	@Override
+	public Task runRepeating(@Nonnull Runnable task, long delayTicks, long periodTicks, long cancelTicks) {
+		return new AsyncTask(task, delayTicks, periodTicks, cancelTicks);
+	}
+
+	@Nonnull
+	@Override
+	public Task runRepeating(@Nonnull Consumer<Task> task, long delayTicks, long periodTicks, long cancelTicks) {
+		return new AsyncTask(task, delayTicks, periodTicks, cancelTicks);
+	}
+
+	@Nonnull
+	@Override
+	public Task runRepeating(@Nonnull Runnable task, @Nonnull Duration delay, @Nonnull Duration period, @Nullable Duration cancelAfter, @Nonnull RepeatPolicy policy) {
+		return new TimedTask(task, delay, period, cancelAfter, policy, true);
+	}
+
+	@Nonnull
+	@Override
+	public Task runRepeating(@Nonnull Consumer<Task> task, @Nonnull Duration delay, @Nonnull Duration period, @Nullable Duration cancelAfter, @Nonnull RepeatPolicy policy) {
+		return new TimedTask(task, delay, period, cancelAfter, policy, true);
+	}
+
+	/**
+	 * Gets the amount of tasks that can still start before the limit is reached.
+	 *
+	 * @return the available permits, or -1 if the scheduler is not limited
+	 */
+	public int getAvailablePermits() {
+		return permits == null ? -1 : permits.availablePermits();
+	}
+
+	@Nonnull
+	private <T> CompletableFuture<T> call(@Nonnull Callable<T> task, @Nonnull Executor executor) {
+		CompletableFuture<T> future = new CompletableFuture<>();
+		executor.execute(() -> {
+			try {
+				if (permits != null) {
+					permits.acquire();
+				}
+				T result;
+				try {
+					result = task.call();
+				} finally {
+					// The permit is released before the future completes, so that callers see it as available again.
+					if (permits != null) {
+						permits.release();
+					}
+				}
+				future.complete(result);
+			} catch (Throwable t) {
+				// Errors complete the future as well, otherwise callers waiting on it would never be released.
+				future.completeExceptionally(t);
+			}
+		});
+		return future;
+	}
+}
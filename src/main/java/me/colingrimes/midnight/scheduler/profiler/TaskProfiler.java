@@ -0,0 +1,133 @@
+package me.colingrimes.midnight.scheduler.profiler;
+
+import me.colingrimes.midnight.scheduler.task.Task;
+
+import javax.annotation.Nonnull;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Opt-in profiler for tasks created through the {@link me.colingrimes.midnight.scheduler.Scheduler}.
+ * <p>
+ * While enabled, every task records how long each of its executions takes, and tasks created while enabled also
+ * capture the stack that created them. Nothing is recorded while the profiler is disabled.
+ */
+public final class TaskProfiler {
+
+	private static final Map<Task, TaskStats> stats = Collections.synchronizedMap(new WeakHashMap<>());
+	private static volatile boolean enabled = false;
+	private static volatile long budgetNanos = Duration.ofMillis(5).toNanos();
+
+	/**
+	 * Enables the profiler.
+	 */
+	public static void enable() {
+		enabled = true;
+	}
+
+	/**
+	 * Enables the profiler with the specified budget.
+	 *
+	 * @param budget the duration a single execution may take before it counts as an overrun
+	 */
+	public static void enable(@Nonnull Duration budget) {
+		setBudget(budget);
+		enable();
+	}
+
+	/**
+	 * Disables the profiler. Stats that were already recorded are kept until {@link #reset()}.
+	 */
+	public static void disable() {
+		enabled = false;
+	}
+
+	/**
+	 * Checks if the profiler is enabled.
+	 *
+	 * @return true if tasks are being profiled
+	 */
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Sets the duration a single execution may take before it counts as an overrun.
+	 *
+	 * @param budget the execution budget
+	 */
+	public static void setBudget(@Nonnull Duration budget) {
+		budgetNanos = budget.toNanos();
+	}
+
+	/**
+	 * Gets the execution budget in nanoseconds.
+	 *
+	 * @return the execution budget
+	 */
+	public static long getBudgetNanos() {
+		return budgetNanos;
+	}
+
+	/**
+	 * Starts tracking the specified task. This is called by the tasks themselves.
+	 *
+	 * @param task the task to track
+	 * @param action the action that the task runs
+	 * @param async whether the task runs asynchronously
+	 * @param captureStack whether the stack of the current thread should be captured as the creation stack
+	 * @return the stats of the task
+	 */
+	@Nonnull
+	public static TaskStats track(@Nonnull Task task, @Nonnull Object action, boolean async, boolean captureStack) {
+		return stats.computeIfAbsent(task, t -> new TaskStats(action, async, captureStack ? captureStack() : null));
+	}
+
+	/**
+	 * Gets a report of every task that is still scheduled, sorted by the total time spent executing them.
+	 *
+	 * @return the list of task reports
+	 */
+	@Nonnull
+	public static List<TaskReport> getReports() {
+		List<TaskReport> reports = new ArrayList<>();
+		synchronized (stats) {
+			stats.entrySet().removeIf(entry -> entry.getKey().isCancelled());
+			stats.forEach((task, taskStats) -> reports.add(taskStats.report(task.getTaskId())));
+		}
+
+		reports.sort(Comparator.comparing(TaskReport::getTotal).reversed());
+		return reports;
+	}
+
+	/**
+	 * Removes every recorded stat.
+	 */
+	public static void reset() {
+		stats.clear();
+	}
+
+	@Nonnull
+	private static StackTraceElement[] captureStack() {
+		StackTraceElement[] stack = Thread.currentThread().getStackTrace();
+		int start = 0;
+		while (start < stack.length && isInternal(stack[start])) {
+			start++;
+		}
+		return Arrays.copyOfRange(stack, start, stack.length);
+	}
+
+	private static boolean isInternal(@Nonnull StackTraceElement element) {
+		return element.getClassName().startsWith("me.colingrimes.midnight.scheduler.") || element.getClassName().equals(Thread.class.getName());
+	}
+
+	private TaskProfiler() {
+		throw new UnsupportedOperationException("This class cannot be instantiated.");
+	}
+}
@@ -0,0 +1,174 @@
+package me.colingrimes.midnight.scheduler.profiler;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * An immutable snapshot of the {@link TaskStats} of a task.
+ */
+public class TaskReport {
+
+	private final int taskId;
+	private final String name;
+	private final String owner;
+	private final boolean async;
+	private final long created;
+	private final long runs;
+	private final long totalNanos;
+	private final long maxNanos;
+	private final long overruns;
+	private final long[] histogram;
+	private final StackTraceElement[] creationStack;
+
+	TaskReport(int taskId, @Nonnull String name, @Nonnull String owner, boolean async, long created, long runs,
+			   long totalNanos, long maxNanos, long overruns, @Nonnull long[] histogram, @Nullable StackTraceElement[] creationStack) {
+		this.taskId = taskId;
+		this.name = name;
+		this.owner = owner;
+		this.async = async;
+		this.created = created;
+		this.runs = runs;
+		this.totalNanos = totalNanos;
+		this.maxNanos = maxNanos;
+		this.overruns = overruns;
+		this.histogram = histogram;
+		this.creationStack = creationStack;
+	}
+
+	/**
+	 * Gets the Bukkit id of the task.
+	 *
+	 * @return the task id
+	 */
+	public int getTaskId() {
+		return taskId;
+	}
+
+	/**
+	 * Gets the class name of the action that the task runs.
+	 *
+	 * @return the task name
+	 */
+	@Nonnull
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Gets the name of the plugin that the action of the task belongs to.
+	 *
+	 * @return the owning plugin name, or "Unknown" if it could not be found
+	 */
+	@Nonnull
+	public String getOwner() {
+		return owner;
+	}
+
+	/**
+	 * Checks if the task runs asynchronously.
+	 *
+	 * @return true if the task is async
+	 */
+	public boolean isAsync() {
+		return async;
+	}
+
+	/**
+	 * Gets the time at which the task started being profiled, in epoch milliseconds.
+	 *
+	 * @return the creation time
+	 */
+	public long getCreated() {
+		return created;
+	}
+
+	/**
+	 * Gets the amount of recorded executions.
+	 *
+	 * @return the amount of runs
+	 */
+	public long getRuns() {
+		return runs;
+	}
+
+	/**
+	 * Gets the total time spent executing the task.
+	 *
+	 * @return the total duration
+	 */
+	@Nonnull
+	public Duration getTotal() {
+		return Duration.ofNanos(totalNanos);
+	}
+
+	/**
+	 * Gets the average execution time of the task.
+	 *
+	 * @return the average duration
+	 */
+	@Nonnull
+	public Duration getAverage() {
+		return Duration.ofNanos(runs == 0 ? 0 : totalNanos / runs);
+	}
+
+	/**
+	 * Gets the longest execution time of the task.
+	 *
+	 * @return the max duration
+	 */
+	@Nonnull
+	public Duration getMax() {
+		return Duration.ofNanos(maxNanos);
+	}
+
+	/**
+	 * Gets the amount of executions that took longer than the budget of the {@link TaskProfiler}.
+	 *
+	 * @return the amount of overruns
+	 */
+	public long getOverruns() {
+		return overruns;
+	}
+
+	/**
+	 * Gets the execution time histogram, see {@link TaskStats#BUCKETS} for the bucket boundaries.
+	 *
+	 * @return a copy of the histogram
+	 */
+	@Nonnull
+	public long[] getHistogram() {
+		return histogram.clone();
+	}
+
+	/**
+	 * Gets an upper bound of the specified percentile of the execution times.
+	 *
+	 * @param percentile the percentile between 0 and 1
+	 * @return the upper bound of the histogram bucket containing the percentile
+	 */
+	@Nonnull
+	public Duration getPercentile(double percentile) {
+		long target = (long) Math.ceil(runs * percentile);
+		long seen = 0;
+		for (int i = 0; i < histogram.length; i++) {
+			seen += histogram[i];
+			if (seen >= target && seen > 0) {
+				return i == histogram.length - 1 ? getMax() : Duration.ofNanos((1L << i) * 1000);
+			}
+		}
+		return Duration.ZERO;
+	}
+
+	/**
+	 * Gets the stack of the thread that created the task.
+	 * This is only captured for tasks that were created while the profiler was enabled.
+	 *
+	 * @return the creation stack
+	 */
+	@Nonnull
+	public Optional<StackTraceElement[]> getCreationStack() {
+		return Optional.ofNullable(creationStack);
+	}
+}
@@ -0,0 +1,99 @@
+package me.colingrimes.midnight.scheduler.profiler;
+
+import org.bukkit.plugin.java.JavaPlugin;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records the execution times of a single task while the {@link TaskProfiler} is enabled.
+ * <p>
+ * Durations are kept in a histogram with power-of-two microsecond buckets, so recording never allocates.
+ */
+public final class TaskStats {
+
+	/**
+	 * The amount of buckets in the histogram. Bucket {@code i} holds durations below {@code 2^i} microseconds,
+	 * and the last bucket holds everything above.
+	 */
+	public static final int BUCKETS = 20;
+
+	private final String name;
+	private final boolean async;
+	private final String owner;
+	private final StackTraceElement[] creationStack;
+	private final long created = System.currentTimeMillis();
+
+	private final AtomicLongArray histogram = new AtomicLongArray(BUCKETS);
+	private final LongAdder runs = new LongAdder();
+	private final LongAdder totalNanos = new LongAdder();
+	private final LongAdder overruns = new LongAdder();
+	private final AtomicLong maxNanos = new AtomicLong();
+
+	/**
+	 * Creates the stats of a task.
+	 *
+	 * @param action the action that the task runs, used to name the task and find its owning plugin
+	 * @param async whether the task runs asynchronously
+	 * @param creationStack the stack of the thread that created the task, or null if it was not captured
+	 */
+	public TaskStats(@Nonnull Object action, boolean async, @Nullable StackTraceElement[] creationStack) {
+		this.name = action.getClass().getName();
+		this.async = async;
+		this.owner = findOwner(action.getClass());
+		this.creationStack = creationStack;
+	}
+
+	/**
+	 * Records a single execution of the task.
+	 *
+	 * @param nanos the duration of the execution in nanoseconds
+	 */
+	public void record(long nanos) {
+		histogram.incrementAndGet(bucket(nanos));
+		runs.increment();
+		totalNanos.add(nanos);
+		maxNanos.accumulateAndGet(nanos, Math::max);
+		if (nanos > TaskProfiler.getBudgetNanos()) {
+			overruns.increment();
+		}
+	}
+
+	/**
+	 * Creates an immutable report of the current stats.
+	 *
+	 * @param taskId the id of the task
+	 * @return the task report
+	 */
+	@Nonnull
+	public TaskReport report(int taskId) {
+		long[] buckets = new long[BUCKETS];
+		for (int i = 0; i < BUCKETS; i++) {
+			buckets[i] = histogram.get(i);
+		}
+		return new TaskReport(taskId, name, owner, async, created, runs.sum(), totalNanos.sum(), maxNanos.get(), overruns.sum(), buckets, creationStack);
+	}
+
+	/**
+	 * Gets the histogram bucket of the specified duration.
+	 *
+	 * @param nanos the duration in nanoseconds
+	 * @return the bucket index
+	 */
+	static int bucket(long nanos) {
+		long micros = nanos / 1000;
+		return Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros));
+	}
+
+	@Nonnull
+	private static String findOwner(@Nonnull Class<?> clazz) {
+		try {
+			return JavaPlugin.getProvidingPlugin(clazz).getName();
+		} catch (IllegalArgumentException | IllegalStateException e) {
+			return "Unknown";
+		}
+	}
+}
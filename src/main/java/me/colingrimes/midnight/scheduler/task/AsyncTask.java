@@ -22,4 +22,9 @@ public class AsyncTask extends BaseTask {
 	public BukkitTask schedule(long delayTicks, long periodTicks) {
 		return Bukkit.getScheduler().runTaskTimerAsynchronously(MidnightPlugin.get(), this, delayTicks, periodTicks);
 	}
+
+	@Override
+	public boolean isAsync() {
+		return true;
+	}
 }
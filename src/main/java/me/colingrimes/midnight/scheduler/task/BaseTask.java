@@ -1,34 +1,53 @@
 package me.colingrimes.midnight.scheduler.task;
 
-import me.colingrimes.midnight.scheduler.Scheduler;
+import me.colingrimes.midnight.scheduler.profiler.TaskProfiler;
+import me.colingrimes.midnight.scheduler.profiler.TaskStats;
 import org.bukkit.scheduler.BukkitTask;
 
 import javax.annotation.Nonnull;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 
 abstract class BaseTask implements Task {
 
     private final AtomicInteger timesRan = new AtomicInteger(0);
+    private final AtomicLong runs = new AtomicLong(0);
     private final Runnable runnable;
     private final Consumer<Task> consumer;
+    private final long delayTicks;
+    private final long periodTicks;
+    private final long cancelTicks;
     private final BukkitTask task;
+    private volatile TaskStats stats;
 
     BaseTask(@Nonnull Runnable runnable, long delayTicks, long periodTicks, long cancelTicks) {
         this.runnable = runnable;
         this.consumer = null;
+        this.delayTicks = delayTicks;
+        this.periodTicks = Math.max(1, periodTicks);
+        this.cancelTicks = cancelTicks;
         this.task = schedule(delayTicks, periodTicks);
-        if (cancelTicks != -1) {
-            Scheduler.async().runLater(this::stop, cancelTicks);
+        if (TaskProfiler.isEnabled()) {
+            this.stats = TaskProfiler.track(this, runnable, isAsync(), true);
+        }
+        if (cancelTicks != -1 && delayTicks >= cancelTicks) {
+            stop();
         }
     }
 
     BaseTask(@Nonnull Consumer<Task> consumer, long delayTicks, long periodTicks, long cancelTicks) {
         this.runnable = null;
         this.consumer = consumer;
+        this.delayTicks = delayTicks;
+        this.periodTicks = Math.max(1, periodTicks);
+        this.cancelTicks = cancelTicks;
         this.task = schedule(delayTicks, periodTicks);
-        if (cancelTicks != -1) {
-            Scheduler.async().runLater(this::stop, cancelTicks);
+        if (TaskProfiler.isEnabled()) {
+            this.stats = TaskProfiler.track(this, consumer, isAsync(), true);
+        }
+        if (cancelTicks != -1 && delayTicks >= cancelTicks) {
+            stop();
         }
     }
 
@@ -38,11 +57,50 @@ abstract class BaseTask implements Task {
     @Nonnull
     public abstract BukkitTask schedule(long delayTicks, long periodTicks);
 
+    /**
+     * Checks if the task runs asynchronously.
+     *
+     * @return true if the task is async
+     */
+    public abstract boolean isAsync();
+
     @Override
     public void run() {
         if (isCancelled()) {
             return;
-        } else if (runnable != null) {
+        }
+
+        // Bukkit runs the task exactly every period ticks, so the tick of the next run is known without a separate cancel task.
+        long run = runs.getAndIncrement();
+        try {
+            if (TaskProfiler.isEnabled()) {
+                executeProfiled();
+            } else {
+                execute();
+            }
+        } finally {
+            if (cancelTicks != -1 && delayTicks + (run + 1) * periodTicks >= cancelTicks) {
+                stop();
+            }
+        }
+    }
+
+    private void executeProfiled() {
+        // Tasks created before the profiler was enabled are tracked from their first profiled run.
+        if (stats == null) {
+            stats = TaskProfiler.track(this, runnable != null ? runnable : consumer, isAsync(), false);
+        }
+
+        long start = System.nanoTime();
+        try {
+            execute();
+        } finally {
+            stats.record(System.nanoTime() - start);
+        }
+    }
+
+    private void execute() {
+        if (runnable != null) {
             runnable.run();
         } else if (consumer != null) {
             consumer.accept(this);
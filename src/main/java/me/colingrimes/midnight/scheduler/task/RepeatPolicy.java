@@ -0,0 +1,17 @@
+package me.colingrimes.midnight.scheduler.task;
+
+/**
+ * Decides what a {@link TimedTask} does with runs that were missed because the server was lagging.
+ */
+public enum RepeatPolicy {
+
+	/**
+	 * Every missed run is executed as soon as possible, so the amount of runs always matches the elapsed time.
+	 */
+	CATCH_UP,
+
+	/**
+	 * Missed runs are dropped and the task runs once, then continues on its original schedule.
+	 */
+	SKIP
+}
@@ -22,4 +22,9 @@ public class SyncTask extends BaseTask {
 	public BukkitTask schedule(long delayTicks, long periodTicks) {
 		return Bukkit.getScheduler().runTaskTimer(MidnightPlugin.get(), this, delayTicks, periodTicks);
 	}
+
+	@Override
+	public boolean isAsync() {
+		return false;
+	}
 }
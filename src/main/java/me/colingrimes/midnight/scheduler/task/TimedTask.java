@@ -0,0 +1,141 @@
+package me.colingrimes.midnight.scheduler.task;
+
+import org.bukkit.scheduler.BukkitTask;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * A repeating task whose period is defined in wall-clock time instead of ticks.
+ * <p>
+ * Runs are due at fixed points in time measured from the start of the task, so lagging ticks never cause the
+ * task to drift. The task is checked once per tick, which means runs happen on the first tick at or after they
+ * are due. Runs that were missed because of lag are handled according to the {@link RepeatPolicy}.
+ * <p>
+ * The task is always checked by a Bukkit task, a {@link SyncTask} or an {@link AsyncTask}, even when it has been created
+ * through the {@link me.colingrimes.midnight.scheduler.implementation.VirtualScheduler}, and runs on that thread.
+ * Tasks that block should hand their work over to {@link me.colingrimes.midnight.scheduler.Scheduler#virtual()} so that
+ * they do not hold a thread of the Bukkit async pool.
+ */
+public class TimedTask implements Task {
+
+	private final AtomicInteger timesRan = new AtomicInteger(0);
+	private final Runnable runnable;
+	private final Consumer<Task> consumer;
+	private final RepeatPolicy policy;
+	private final LongSupplier clock;
+	private final long start;
+	private final long period;
+	private final long cancelAt;
+	private final boolean async;
+	private volatile Task ticker;
+	private long nextRun = 0;
+
+	public TimedTask(@Nonnull Runnable runnable, @Nonnull Duration delay, @Nonnull Duration period, @Nullable Duration cancelAfter, @Nonnull RepeatPolicy policy, boolean async) {
+		this(runnable, null, delay, period, cancelAfter, policy, async, System::nanoTime);
+	}
+
+	public TimedTask(@Nonnull Consumer<Task> consumer, @Nonnull Duration delay, @Nonnull Duration period, @Nullable Duration cancelAfter, @Nonnull RepeatPolicy policy, boolean async) {
+		this(null, consumer, delay, period, cancelAfter, policy, async, System::nanoTime);
+	}
+
+	TimedTask(@Nullable Runnable runnable, @Nullable Consumer<Task> consumer, @Nonnull Duration delay, @Nonnull Duration period,
+			  @Nullable Duration cancelAfter, @Nonnull RepeatPolicy policy, boolean async, @Nonnull LongSupplier clock) {
+		if (period.isNegative() || period.isZero()) {
+			throw new IllegalArgumentException("Period must be positive.");
+		}
+
+		long now = clock.getAsLong();
+		this.runnable = runnable;
+		this.consumer = consumer;
+		this.policy = policy;
+		this.clock = clock;
+		this.start = now + delay.toNanos();
+		this.period = period.toNanos();
+		this.cancelAt = cancelAfter == null ? Long.MAX_VALUE : now + cancelAfter.toNanos();
+		this.async = async;
+		this.ticker = async ? new AsyncTask(this::tick, 0, 1, -1) : new SyncTask(this::tick, 0, 1, -1);
+	}
+
+	@Override
+	public void run() {
+		if (runnable != null) {
+			runnable.run();
+		} else if (consumer != null) {
+			consumer.accept(this);
+		}
+		timesRan.incrementAndGet();
+	}
+
+	/**
+	 * Runs every run that is due, called once per tick.
+	 */
+	private synchronized void tick() {
+		if (ticker == null) {
+			return;
+		}
+
+		long now = clock.getAsLong();
+		while (!isCancelled()) {
+			long due = start + nextRun * period;
+			if (due >= cancelAt) {
+				stop();
+				return;
+			} else if (due > now) {
+				return;
+			}
+
+			nextRun = policy == RepeatPolicy.SKIP ? (now - start) / period + 1 : nextRun + 1;
+			run();
+		}
+	}
+
+	/**
+	 * Gets the policy that decides what happens with missed runs.
+	 *
+	 * @return the repeat policy
+	 */
+	@Nonnull
+	public RepeatPolicy getPolicy() {
+		return policy;
+	}
+
+	/**
+	 * Checks if the task runs asynchronously.
+	 *
+	 * @return true if the task is async
+	 */
+	public boolean isAsync() {
+		return async;
+	}
+
+	@Override
+	public void stop() {
+		ticker.stop();
+	}
+
+	@Override
+	public boolean isCancelled() {
+		return ticker.isCancelled();
+	}
+
+	@Override
+	public int getTimesRan() {
+		return timesRan.get();
+	}
+
+	@Override
+	public int getTaskId() {
+		return ticker.getTaskId();
+	}
+
+	@Nonnull
+	@Override
+	public BukkitTask getBukkitTask() {
+		return ticker.getBukkitTask();
+	}
+}
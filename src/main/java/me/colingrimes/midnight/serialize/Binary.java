@@ -0,0 +1,280 @@
+package me.colingrimes.midnight.serialize;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Utility class for the compact binary format of {@link Serializable} objects.
+ * <p>
+ * Every payload starts with a tag byte. Objects that implement {@link BinarySerializable} are tagged as binary,
+ * followed by the {@link BinarySerializable#getBinaryVersion()} of their type, and written with
+ * {@link BinarySerializable#writeTo(DataOutput)}. Any other {@link Serializable} is tagged as JSON and written as its
+ * JSON string, so every serializable object can be stored in the same column or file.
+ * Whole numbers and lengths are written as variable-length integers, which take a single byte for small values.
+ */
+public final class Binary {
+
+	private static final byte TAG_JSON = 0;
+	private static final byte TAG_BINARY = 1;
+	private static final ClassValue<Reader> readers = new ClassValue<>() {
+		@Override
+		protected Reader computeValue(@Nonnull Class<?> type) {
+			return lookup(type);
+		}
+	};
+
+	/**
+	 * Converts a {@link Serializable} object to bytes.
+	 *
+	 * @param serializable the serializable object
+	 * @return the tagged bytes
+	 */
+	@Nonnull
+	public static byte[] toBytes(@Nonnull Serializable serializable) {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+		try {
+			write(new DataOutputStream(bytes), serializable);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * Converts bytes created by {@link #toBytes(Serializable)} back to the object.
+	 *
+	 * @param clazz the class of the object
+	 * @param bytes the tagged bytes
+	 * @return the object
+	 * @param <T> the type of the object
+	 */
+	@Nonnull
+	public static <T extends Serializable> T fromBytes(@Nonnull Class<T> clazz, @Nonnull byte[] bytes) {
+		try {
+			return read(new DataInputStream(new ByteArrayInputStream(bytes)), clazz);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Writes a tagged {@link Serializable} object to the output.
+	 *
+	 * @param out the output
+	 * @param serializable the serializable object
+	 */
+	public static void write(@Nonnull DataOutput out, @Nonnull Serializable serializable) throws IOException {
+		if (serializable instanceof BinarySerializable binary) {
+			out.writeByte(TAG_BINARY);
+			writeVarInt(out, binary.getBinaryVersion());
+			binary.writeTo(out);
+		} else {
+			out.writeByte(TAG_JSON);
+			writeString(out, Json.toString(serializable));
+		}
+	}
+
+	/**
+	 * Reads a tagged {@link Serializable} object from the input.
+	 *
+	 * @param in the input
+	 * @param clazz the class of the object
+	 * @return the object
+	 * @param <T> the type of the object
+	 */
+	@Nonnull
+	public static <T extends Serializable> T read(@Nonnull DataInput in, @Nonnull Class<T> clazz) throws IOException {
+		byte tag = in.readByte();
+		return switch (tag) {
+			case TAG_BINARY -> readFrom(clazz, in, readVarInt(in));
+			case TAG_JSON -> Serializable.deserialize(clazz, Json.toElement(readString(in)));
+			default -> throw new IOException("Unknown binary tag " + tag + " for '" + clazz.getName() + "' class.");
+		};
+	}
+
+	/**
+	 * Writes an int using 1 to 5 bytes, where small positive and negative numbers use the least bytes.
+	 *
+	 * @param out the output
+	 * @param value the value
+	 */
+	public static void writeVarInt(@Nonnull DataOutput out, int value) throws IOException {
+		writeUnsignedVarLong(out, ((long) value << 1 ^ (value >> 31)) & 0xFFFFFFFFL);
+	}
+
+	/**
+	 * Reads an int written by {@link #writeVarInt(DataOutput, int)}.
+	 *
+	 * @param in the input
+	 * @return the value
+	 */
+	public static int readVarInt(@Nonnull DataInput in) throws IOException {
+		int zigzag = (int) readUnsignedVarLong(in);
+		return (zigzag >>> 1) ^ -(zigzag & 1);
+	}
+
+	/**
+	 * Writes a long using 1 to 10 bytes, where small positive and negative numbers use the least bytes.
+	 *
+	 * @param out the output
+	 * @param value the value
+	 */
+	public static void writeVarLong(@Nonnull DataOutput out, long value) throws IOException {
+		writeUnsignedVarLong(out, value << 1 ^ (value >> 63));
+	}
+
+	/**
+	 * Reads a long written by {@link #writeVarLong(DataOutput, long)}.
+	 *
+	 * @param in the input
+	 * @return the value
+	 */
+	public static long readVarLong(@Nonnull DataInput in) throws IOException {
+		long zigzag = readUnsignedVarLong(in);
+		return (zigzag >>> 1) ^ -(zigzag & 1);
+	}
+
+	/**
+	 * Writes a UTF-8 string prefixed by its length. Unlike {@link DataOutput#writeUTF(String)}, the string has no size limit.
+	 *
+	 * @param out the output
+	 * @param value the string
+	 */
+	public static void writeString(@Nonnull DataOutput out, @Nonnull String value) throws IOException {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		writeUnsignedVarLong(out, bytes.length);
+		out.write(bytes);
+	}
+
+	/**
+	 * Reads a string written by {@link #writeString(DataOutput, String)}.
+	 *
+	 * @param in the input
+	 * @return the string
+	 */
+	@Nonnull
+	public static String readString(@Nonnull DataInput in) throws IOException {
+		long length = readUnsignedVarLong(in);
+		if (length > Integer.MAX_VALUE) {
+			throw new IOException("String length " + length + " is too large.");
+		}
+
+		byte[] bytes = new byte[(int) length];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private static void writeUnsignedVarLong(@Nonnull DataOutput out, long value) throws IOException {
+		while ((value & ~0x7FL) != 0) {
+			out.writeByte((int) ((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+		out.writeByte((int) value);
+	}
+
+	private static long readUnsignedVarLong(@Nonnull DataInput in) throws IOException {
+		long value = 0;
+		for (int shift = 0; shift < 64; shift += 7) {
+			byte b = in.readByte();
+			value |= (long) (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return value;
+			}
+		}
+		throw new IOException("Variable-length number is too long.");
+	}
+
+	@SuppressWarnings("unchecked")
+	@Nonnull
+	private static <T extends Serializable> T readFrom(@Nonnull Class<T> clazz, @Nonnull DataInput in, int version) throws IOException {
+		Reader reader = readers.get(clazz);
+		if (reader.error != null) {
+			throw reader.error;
+		} else if (!reader.versioned && version != 0) {
+			throw new IOException("Binary version " + version + " of '" + clazz.getName() + "' class requires a readFrom(DataInput, int) method.");
+		}
+
+		try {
+			Object object = reader.versioned ? reader.handle.invokeExact(in, version) : reader.handle.invokeExact(in);
+			return (T) object;
+		} catch (IOException | IllegalStateException e) {
+			throw e;
+		} catch (Throwable e) {
+			throw new IllegalStateException("Failed to read '" + clazz.getName() + "' class:", e);
+		}
+	}
+
+	/**
+	 * Looks up the static {@code readFrom(DataInput, int)} method of the class, or {@code readFrom(DataInput)} if the
+	 * class only has a single version. If the method is missing or invalid, the returned reader holds the error instead.
+	 *
+	 * @param clazz the class
+	 * @return the reader of the class
+	 */
+	@Nonnull
+	private static Reader lookup(@Nonnull Class<?> clazz) {
+		try {
+			Method readFrom = findVersionedReadFrom(clazz);
+			boolean versioned = readFrom != null;
+			if (!versioned) {
+				readFrom = clazz.getDeclaredMethod("readFrom", DataInput.class);
+			}
+			if (!clazz.isAssignableFrom(readFrom.getReturnType())) {
+				throw new IllegalStateException("ReadFrom method return type mismatch.");
+			}
+			if (!Modifier.isStatic(readFrom.getModifiers())) {
+				throw new IllegalStateException("ReadFrom method is not static.");
+			}
+
+			readFrom.setAccessible(true);
+			MethodType type = versioned
+					? MethodType.methodType(Object.class, DataInput.class, int.class)
+					: MethodType.methodType(Object.class, DataInput.class);
+			return new Reader(MethodHandles.lookup().unreflect(readFrom).asType(type), versioned, null);
+		} catch (NoSuchMethodException | IllegalAccessException | RuntimeException e) {
+			return new Reader(null, false, new IllegalStateException("Failed to read '" + clazz.getName() + "' class:", e));
+		}
+	}
+
+	@Nullable
+	private static Method findVersionedReadFrom(@Nonnull Class<?> clazz) {
+		try {
+			return clazz.getDeclaredMethod("readFrom", DataInput.class, int.class);
+		} catch (NoSuchMethodException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * The {@code readFrom} method of a class, or the error of looking it up.
+	 */
+	private static class Reader {
+		final MethodHandle handle;
+		final boolean versioned;
+		final IllegalStateException error;
+
+		Reader(@Nullable MethodHandle handle, boolean versioned, @Nullable IllegalStateException error) {
+			this.handle = handle;
+			this.versioned = versioned;
+			this.error = error;
+		}
+	}
+
+	private Binary() {
+		throw new UnsupportedOperationException("This class cannot be instantiated.");
+	}
+}
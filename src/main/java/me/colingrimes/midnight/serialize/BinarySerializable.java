@@ -0,0 +1,36 @@
+package me.colingrimes.midnight.serialize;
+
+import javax.annotation.Nonnull;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * A {@link Serializable} that can also be written in the compact format of {@link Binary}.
+ * <p>
+ * Classes implementing this interface should also provide a static {@code readFrom(DataInput)} method that reads
+ * the fields in the same order they were written, similar to the static {@code deserialize(JsonElement)} method.
+ * <p>
+ * Every payload is tagged with the {@link #getBinaryVersion()} of its type. Once {@link #writeTo(DataOutput)} changes,
+ * increase the version and replace the method with a static {@code readFrom(DataInput, int)} method that reads every
+ * version that has been stored, so bytes that were stored before the change can still be read.
+ */
+public interface BinarySerializable extends Serializable {
+
+	/**
+	 * Writes the object's state to the output.
+	 * Use the {@link Binary} helpers for variable-length numbers and strings.
+	 *
+	 * @param out the output
+	 * @throws IOException if there is an issue writing the data
+	 */
+	void writeTo(@Nonnull DataOutput out) throws IOException;
+
+	/**
+	 * Gets the version of the format written by {@link #writeTo(DataOutput)}.
+	 *
+	 * @return the binary version, 0 unless the format has changed
+	 */
+	default int getBinaryVersion() {
+		return 0;
+	}
+}
@@ -0,0 +1,108 @@
+package me.colingrimes.midnight.serialize;
+
+import com.google.gson.JsonElement;
+
+import javax.annotation.Nonnull;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Registry of the deserializers used by {@link Serializable#deserialize(Class, JsonElement)}.
+ * <p>
+ * The static {@code deserialize(JsonElement)} method of each class is looked up once and cached as a
+ * {@link MethodHandle} in a {@link ClassValue}, so deserializing many objects of the same class no longer
+ * repeats the reflective lookup. Deserializers can also be registered explicitly, such as for classes
+ * that cannot declare a static method, and take priority over the looked up method.
+ */
+public final class Deserializers {
+
+	private static final Map<Class<?>, Function<JsonElement, ?>> registered = new ConcurrentHashMap<>();
+	private static final ClassValue<Function<JsonElement, ?>> methods = new ClassValue<>() {
+		@Override
+		protected Function<JsonElement, ?> computeValue(@Nonnull Class<?> type) {
+			return lookup(type);
+		}
+	};
+
+	/**
+	 * Registers the deserializer of the class, replacing its {@code deserialize(JsonElement)} method.
+	 *
+	 * @param clazz the class
+	 * @param deserializer the deserializer
+	 * @param <T> the type of the class
+	 */
+	public static <T extends Serializable> void register(@Nonnull Class<T> clazz, @Nonnull Function<JsonElement, T> deserializer) {
+		registered.put(clazz, deserializer);
+	}
+
+	/**
+	 * Removes the registered deserializer of the class.
+	 *
+	 * @param clazz the class
+	 */
+	public static void unregister(@Nonnull Class<? extends Serializable> clazz) {
+		registered.remove(clazz);
+	}
+
+	/**
+	 * Gets the deserializer of the class.
+	 *
+	 * @param clazz the class
+	 * @return the deserializer
+	 * @param <T> the type of the class
+	 */
+	@SuppressWarnings("unchecked")
+	@Nonnull
+	public static <T extends Serializable> Function<JsonElement, T> get(@Nonnull Class<T> clazz) {
+		Function<JsonElement, ?> deserializer = registered.get(clazz);
+		return (Function<JsonElement, T>) (deserializer != null ? deserializer : methods.get(clazz));
+	}
+
+	/**
+	 * Looks up the static {@code deserialize(JsonElement)} method of the class.
+	 * If the method is missing or invalid, the returned function throws the error instead.
+	 *
+	 * @param clazz the class
+	 * @return the deserializer
+	 */
+	@Nonnull
+	private static Function<JsonElement, ?> lookup(@Nonnull Class<?> clazz) {
+		MethodHandle handle;
+		try {
+			Method deserialize = clazz.getDeclaredMethod("deserialize", JsonElement.class);
+			if (!clazz.isAssignableFrom(deserialize.getReturnType())) {
+				throw new IllegalStateException("Deserialize method return type mismatch.");
+			}
+			if (!Modifier.isStatic(deserialize.getModifiers())) {
+				throw new IllegalStateException("Deserialize method is not static.");
+			}
+
+			deserialize.setAccessible(true);
+			handle = MethodHandles.lookup().unreflect(deserialize).asType(MethodType.methodType(Object.class, JsonElement.class));
+		} catch (NoSuchMethodException | IllegalAccessException | RuntimeException e) {
+			IllegalStateException error = new IllegalStateException("Failed to deserialize '" + clazz.getName() + "' class:", e);
+			return element -> {
+				throw error;
+			};
+		}
+
+		return element -> {
+			try {
+				Object object = handle.invokeExact(element);
+				return object;
+			} catch (Throwable e) {
+				throw new IllegalStateException("Failed to deserialize '" + clazz.getName() + "' class:", e);
+			}
+		};
+	}
+
+	private Deserializers() {
+		throw new UnsupportedOperationException("This class cannot be instantiated.");
+	}
+}
@@ -1,8 +1,18 @@
 package me.colingrimes.midnight.serialize;
 
 import com.google.gson.*;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
 
 import javax.annotation.Nonnull;
+import java.io.*;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
 
 /**
  * Utility class for common Gson operations.
@@ -11,6 +21,12 @@ public final class Json {
 
     private static final Gson gson = new GsonBuilder().create();
     private static final Gson gsonPretty = new GsonBuilder().setPrettyPrinting().create();
+    private static final ClassValue<Optional<MethodHandle>> readers = new ClassValue<>() {
+        @Override
+        protected Optional<MethodHandle> computeValue(@Nonnull Class<?> type) {
+            return lookup(type);
+        }
+    };
 
     /**
      * Creates a new {@link Json.Builder} object.
@@ -52,7 +68,9 @@ public final class Json {
      */
     @Nonnull
     public static String toString(@Nonnull Serializable serializable) {
-        return toString(serializable.serialize());
+        StringWriter writer = new StringWriter();
+        write(serializable, writer(writer));
+        return writer.toString();
     }
 
     /**
@@ -74,7 +92,9 @@ public final class Json {
      */
     @Nonnull
     public static String toStringPretty(@Nonnull Serializable serializable) {
-        return toStringPretty(serializable.serialize());
+        StringWriter writer = new StringWriter();
+        write(serializable, prettyWriter(writer));
+        return writer.toString();
     }
 
     /**
@@ -88,6 +108,166 @@ public final class Json {
         return JsonParser.parseString(str);
     }
 
+    /**
+     * Parses the json element from a reader without reading it into a string first.
+     *
+     * @param reader the reader
+     * @return the parsed json element
+     */
+    @Nonnull
+    public static JsonElement toElement(@Nonnull Reader reader) {
+        return JsonParser.parseReader(reader);
+    }
+
+    /**
+     * Creates a {@link JsonReader} over the reader.
+     *
+     * @param reader the reader
+     * @return the json reader
+     */
+    @Nonnull
+    public static JsonReader reader(@Nonnull Reader reader) {
+        return gson.newJsonReader(reader);
+    }
+
+    /**
+     * Creates a compact {@link JsonWriter} over the writer.
+     * The writer has the same settings as {@link #toString(JsonElement)}, such as escaping HTML characters,
+     * so streamed JSON is written the same as serialized JSON.
+     *
+     * @param writer the writer
+     * @return the json writer
+     */
+    @Nonnull
+    public static JsonWriter writer(@Nonnull Writer writer) {
+        try {
+            return gson.newJsonWriter(writer);
+        } catch (IOException e) {
+            throw new JsonIOException(e);
+        }
+    }
+
+    /**
+     * Creates a pretty formatted {@link JsonWriter} over the writer.
+     * The writer has the same settings as {@link #toStringPretty(JsonElement)}, such as escaping HTML characters,
+     * so streamed JSON is written the same as serialized JSON.
+     *
+     * @param writer the writer
+     * @return the json writer
+     */
+    @Nonnull
+    public static JsonWriter prettyWriter(@Nonnull Writer writer) {
+        try {
+            return gsonPretty.newJsonWriter(writer);
+        } catch (IOException e) {
+            throw new JsonIOException(e);
+        }
+    }
+
+    /**
+     * Writes a {@link JsonElement} object to the json writer and flushes it.
+     *
+     * @param element the json element
+     * @param out the json writer
+     */
+    public static void write(@Nonnull JsonElement element, @Nonnull JsonWriter out) {
+        try {
+            gson.toJson(element, out);
+            out.flush();
+        } catch (IOException e) {
+            throw new JsonIOException(e);
+        }
+    }
+
+    /**
+     * Writes a {@link Serializable} object to the json writer.
+     * <p>
+     * A {@link StreamSerializable} object is written directly, any other object is serialized to a json element first.
+     * The json writer is flushed afterwards.
+     *
+     * @param serializable the serializable object
+     * @param out the json writer
+     */
+    public static void write(@Nonnull Serializable serializable, @Nonnull JsonWriter out) {
+        if (!(serializable instanceof StreamSerializable streamSerializable)) {
+            write(serializable.serialize(), out);
+            return;
+        }
+
+        try {
+            streamSerializable.writeTo(out);
+            out.flush();
+        } catch (IOException e) {
+            throw new JsonIOException(e);
+        }
+    }
+
+    /**
+     * Writes a {@link Serializable} object to the writer as compact JSON.
+     * The writer is flushed but not closed.
+     *
+     * @param serializable the serializable object
+     * @param writer the writer
+     */
+    public static void write(@Nonnull Serializable serializable, @Nonnull Writer writer) {
+        write(serializable, writer(writer));
+    }
+
+    /**
+     * Writes a {@link Serializable} object to the output stream as compact UTF-8 JSON.
+     * The stream is flushed but not closed.
+     *
+     * @param serializable the serializable object
+     * @param out the output stream
+     */
+    public static void write(@Nonnull Serializable serializable, @Nonnull OutputStream out) {
+        write(serializable, new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Reads a {@link Serializable} object from the json reader.
+     * <p>
+     * A {@link StreamSerializable} object with a static {@code readFrom(JsonReader)} method is read directly, any
+     * other object is parsed to a json element and deserialized.
+     *
+     * @param clazz the class of the object to read
+     * @param in the json reader
+     * @param <T> the type of the object
+     * @return the read object
+     */
+    @SuppressWarnings("unchecked")
+    @Nonnull
+    public static <T extends Serializable> T read(@Nonnull Class<T> clazz, @Nonnull JsonReader in) {
+        Optional<MethodHandle> reader = readers.get(clazz);
+        if (reader.isEmpty()) {
+            return Serializable.deserialize(clazz, JsonParser.parseReader(in));
+        }
+
+        try {
+            Object object = reader.get().invokeExact(in);
+            return (T) object;
+        } catch (IOException e) {
+            throw new JsonIOException(e);
+        } catch (JsonParseException | IllegalStateException | IllegalArgumentException e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("Failed to read '" + clazz.getName() + "' class:", e);
+        }
+    }
+
+    /**
+     * Reads a {@link Serializable} object from the reader.
+     *
+     * @param clazz the class of the object to read
+     * @param reader the reader
+     * @param <T> the type of the object
+     * @return the read object
+     */
+    @Nonnull
+    public static <T extends Serializable> T read(@Nonnull Class<T> clazz, @Nonnull Reader reader) {
+        return read(clazz, reader(reader));
+    }
+
     /**
      * Checks if a string is valid json.
      *
@@ -182,6 +362,31 @@ public final class Json {
         }
     }
 
+    /**
+     * Looks up the static {@code readFrom(JsonReader)} method of a {@link StreamSerializable} class.
+     *
+     * @param clazz the class
+     * @return the handle of the method, or empty if the class should be deserialized from a json element
+     */
+    @Nonnull
+    private static Optional<MethodHandle> lookup(@Nonnull Class<?> clazz) {
+        if (!StreamSerializable.class.isAssignableFrom(clazz)) {
+            return Optional.empty();
+        }
+
+        try {
+            Method readFrom = clazz.getDeclaredMethod("readFrom", JsonReader.class);
+            if (!Modifier.isStatic(readFrom.getModifiers()) || !clazz.isAssignableFrom(readFrom.getReturnType())) {
+                return Optional.empty();
+            }
+
+            readFrom.setAccessible(true);
+            return Optional.of(MethodHandles.lookup().unreflect(readFrom).asType(MethodType.methodType(Object.class, JsonReader.class)));
+        } catch (NoSuchMethodException | IllegalAccessException | RuntimeException e) {
+            return Optional.empty();
+        }
+    }
+
     private Json() {
         throw new UnsupportedOperationException("This class cannot be instantiated.");
     }
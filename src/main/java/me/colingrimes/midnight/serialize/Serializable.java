@@ -3,9 +3,6 @@ package me.colingrimes.midnight.serialize;
 import com.google.gson.JsonElement;
 
 import javax.annotation.Nonnull;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
-import java.lang.reflect.Modifier;
 
 /**
  * An interface for custom serialization and deserialization of objects.
@@ -25,26 +22,17 @@ public interface Serializable {
 
 	/**
 	 * Deserializes the object's state from a json element and creates a new instance of the object.
+	 * <p>
+	 * Uses the deserializer registered in {@link Deserializers}, which is the static {@code deserialize(JsonElement)}
+	 * method of the class unless another deserializer has been registered.
 	 *
 	 * @param clazz the class of the object to deserialize
 	 * @param element the json element containing the serialized state of the object
 	 * @param <T> the type of the object to be deserialized
 	 * @return the deserialized object
 	 */
-	@SuppressWarnings("unchecked")
 	@Nonnull
 	static <T extends Serializable> T deserialize(@Nonnull Class<T> clazz, @Nonnull JsonElement element) {
-		try {
-			Method deserialize = clazz.getDeclaredMethod("deserialize", JsonElement.class);
-			if (!clazz.isAssignableFrom(deserialize.getReturnType())) {
-				throw new IllegalStateException("Deserialize method return type mismatch.");
-			}
-			if (!Modifier.isStatic(deserialize.getModifiers())) {
-				throw new IllegalStateException("Deserialize method is not static.");
-			}
-			return (T) deserialize.invoke(null, element);
-		} catch (NoSuchMethodException | InvocationTargetException | IllegalAccessException e) {
-			throw new IllegalStateException("Failed to deserialize '" + clazz.getName() + "' class:", e);
-		}
+		return Deserializers.get(clazz).apply(element);
 	}
-}
\ No newline at end of file
+}
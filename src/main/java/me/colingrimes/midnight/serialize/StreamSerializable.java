@@ -0,0 +1,24 @@
+package me.colingrimes.midnight.serialize;
+
+import com.google.gson.stream.JsonWriter;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+
+/**
+ * A {@link Serializable} that can write its JSON straight to a {@link JsonWriter}, without building a json element.
+ * <p>
+ * Classes implementing this interface should also provide a static {@code readFrom(JsonReader)} method that reads
+ * the object written by {@link #writeTo(JsonWriter)}. The written JSON must be the same as {@link #serialize()}, so
+ * that the object can still be read with the static {@code deserialize(JsonElement)} method.
+ */
+public interface StreamSerializable extends Serializable {
+
+	/**
+	 * Writes the object's state to the json writer.
+	 *
+	 * @param out the json writer
+	 * @throws IOException if there is an issue writing the data
+	 */
+	void writeTo(@Nonnull JsonWriter out) throws IOException;
+}
@@ -0,0 +1,81 @@
+package me.colingrimes.midnight.storage;
+
+import me.colingrimes.midnight.scheduler.Scheduler;
+
+import javax.annotation.Nonnull;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * A {@link Storage} that can be used without blocking the calling thread.
+ * <p>
+ * Every operation runs on {@link Scheduler#virtual()} and returns a future, so callers no longer need to
+ * wrap storage calls themselves. Futures complete on the storage thread, use {@link Scheduler#mainThread()}
+ * to continue on the main thread.
+ *
+ * @param <T> the type of data being stored
+ * @param <I> the type that identifies stored data
+ */
+public interface AsyncStorage<T, I> extends Storage<T> {
+
+	/**
+	 * Saves the specified data asynchronously.
+	 *
+	 * @param data the data to be saved
+	 * @return a future that will be completed once the data is saved
+	 */
+	@Nonnull
+	default CompletableFuture<Void> saveAsync(@Nonnull T data) {
+		return Scheduler.virtual().run(() -> save(data));
+	}
+
+	/**
+	 * Deletes the specified data asynchronously.
+	 *
+	 * @param data the data to be deleted
+	 * @return a future that will be completed once the data is deleted
+	 */
+	@Nonnull
+	default CompletableFuture<Void> deleteAsync(@Nonnull T data) {
+		return Scheduler.virtual().run(() -> delete(data));
+	}
+
+	/**
+	 * Saves every specified data asynchronously.
+	 * Implementations write the data in as few operations as possible.
+	 *
+	 * @param data the data to be saved
+	 * @return a future that will be completed once all data is saved
+	 */
+	@Nonnull
+	default CompletableFuture<Void> saveAll(@Nonnull Collection<T> data) {
+		List<T> copy = List.copyOf(data);
+		return Scheduler.virtual().run(() -> {
+			for (T element : copy) {
+				save(element);
+			}
+		});
+	}
+
+	/**
+	 * Loads the data of every specified identifier asynchronously.
+	 * Identifiers without data are left out of the result.
+	 *
+	 * @param identifiers the identifiers to load
+	 * @return a future that will be completed with the loaded data
+	 */
+	@Nonnull
+	CompletableFuture<List<T>> loadMany(@Nonnull Collection<I> identifiers);
+
+	/**
+	 * Loads all data asynchronously, passing each element to the consumer as soon as it is loaded
+	 * instead of collecting everything first. The consumer is called on the storage thread.
+	 *
+	 * @param consumer the consumer of the loaded data
+	 * @return a future that will be completed once all data has been passed to the consumer
+	 */
+	@Nonnull
+	CompletableFuture<Void> loadAll(@Nonnull Consumer<T> consumer);
+}
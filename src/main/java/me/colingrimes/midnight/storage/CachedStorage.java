@@ -0,0 +1,156 @@
+package me.colingrimes.midnight.storage;
+
+import me.colingrimes.midnight.cache.ExpiringCache;
+import me.colingrimes.midnight.scheduler.Scheduler;
+import me.colingrimes.midnight.scheduler.task.Task;
+import me.colingrimes.midnight.util.io.Logger;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * A {@link Storage} that puts an {@link ExpiringCache} in front of another storage.
+ * <p>
+ * Reads go through the cache and only reach the storage on a miss, using the loader of the cache.
+ * Saves and deletes are applied to the cache right away and written to the storage in the background,
+ * where multiple writes to the same key are coalesced into one. Pending writes stay visible until they are written,
+ * so a miss never reloads data that is about to be changed. Every pending write is flushed on {@link #shutdown()}.
+ *
+ * @param <K> the type of the keys
+ * @param <T> the type of data being stored
+ */
+public class CachedStorage<K, T> implements Storage<T> {
+
+	private final Storage<T> storage;
+	private final ExpiringCache<K, T> cache;
+	private final Function<T, K> keyFunction;
+	private final long flushTicks;
+	private final WriteBehindQueue<K, T> queue = new WriteBehindQueue<>();
+	private Task task;
+
+	/**
+	 * Creates a cached storage.
+	 *
+	 * @param storage the storage to write to
+	 * @param cache the cache to read from, its loader should load from the storage
+	 * @param keyFunction the function that gets the key of the data
+	 * @param flushTicks how often pending writes are flushed to the storage
+	 */
+	public CachedStorage(@Nonnull Storage<T> storage, @Nonnull ExpiringCache<K, T> cache, @Nonnull Function<T, K> keyFunction, long flushTicks) {
+		this.storage = storage;
+		this.cache = cache;
+		this.keyFunction = keyFunction;
+		this.flushTicks = flushTicks;
+	}
+
+	@Override
+	public void init() throws Exception {
+		storage.init();
+		task = Scheduler.async().runRepeating(this::flush, flushTicks, flushTicks);
+	}
+
+	@Override
+	public void shutdown() {
+		if (task != null) {
+			task.stop();
+		}
+		queue.close();
+		flush();
+		storage.shutdown();
+	}
+
+	@Override
+	public void save(@Nonnull T data) {
+		K key = keyFunction.apply(data);
+		queue.save(key, data);
+		cache.put(key, data);
+	}
+
+	@Override
+	public void delete(@Nonnull T data) {
+		K key = keyFunction.apply(data);
+		queue.delete(key, data);
+		cache.invalidate(key);
+	}
+
+	/**
+	 * Gets the data of the specified key, loading it through the cache if it is not cached.
+	 * Data that is waiting to be written is returned as is.
+	 *
+	 * @param key the key to get
+	 * @return a future that will be completed with the data, or null if there is no data for the key
+	 */
+	@Nonnull
+	public CompletableFuture<T> load(@Nonnull K key) {
+		Optional<WriteBehindQueue.Write<T>> write = queue.get(key);
+		if (write.isPresent()) {
+			return CompletableFuture.completedFuture(write.get().isDelete() ? null : write.get().getData());
+		}
+		return cache.get(key);
+	}
+
+	/**
+	 * Gets the data of the specified key if it is cached or waiting to be written.
+	 *
+	 * @param key the key to get
+	 * @return the cached data
+	 */
+	@Nonnull
+	public Optional<T> getIfPresent(@Nonnull K key) {
+		Optional<WriteBehindQueue.Write<T>> write = queue.get(key);
+		if (write.isPresent()) {
+			return write.get().isDelete() ? Optional.empty() : Optional.of(write.get().getData());
+		}
+		return cache.getIfPresent(key);
+	}
+
+	/**
+	 * Writes every pending save and delete to the storage.
+	 * Writes that fail are kept and retried on the next flush, unless a newer write has replaced them.
+	 */
+	public void flush() {
+		try {
+			queue.flush(writes -> {
+				List<K> failed = new ArrayList<>();
+				writes.forEach((key, write) -> {
+					try {
+						if (write.isDelete()) {
+							storage.delete(write.getData());
+						} else {
+							storage.save(write.getData());
+						}
+					} catch (Exception e) {
+						Logger.severe("CachedStorage has failed to write pending data:", e);
+						failed.add(key);
+					}
+				});
+				return failed;
+			});
+		} catch (Exception e) {
+			Logger.severe("CachedStorage has failed to write pending data:", e);
+		}
+	}
+
+	/**
+	 * Gets the underlying cache.
+	 *
+	 * @return the cache
+	 */
+	@Nonnull
+	public ExpiringCache<K, T> getCache() {
+		return cache;
+	}
+
+	/**
+	 * Gets the amount of writes that are waiting to be flushed.
+	 *
+	 * @return the amount of pending writes
+	 */
+	public int getPendingWrites() {
+		return queue.size();
+	}
+}
@@ -0,0 +1,190 @@
+package me.colingrimes.midnight.storage;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Queues saves and deletes until they are written to a storage, keeping only the latest write of each key.
+ * <p>
+ * A write stays visible through {@link #get(Object)} until it has been written, including while it is being written,
+ * so reads that fall through to the storage never see data that is about to be replaced. Writes that fail are queued
+ * again unless a newer write of the same key has been queued in the meantime.
+ *
+ * @param <K> the type of the keys
+ * @param <T> the type of data being written
+ */
+public class WriteBehindQueue<K, T> {
+
+	private final Map<K, Write<T>> pending = new ConcurrentHashMap<>();
+	private final Map<K, Write<T>> writing = new ConcurrentHashMap<>();
+	private volatile boolean closed = false;
+
+	/**
+	 * Queues the data to be saved, replacing any queued write with the same key.
+	 *
+	 * @param key the key of the data
+	 * @param data the data to be saved
+	 * @throws IllegalStateException if the queue has been closed
+	 */
+	public void save(@Nonnull K key, @Nonnull T data) {
+		offer(key, new Write<>(data, false));
+	}
+
+	/**
+	 * Queues the data to be deleted, replacing any queued write with the same key.
+	 *
+	 * @param key the key of the data
+	 * @param data the data to be deleted
+	 * @throws IllegalStateException if the queue has been closed
+	 */
+	public void delete(@Nonnull K key, @Nonnull T data) {
+		offer(key, new Write<>(data, true));
+	}
+
+	/**
+	 * Gets the latest write of the key that has not been completed yet.
+	 *
+	 * @param key the key
+	 * @return the write of the key
+	 */
+	@Nonnull
+	public Optional<Write<T>> get(@Nonnull K key) {
+		Write<T> write = pending.get(key);
+		return Optional.ofNullable(write != null ? write : writing.get(key));
+	}
+
+	/**
+	 * Writes every queued write with the writer. Only one flush runs at a time.
+	 * <p>
+	 * If the writer throws an exception, every write of the flush is queued again and the exception is rethrown.
+	 *
+	 * @param writer the writer of the queued writes
+	 */
+	public synchronized void flush(@Nonnull Writer<K, T> writer) throws Exception {
+		Map<K, Write<T>> writes = new LinkedHashMap<>();
+		for (K key : new ArrayList<>(pending.keySet())) {
+			Write<T> write = pending.get(key);
+			if (write == null) {
+				continue;
+			}
+
+			// The write is visible in the writing map before it leaves the pending map.
+			writing.put(key, write);
+			if (pending.remove(key, write)) {
+				writes.put(key, write);
+			} else {
+				writing.remove(key, write);
+			}
+		}
+
+		if (writes.isEmpty()) {
+			return;
+		}
+
+		Set<K> failed = new HashSet<>(writes.keySet());
+		try {
+			failed.retainAll(writer.write(writes));
+		} finally {
+			writes.forEach((key, write) -> {
+				if (failed.contains(key)) {
+					pending.putIfAbsent(key, write);
+				}
+				writing.remove(key, write);
+			});
+		}
+	}
+
+	/**
+	 * Stops the queue from accepting new writes. Writes that are already queued can still be flushed.
+	 */
+	public void close() {
+		closed = true;
+	}
+
+	/**
+	 * Checks if the queue has been closed.
+	 *
+	 * @return true if the queue does not accept new writes
+	 */
+	public boolean isClosed() {
+		return closed;
+	}
+
+	/**
+	 * Gets the amount of writes that are waiting to be flushed.
+	 *
+	 * @return the amount of queued writes
+	 */
+	public int size() {
+		return pending.size();
+	}
+
+	private void offer(@Nonnull K key, @Nonnull Write<T> write) {
+		if (closed) {
+			throw new IllegalStateException("Writes cannot be queued after the storage has been shut down.");
+		}
+		pending.put(key, write);
+	}
+
+	/**
+	 * A queued save or delete.
+	 *
+	 * @param <T> the type of data being written
+	 */
+	public static class Write<T> {
+
+		private final T data;
+		private final boolean delete;
+
+		Write(@Nonnull T data, boolean delete) {
+			this.data = data;
+			this.delete = delete;
+		}
+
+		/**
+		 * Gets the data that is saved or deleted.
+		 *
+		 * @return the data
+		 */
+		@Nonnull
+		public T getData() {
+			return data;
+		}
+
+		/**
+		 * Checks if the data is deleted instead of saved.
+		 *
+		 * @return true if the write is a delete
+		 */
+		public boolean isDelete() {
+			return delete;
+		}
+	}
+
+	/**
+	 * Writes the queued writes of a flush to the storage.
+	 *
+	 * @param <K> the type of the keys
+	 * @param <T> the type of data being written
+	 */
+	@FunctionalInterface
+	public interface Writer<K, T> {
+
+		/**
+		 * Writes the queued writes to the storage.
+		 *
+		 * @param writes the writes by their key
+		 * @return the keys of the writes that failed and should be queued again
+		 * @throws Exception if none of the writes could be written
+		 */
+		@Nonnull
+		Collection<K> write(@Nonnull Map<K, Write<T>> writes) throws Exception;
+	}
+}
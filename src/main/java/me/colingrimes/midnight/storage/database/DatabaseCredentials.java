@@ -16,6 +16,7 @@ public class DatabaseCredentials {
     private final String database;
     private final String user;
     private final String password;
+    private final PoolSettings pool;
 
     /**
      * Creates a new instance of {@link DatabaseCredentials} with the given connection information.
@@ -30,11 +31,29 @@ public class DatabaseCredentials {
      */
     @Nonnull
     public static DatabaseCredentials of(@Nonnull DatabaseType type, @Nonnull String host, int port, @Nonnull String database, @Nonnull String user, @Nonnull String password) {
-        return new DatabaseCredentials(type, host, port, database, user, password);
+        return of(type, host, port, database, user, password, PoolSettings.defaults());
+    }
+
+    /**
+     * Creates a new instance of {@link DatabaseCredentials} with the given connection information and pool settings.
+     *
+     * @param type     the type of database to connect to
+     * @param host     the host address of the database
+     * @param port     the port number of the database
+     * @param database the name of the database to connect to
+     * @param user     the username to use for authentication
+     * @param password the password to use for authentication
+     * @param pool     the connection pool settings
+     * @return the database credentials
+     */
+    @Nonnull
+    public static DatabaseCredentials of(@Nonnull DatabaseType type, @Nonnull String host, int port, @Nonnull String database, @Nonnull String user, @Nonnull String password, @Nonnull PoolSettings pool) {
+        return new DatabaseCredentials(type, host, port, database, user, password, pool);
     }
 
     /**
      * Creates a new instance of {@link DatabaseCredentials} with the given connection information.
+     * The pool settings are read from the {@code pool} section, see {@link PoolSettings#fromConfig(ConfigurationSection)}.
      *
      * @param config the configuration section to read from
      * @return the database credentials
@@ -51,17 +70,19 @@ public class DatabaseCredentials {
                 config.getInt("port", 3306),
                 config.getString("database", "minecraft"),
                 config.getString("username", "root"),
-                config.getString("password", "passw0rd")
+                config.getString("password", "passw0rd"),
+                PoolSettings.fromConfig(config.getConfigurationSection("pool"))
         );
     }
 
-    private DatabaseCredentials(@Nonnull DatabaseType type, @Nonnull String host, int port, @Nonnull String database, @Nonnull String user, @Nonnull String password) {
+    private DatabaseCredentials(@Nonnull DatabaseType type, @Nonnull String host, int port, @Nonnull String database, @Nonnull String user, @Nonnull String password, @Nonnull PoolSettings pool) {
         this.type = type;
         this.host = host;
         this.port = port;
         this.database = database;
         this.user = user;
         this.password = password;
+        this.pool = pool;
     }
 
     /**
@@ -122,4 +143,14 @@ public class DatabaseCredentials {
     public String getPassword() {
         return password;
     }
+
+    /**
+     * Gets the connection pool settings.
+     *
+     * @return the pool settings
+     */
+    @Nonnull
+    public PoolSettings getPool() {
+        return pool;
+    }
 }
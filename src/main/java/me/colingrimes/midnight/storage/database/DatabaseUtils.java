@@ -2,6 +2,7 @@ package me.colingrimes.midnight.storage.database;
 
 import com.google.gson.JsonElement;
 import me.colingrimes.midnight.Midnight;
+import me.colingrimes.midnight.serialize.Binary;
 import me.colingrimes.midnight.serialize.Json;
 import me.colingrimes.midnight.serialize.Serializable;
 import me.colingrimes.midnight.util.io.Logger;
@@ -10,12 +11,18 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.Reader;
 import java.net.URL;
 import java.sql.*;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import javax.annotation.Nonnull;
@@ -91,6 +98,131 @@ public final class DatabaseUtils {
 		return false;
 	}
 
+	/**
+	 * Gets the most rows a single multi-row statement can hold before reaching the parameter limit of the database.
+	 *
+	 * @param type the database type
+	 * @param columns the amount of columns in each row
+	 * @return the maximum amount of rows per statement
+	 */
+	public static int getMaxRows(@Nonnull DatabaseType type, int columns) {
+		if (columns <= 0) {
+			throw new IllegalArgumentException("Columns must be positive.");
+		}
+
+		// Older SQLite versions only allow 999 parameters, MySQL and PostgreSQL allow 65535.
+		int parameters = type == DatabaseType.SQLITE ? 999 : 65535;
+		return Math.max(1, parameters / columns);
+	}
+
+	/**
+	 * Creates an {@code INSERT} statement that inserts the given amount of rows in one round-trip.
+	 * <p>
+	 * Identifiers are single-quoted so that the statement can be passed through the statement processor of the provider.
+	 * Parameters are in row order, followed by column order.
+	 *
+	 * @param table the table name
+	 * @param columns the columns of each row
+	 * @param rows the amount of rows
+	 * @return the insert statement
+	 */
+	@Nonnull
+	public static String insert(@Nonnull String table, @Nonnull List<String> columns, int rows) {
+		if (columns.isEmpty()) {
+			throw new IllegalArgumentException("Insert requires at least one column.");
+		} else if (rows <= 0) {
+			throw new IllegalArgumentException("Rows must be positive.");
+		}
+
+		String row = columns.stream().map(c -> "?").collect(Collectors.joining(", ", "(", ")"));
+		StringBuilder sql = new StringBuilder("INSERT INTO ").append(quote(table)).append(" (");
+		sql.append(columns.stream().map(DatabaseUtils::quote).collect(Collectors.joining(", "))).append(") VALUES ");
+		for (int i = 0; i < rows; i++) {
+			sql.append(i == 0 ? "" : ", ").append(row);
+		}
+		return sql.toString();
+	}
+
+	/**
+	 * Creates a single-row upsert statement for the database type.
+	 *
+	 * @param type the database type
+	 * @param table the table name
+	 * @param keys the columns of the primary key or unique index
+	 * @param columns every column to insert, including the keys
+	 * @return the upsert statement
+	 * @see #upsert(DatabaseType, String, List, List, int)
+	 */
+	@Nonnull
+	public static String upsert(@Nonnull DatabaseType type, @Nonnull String table, @Nonnull List<String> keys, @Nonnull List<String> columns) {
+		return upsert(type, table, keys, columns, 1);
+	}
+
+	/**
+	 * Creates an upsert statement for the database type that inserts the given amount of rows, and updates
+	 * every non-key column of the rows that already exist.
+	 * <p>
+	 * PostgreSQL and SQLite use {@code ON CONFLICT ... DO UPDATE}, which requires a primary key or unique index on
+	 * exactly the {@code keys} columns. MySQL uses {@code ON DUPLICATE KEY UPDATE}, which applies to any unique key.
+	 * It refers to the inserted values with {@code VALUES(column)}, which is deprecated since MySQL 8.0.20 in favor of
+	 * a row alias, but is kept because row aliases are not supported by MariaDB or MySQL before 8.0.19.
+	 * <p>
+	 * PostgreSQL rejects a statement that updates the same row twice, so the rows of a multi-row upsert must have
+	 * distinct keys, see {@link #distinctByKey(Collection, Function)}.
+	 * <p>
+	 * Identifiers are single-quoted so that the statement can be passed through the statement processor of the provider.
+	 * Parameters are in row order, followed by column order.
+	 *
+	 * @param type the database type
+	 * @param table the table name
+	 * @param keys the columns of the primary key or unique index
+	 * @param columns every column to insert, including the keys
+	 * @param rows the amount of rows
+	 * @return the upsert statement
+	 */
+	@Nonnull
+	public static String upsert(@Nonnull DatabaseType type, @Nonnull String table, @Nonnull List<String> keys, @Nonnull List<String> columns, int rows) {
+		if (keys.isEmpty() || !columns.containsAll(keys)) {
+			throw new IllegalArgumentException("Upsert keys must be a non-empty subset of the columns.");
+		}
+
+		List<String> updates = columns.stream().filter(c -> !keys.contains(c)).toList();
+		StringBuilder sql = new StringBuilder(insert(table, columns, rows));
+		if (type == DatabaseType.MYSQL) {
+			// With nothing to update, the first key is assigned to itself so that duplicates are ignored.
+			List<String> assigned = updates.isEmpty() ? keys.subList(0, 1) : updates;
+			sql.append(" ON DUPLICATE KEY UPDATE ");
+			sql.append(assigned.stream().map(c -> quote(c) + " = VALUES(" + quote(c) + ")").collect(Collectors.joining(", ")));
+		} else {
+			sql.append(" ON CONFLICT (").append(keys.stream().map(DatabaseUtils::quote).collect(Collectors.joining(", "))).append(")");
+			if (updates.isEmpty()) {
+				sql.append(" DO NOTHING");
+			} else {
+				sql.append(" DO UPDATE SET ");
+				sql.append(updates.stream().map(c -> quote(c) + " = excluded." + quote(c)).collect(Collectors.joining(", ")));
+			}
+		}
+		return sql.toString();
+	}
+
+	/**
+	 * Removes rows with duplicate keys so that they can be written with a single multi-row upsert.
+	 * Only the last row of each key is kept, in the position of the first row with that key.
+	 *
+	 * @param rows the rows
+	 * @param key the function that gets the key of a row
+	 * @return the rows with distinct keys
+	 * @param <T> the type of the rows
+	 */
+	@Nonnull
+	public static <T> List<T> distinctByKey(@Nonnull Collection<T> rows, @Nonnull Function<T, ?> key) {
+		Map<Object, T> distinct = new LinkedHashMap<>();
+		for (T row : rows) {
+			distinct.put(key.apply(row), row);
+		}
+		return new ArrayList<>(distinct.values());
+	}
+
 	/**
 	 * Gets a UUID from a {@link ResultSet} in a way that works for all database types.
 	 *
@@ -101,8 +233,25 @@ public final class DatabaseUtils {
 	 */
 	@Nullable
 	public static UUID getUUID(@Nonnull DatabaseType type, @Nonnull ResultSet rs, @Nonnull String column) throws SQLException {
+		return getUUID(type, UUIDFormat.STRING, rs, column);
+	}
+
+	/**
+	 * Gets a UUID stored in the specified {@link UUIDFormat} from a {@link ResultSet}.
+	 * The format is ignored for PostgreSQL, which always uses its native UUID type.
+	 *
+	 * @param type the database type
+	 * @param format the format of the uuid column
+	 * @param rs the result set
+	 * @param column the column name
+	 * @return the UUID represented by the string, bytes or object
+	 */
+	@Nullable
+	public static UUID getUUID(@Nonnull DatabaseType type, @Nonnull UUIDFormat format, @Nonnull ResultSet rs, @Nonnull String column) throws SQLException {
 		if (type == DatabaseType.POSTGRESQL) {
 			return rs.getObject(column, UUID.class);
+		} else if (format.isBinary()) {
+			return format.fromBytes(rs.getBytes(column));
 		} else {
 			String uuid = rs.getString(column);
 			return uuid != null ? UUID.fromString(uuid) : null;
@@ -118,10 +267,30 @@ public final class DatabaseUtils {
 	 * @param uuid the uuid
 	 */
 	public static void setUUID(@Nonnull DatabaseType type, @Nonnull PreparedStatement ps, int index, @Nullable UUID uuid) throws SQLException {
+		setUUID(type, UUIDFormat.STRING, ps, index, uuid);
+	}
+
+	/**
+	 * Sets a UUID in the specified {@link UUIDFormat} in a {@link PreparedStatement}.
+	 * The format is ignored for PostgreSQL, which always uses its native UUID type.
+	 *
+	 * @param type the database type
+	 * @param format the format of the uuid column
+	 * @param ps the statement
+	 * @param index the parameter index
+	 * @param uuid the uuid
+	 */
+	public static void setUUID(@Nonnull DatabaseType type, @Nonnull UUIDFormat format, @Nonnull PreparedStatement ps, int index, @Nullable UUID uuid) throws SQLException {
 		if (uuid == null) {
-			setNullPostgres(type, ps, index);
+			if (type != DatabaseType.POSTGRESQL && format.isBinary()) {
+				ps.setBytes(index, null);
+			} else {
+				setNullPostgres(type, ps, index);
+			}
 		} else if (type == DatabaseType.POSTGRESQL) {
 			ps.setObject(index, uuid);
+		} else if (format.isBinary()) {
+			ps.setBytes(index, format.toBytes(uuid));
 		} else {
 			ps.setString(index, uuid.toString());
 		}
@@ -178,8 +347,11 @@ public final class DatabaseUtils {
 	 */
 	@Nullable
 	public static JsonElement getJson(@Nonnull DatabaseType type, @Nonnull ResultSet rs, @Nonnull String column) throws SQLException {
-		String json = rs.getString(column);
-		return json != null ? Json.toElement(json) : null;
+		try (Reader reader = rs.getCharacterStream(column)) {
+			return reader != null ? Json.toElement(reader) : null;
+		} catch (IOException e) {
+			throw new SQLException("Failed to read the json of column " + column + ".", e);
+		}
 	}
 
 	/**
@@ -193,8 +365,11 @@ public final class DatabaseUtils {
 	 */
 	@Nullable
 	public static <T extends Serializable> T getJson(@Nonnull DatabaseType type, @Nonnull ResultSet rs, @Nonnull String column, @Nonnull Class<T> clazz) throws SQLException {
-		JsonElement element = getJson(type, rs, column);
-		return element != null ? Serializable.deserialize(clazz, element) : null;
+		try (Reader reader = rs.getCharacterStream(column)) {
+			return reader != null ? Json.read(clazz, reader) : null;
+		} catch (IOException e) {
+			throw new SQLException("Failed to read the json of column " + column + ".", e);
+		}
 	}
 
 	/**
@@ -206,7 +381,23 @@ public final class DatabaseUtils {
 	 * @param element the json element
 	 */
 	public static void setJson(@Nonnull DatabaseType type, @Nonnull PreparedStatement ps, int index, @Nullable JsonElement element) throws SQLException {
-		String json = (element == null || element.isJsonNull()) ? null : Json.toString(element);
+		setJsonString(type, ps, index, (element == null || element.isJsonNull()) ? null : Json.toString(element));
+	}
+
+	/**
+	 * Sets JSON in a {@link PreparedStatement} in a way that works for all database types.
+	 * A {@link me.colingrimes.midnight.serialize.StreamSerializable} is written without building a json element.
+	 *
+	 * @param type the database type
+	 * @param ps the statement
+	 * @param index the parameter index
+	 * @param serializable the serializable object
+	 */
+	public static void setJson(@Nonnull DatabaseType type, @Nonnull PreparedStatement ps, int index, @Nullable Serializable serializable) throws SQLException {
+		setJsonString(type, ps, index, serializable == null ? null : Json.toString(serializable));
+	}
+
+	private static void setJsonString(@Nonnull DatabaseType type, @Nonnull PreparedStatement ps, int index, @Nullable String json) throws SQLException {
 		if (json == null) {
 			setNullPostgres(type, ps, index);
 		} else if (type == DatabaseType.POSTGRESQL) {
@@ -217,15 +408,31 @@ public final class DatabaseUtils {
 	}
 
 	/**
-	 * Sets JSON in a {@link PreparedStatement} in a way that works for all database types.
+	 * Gets a {@link Serializable} stored in the compact format of {@link Binary} from a {@link ResultSet}.
+	 * The column should be a {@code BLOB} on MySQL and SQLite, or a {@code BYTEA} on PostgreSQL.
+	 *
+	 * @param type the database type
+	 * @param rs the result set
+	 * @param column the column name
+	 * @param clazz the class to convert the bytes to
+	 * @return the bytes converted to the specified class
+	 */
+	@Nullable
+	public static <T extends Serializable> T getBinary(@Nonnull DatabaseType type, @Nonnull ResultSet rs, @Nonnull String column, @Nonnull Class<T> clazz) throws SQLException {
+		byte[] bytes = rs.getBytes(column);
+		return bytes != null ? Binary.fromBytes(clazz, bytes) : null;
+	}
+
+	/**
+	 * Sets a {@link Serializable} in the compact format of {@link Binary} in a {@link PreparedStatement}.
 	 *
 	 * @param type the database type
 	 * @param ps the statement
 	 * @param index the parameter index
 	 * @param serializable the serializable object
 	 */
-	public static void setJson(@Nonnull DatabaseType type, @Nonnull PreparedStatement ps, int index, @Nullable Serializable serializable) throws SQLException {
-		setJson(type, ps, index, serializable == null ? null : serializable.serialize());
+	public static void setBinary(@Nonnull DatabaseType type, @Nonnull PreparedStatement ps, int index, @Nullable Serializable serializable) throws SQLException {
+		ps.setBytes(index, serializable == null ? null : Binary.toBytes(serializable));
 	}
 
 	/**
@@ -243,6 +450,11 @@ public final class DatabaseUtils {
 		}
 	}
 
+	@Nonnull
+	private static String quote(@Nonnull String identifier) {
+		return "'" + identifier + "'";
+	}
+
 	private DatabaseUtils() {
 		throw new UnsupportedOperationException("This class cannot be instantiated.");
 	}
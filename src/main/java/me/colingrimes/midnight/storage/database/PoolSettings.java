@@ -0,0 +1,300 @@
+package me.colingrimes.midnight.storage.database;
+
+import org.bukkit.configuration.ConfigurationSection;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Holds the connection pool settings of a database.
+ * <p>
+ * Durations are in milliseconds. Driver properties are passed to the data source as is and override the
+ * defaults of the connection provider, such as {@code prepareThreshold} for PostgreSQL.
+ * <p>
+ * SQLite databases only use these settings if {@link #isSqliteWal()} is enabled, in which case the maximum pool size
+ * and connection timeout size the pool of the WAL connection provider.
+ */
+public class PoolSettings {
+
+	private static final PoolSettings DEFAULTS = builder().build();
+
+	private final int maximumPoolSize;
+	private final int minimumIdle;
+	private final long connectionTimeout;
+	private final long idleTimeout;
+	private final long maxLifetime;
+	private final long leakDetectionThreshold;
+	private final boolean sqliteWal;
+	private final Map<String, String> properties;
+
+	/**
+	 * Gets the default pool settings.
+	 *
+	 * @return the default pool settings
+	 */
+	@Nonnull
+	public static PoolSettings defaults() {
+		return DEFAULTS;
+	}
+
+	/**
+	 * Creates a new {@link Builder} object.
+	 *
+	 * @return the pool settings builder object
+	 */
+	@Nonnull
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * Reads the pool settings from the configuration section, using the defaults for missing values.
+	 * <pre>
+	 * maximum-pool-size: 10
+	 * minimum-idle: 2
+	 * connection-timeout: 30000
+	 * idle-timeout: 30000
+	 * max-lifetime: 1800000
+	 * leak-detection-threshold: 0
+	 * sqlite-wal: false
+	 * properties:
+	 *   prepareThreshold: 3
+	 * </pre>
+	 *
+	 * @param config the configuration section to read from
+	 * @return the pool settings
+	 */
+	@Nonnull
+	public static PoolSettings fromConfig(@Nullable ConfigurationSection config) {
+		if (config == null) {
+			return defaults();
+		}
+
+		Builder builder = builder()
+				.maximumPoolSize(config.getInt("maximum-pool-size", DEFAULTS.maximumPoolSize))
+				.minimumIdle(config.getInt("minimum-idle", DEFAULTS.minimumIdle))
+				.connectionTimeout(config.getLong("connection-timeout", DEFAULTS.connectionTimeout))
+				.idleTimeout(config.getLong("idle-timeout", DEFAULTS.idleTimeout))
+				.maxLifetime(config.getLong("max-lifetime", DEFAULTS.maxLifetime))
+				.leakDetectionThreshold(config.getLong("leak-detection-threshold", DEFAULTS.leakDetectionThreshold))
+				.sqliteWal(config.getBoolean("sqlite-wal", DEFAULTS.sqliteWal));
+
+		ConfigurationSection properties = config.getConfigurationSection("properties");
+		if (properties != null) {
+			for (String key : properties.getKeys(false)) {
+				builder.property(key, String.valueOf(properties.get(key)));
+			}
+		}
+
+		return builder.build();
+	}
+
+	private PoolSettings(@Nonnull Builder builder) {
+		this.maximumPoolSize = builder.maximumPoolSize;
+		this.minimumIdle = builder.minimumIdle;
+		this.connectionTimeout = builder.connectionTimeout;
+		this.idleTimeout = builder.idleTimeout;
+		this.maxLifetime = builder.maxLifetime;
+		this.leakDetectionThreshold = builder.leakDetectionThreshold;
+		this.sqliteWal = builder.sqliteWal;
+		this.properties = Collections.unmodifiableMap(new HashMap<>(builder.properties));
+	}
+
+	/**
+	 * Gets the maximum amount of connections in the pool, both idle and in use.
+	 *
+	 * @return the maximum pool size
+	 */
+	public int getMaximumPoolSize() {
+		return maximumPoolSize;
+	}
+
+	/**
+	 * Gets the minimum amount of idle connections the pool tries to keep.
+	 *
+	 * @return the minimum idle connections
+	 */
+	public int getMinimumIdle() {
+		return minimumIdle;
+	}
+
+	/**
+	 * Gets how long to wait for a connection from the pool before failing.
+	 *
+	 * @return the connection timeout in milliseconds
+	 */
+	public long getConnectionTimeout() {
+		return connectionTimeout;
+	}
+
+	/**
+	 * Gets how long a connection may sit idle before it is retired.
+	 *
+	 * @return the idle timeout in milliseconds
+	 */
+	public long getIdleTimeout() {
+		return idleTimeout;
+	}
+
+	/**
+	 * Gets the maximum lifetime of a connection. This should be a few seconds shorter than any timeout of the database.
+	 *
+	 * @return the max lifetime in milliseconds
+	 */
+	public long getMaxLifetime() {
+		return maxLifetime;
+	}
+
+	/**
+	 * Gets how long a connection may be out of the pool before a possible leak is logged.
+	 *
+	 * @return the leak detection threshold in milliseconds, or 0 if it is disabled
+	 */
+	public long getLeakDetectionThreshold() {
+		return leakDetectionThreshold;
+	}
+
+	/**
+	 * Gets whether SQLite databases use WAL journaling with a dedicated writer connection and a pool of read connections.
+	 *
+	 * @return true if SQLite databases use the WAL connection provider
+	 */
+	public boolean isSqliteWal() {
+		return sqliteWal;
+	}
+
+	/**
+	 * Gets the driver properties that are passed to the data source.
+	 *
+	 * @return the driver properties
+	 */
+	@Nonnull
+	public Map<String, String> getProperties() {
+		return properties;
+	}
+
+	/**
+	 * Provides a simple way to build {@link PoolSettings} objects.
+	 */
+	public static class Builder {
+
+		private int maximumPoolSize = 10;
+		private int minimumIdle = 2;
+		private long connectionTimeout = 30000;
+		private long idleTimeout = 30000;
+		private long maxLifetime = 1800000;
+		private long leakDetectionThreshold = 0;
+		private boolean sqliteWal = false;
+		private final Map<String, String> properties = new HashMap<>();
+
+		/**
+		 * Sets the maximum amount of connections in the pool.
+		 *
+		 * @param maximumPoolSize the maximum pool size
+		 * @return the pool settings builder object
+		 */
+		@Nonnull
+		public Builder maximumPoolSize(int maximumPoolSize) {
+			this.maximumPoolSize = maximumPoolSize;
+			return this;
+		}
+
+		/**
+		 * Sets the minimum amount of idle connections.
+		 *
+		 * @param minimumIdle the minimum idle connections
+		 * @return the pool settings builder object
+		 */
+		@Nonnull
+		public Builder minimumIdle(int minimumIdle) {
+			this.minimumIdle = minimumIdle;
+			return this;
+		}
+
+		/**
+		 * Sets how long to wait for a connection from the pool.
+		 *
+		 * @param connectionTimeout the connection timeout in milliseconds
+		 * @return the pool settings builder object
+		 */
+		@Nonnull
+		public Builder connectionTimeout(long connectionTimeout) {
+			this.connectionTimeout = connectionTimeout;
+			return this;
+		}
+
+		/**
+		 * Sets how long a connection may sit idle.
+		 *
+		 * @param idleTimeout the idle timeout in milliseconds
+		 * @return the pool settings builder object
+		 */
+		@Nonnull
+		public Builder idleTimeout(long idleTimeout) {
+			this.idleTimeout = idleTimeout;
+			return this;
+		}
+
+		/**
+		 * Sets the maximum lifetime of a connection.
+		 *
+		 * @param maxLifetime the max lifetime in milliseconds
+		 * @return the pool settings builder object
+		 */
+		@Nonnull
+		public Builder maxLifetime(long maxLifetime) {
+			this.maxLifetime = maxLifetime;
+			return this;
+		}
+
+		/**
+		 * Sets how long a connection may be out of the pool before a possible leak is logged.
+		 *
+		 * @param leakDetectionThreshold the leak detection threshold in milliseconds, or 0 to disable it
+		 * @return the pool settings builder object
+		 */
+		@Nonnull
+		public Builder leakDetectionThreshold(long leakDetectionThreshold) {
+			this.leakDetectionThreshold = leakDetectionThreshold;
+			return this;
+		}
+
+		/**
+		 * Sets whether SQLite databases use WAL journaling with a dedicated writer connection and a pool of read connections.
+		 *
+		 * @param sqliteWal true to use the WAL connection provider for SQLite databases
+		 * @return the pool settings builder object
+		 */
+		@Nonnull
+		public Builder sqliteWal(boolean sqliteWal) {
+			this.sqliteWal = sqliteWal;
+			return this;
+		}
+
+		/**
+		 * Sets a driver property.
+		 *
+		 * @param key the property name
+		 * @param value the property value
+		 * @return the pool settings builder object
+		 */
+		@Nonnull
+		public Builder property(@Nonnull String key, @Nonnull String value) {
+			this.properties.put(key, value);
+			return this;
+		}
+
+		/**
+		 * Builds the {@link PoolSettings} object.
+		 *
+		 * @return the pool settings
+		 */
+		@Nonnull
+		public PoolSettings build() {
+			return new PoolSettings(this);
+		}
+	}
+}
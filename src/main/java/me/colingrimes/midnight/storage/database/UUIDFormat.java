@@ -0,0 +1,95 @@
+package me.colingrimes.midnight.storage.database;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+/**
+ * Represents the ways a {@link UUID} can be stored in MySQL and SQLite.
+ * <p>
+ * PostgreSQL always uses its native {@code UUID} type, which is already stored in 16 bytes.
+ */
+public enum UUIDFormat {
+
+	/**
+	 * Stored as the 36 character string, in a {@code CHAR(36)} or {@code TEXT} column.
+	 */
+	STRING,
+
+	/**
+	 * Stored as 16 bytes, in a {@code BINARY(16)} or {@code BLOB} column.
+	 */
+	BINARY,
+
+	/**
+	 * Stored as 16 bytes with the timestamp fields of the UUID swapped so that its most significant part comes first,
+	 * in a {@code BINARY(16)} or {@code BLOB} column. This is the same layout as {@code UUID_TO_BIN(uuid, 1)} in MySQL.
+	 * <p>
+	 * Only time-based (version 1) UUIDs benefit from the swap, as their rows are then inserted in index order.
+	 */
+	ORDERED_BINARY;
+
+	/**
+	 * Checks if the format stores UUIDs as bytes.
+	 *
+	 * @return true if the format is binary
+	 */
+	public boolean isBinary() {
+		return this != STRING;
+	}
+
+	/**
+	 * Converts the UUID to the bytes of a binary format.
+	 *
+	 * @param uuid the uuid
+	 * @return the 16 bytes of the uuid
+	 */
+	@Nonnull
+	public byte[] toBytes(@Nonnull UUID uuid) {
+		long msb = uuid.getMostSignificantBits();
+		if (this == ORDERED_BINARY) {
+			msb = swap(msb);
+		}
+		return ByteBuffer.allocate(16).putLong(msb).putLong(uuid.getLeastSignificantBits()).array();
+	}
+
+	/**
+	 * Converts the bytes of a binary format back to the UUID.
+	 *
+	 * @param bytes the 16 bytes of the uuid
+	 * @return the uuid, or null if the bytes are null
+	 */
+	@Nullable
+	public UUID fromBytes(@Nullable byte[] bytes) {
+		if (bytes == null) {
+			return null;
+		} else if (bytes.length != 16) {
+			throw new IllegalArgumentException("Binary UUIDs must be 16 bytes, but got " + bytes.length + ".");
+		}
+
+		ByteBuffer buffer = ByteBuffer.wrap(bytes);
+		long msb = buffer.getLong();
+		if (this == ORDERED_BINARY) {
+			msb = unswap(msb);
+		}
+		return new UUID(msb, buffer.getLong());
+	}
+
+	/**
+	 * Moves {@code time_hi} and {@code time_mid} in front of {@code time_low}.
+	 */
+	private static long swap(long msb) {
+		long timeLow = msb >>> 32;
+		long timeMid = (msb >>> 16) & 0xFFFF;
+		long timeHigh = msb & 0xFFFF;
+		return (timeHigh << 48) | (timeMid << 32) | timeLow;
+	}
+
+	private static long unswap(long msb) {
+		long timeHigh = msb >>> 48;
+		long timeMid = (msb >>> 32) & 0xFFFF;
+		long timeLow = msb & 0xFFFFFFFFL;
+		return (timeLow << 32) | (timeMid << 16) | timeHigh;
+	}
+}
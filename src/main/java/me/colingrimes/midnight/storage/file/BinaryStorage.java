@@ -0,0 +1,78 @@
+package me.colingrimes.midnight.storage.file;
+
+import me.colingrimes.midnight.Midnight;
+import me.colingrimes.midnight.serialize.Binary;
+import me.colingrimes.midnight.serialize.Serializable;
+
+import javax.annotation.Nonnull;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * A {@link DocumentStorage} that stores data in the compact format of {@link Binary}.
+ * <p>
+ * Each file holds a header followed by an entry for each internal path. Entries are kept in memory as encoded bytes,
+ * so saves only encode the saved data and writes only copy the bytes of each entry.
+ *
+ * @param <T> the type of data being stored
+ */
+public abstract class BinaryStorage<T extends Serializable> extends DocumentStorage<T, byte[]> {
+
+	private static final int MAGIC = 0x4D4E4231;
+
+	public BinaryStorage(@Nonnull Midnight plugin, @Nonnull Class<T> clazz) {
+		super(plugin, clazz);
+	}
+
+	@Nonnull
+	@Override
+	protected byte[] encode(@Nonnull T data) {
+		return Binary.toBytes(data);
+	}
+
+	@Nonnull
+	@Override
+	protected T decode(@Nonnull byte[] entry) {
+		return Binary.fromBytes(clazz, entry);
+	}
+
+	@Override
+	protected void parseEntries(@Nonnull InputStream in, @Nonnull BiConsumer<String, byte[]> consumer) throws IOException {
+		DataInputStream data = new DataInputStream(in);
+		if (data.readInt() != MAGIC) {
+			throw new IOException("File is not a binary storage file.");
+		}
+
+		int entries = Binary.readVarInt(data);
+		for (int i = 0; i < entries; i++) {
+			String path = Binary.readString(data);
+			byte[] bytes = new byte[Binary.readVarInt(data)];
+			data.readFully(bytes);
+			consumer.accept(path, bytes);
+		}
+	}
+
+	@Override
+	protected void writeEntries(@Nonnull OutputStream out, @Nonnull Map<String, byte[]> entries) throws IOException {
+		DataOutputStream data = new DataOutputStream(out);
+		data.writeInt(MAGIC);
+		Binary.writeVarInt(data, entries.size());
+		for (Map.Entry<String, byte[]> entry : entries.entrySet()) {
+			Binary.writeString(data, entry.getKey());
+			Binary.writeVarInt(data, entry.getValue().length);
+			data.write(entry.getValue());
+		}
+		data.flush();
+	}
+
+	@Nonnull
+	@Override
+	protected String getFileExtension() {
+		return ".bin";
+	}
+}
@@ -0,0 +1,366 @@
+package me.colingrimes.midnight.storage.file;
+
+import me.colingrimes.midnight.Midnight;
+import me.colingrimes.midnight.serialize.Serializable;
+import me.colingrimes.midnight.storage.file.composite.Identifier;
+import me.colingrimes.midnight.storage.file.exception.FileNotSpecifiedException;
+import me.colingrimes.midnight.util.io.Logger;
+
+import javax.annotation.Nonnull;
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * A {@link FileStorage} that keeps each file in memory as a document with an encoded entry for each internal path.
+ * Data without an internal path is stored under an empty path.
+ * <p>
+ * Saves and deletes only change the in-memory document and mark the file dirty, and dirty files are written atomically
+ * by {@link #flush()} from a copy of the document, so saves are not blocked while a file is written. Deleting data
+ * without an internal path, or data of any file other than the default file, deletes the whole file.
+ * <p>
+ * The default file is parsed once, the first time it is used, and stays in memory. Any other file, such as a file per
+ * player, is only kept in memory until its changes have been written, and is parsed again whenever it is read, so
+ * memory does not grow with the amount of files.
+ * <p>
+ * {@link #loadAll()} and {@link #loadShards()} read every entry of a file. Files that are not in memory are parsed
+ * without being kept, so loading shards does not hold every file.
+ * <p>
+ * Subclasses define the format of the files: how data is encoded into an entry and back, and how the entries of a
+ * file are parsed and written.
+ *
+ * @param <T> the type of data being stored
+ * @param <E> the type of the encoded entries
+ */
+public abstract class DocumentStorage<T extends Serializable, E> extends FileStorage<T> {
+
+	private final Map<File, Document<E>> documents = new ConcurrentHashMap<>();
+
+	public DocumentStorage(@Nonnull Midnight plugin, @Nonnull Class<T> clazz) {
+		super(plugin, clazz);
+	}
+
+	/**
+	 * Encodes the data into the entry that is kept in memory and written to the file.
+	 *
+	 * @param data the data
+	 * @return the encoded entry
+	 */
+	@Nonnull
+	protected abstract E encode(@Nonnull T data);
+
+	/**
+	 * Decodes an entry created by {@link #encode(Serializable)} back to the data.
+	 *
+	 * @param entry the encoded entry
+	 * @return the data
+	 */
+	@Nonnull
+	protected abstract T decode(@Nonnull E entry);
+
+	/**
+	 * Parses the contents of a file, passing each internal path and its entry to the consumer as it is read.
+	 * This method must be thread-safe.
+	 *
+	 * @param in the contents of the file
+	 * @param consumer the consumer of each internal path and its entry
+	 * @throws IOException if there is an issue reading the file
+	 */
+	protected abstract void parseEntries(@Nonnull InputStream in, @Nonnull BiConsumer<String, E> consumer) throws IOException;
+
+	/**
+	 * Writes the entries of a file, in a format that {@link #parseEntries(InputStream, BiConsumer)} can read.
+	 *
+	 * @param out the output stream of the file
+	 * @param entries the entries by internal path
+	 * @throws IOException if there is an issue writing the file
+	 */
+	protected abstract void writeEntries(@Nonnull OutputStream out, @Nonnull Map<String, E> entries) throws IOException;
+
+	@Nonnull
+	@Override
+	protected abstract String getFileExtension();
+
+	/**
+	 * Gets whether data must have an internal path, for formats that cannot store data without one.
+	 *
+	 * @return true if an internal path is required
+	 */
+	protected boolean requiresInternalPath() {
+		return false;
+	}
+
+	@Override
+	public void loadAll() throws IOException {
+		readAll(this::process);
+	}
+
+	@Override
+	public void load(@Nonnull Identifier identifier) throws Exception {
+		read(identifier).ifPresent(this::process);
+	}
+
+	@Nonnull
+	@Override
+	protected Optional<T> read(@Nonnull Identifier identifier) throws Exception {
+		File file = getFile(getFileName(identifier), false);
+		String path = identifier.getInternalPath();
+		Document<E> document = documents.get(file);
+		if (document == null && isDefaultFile(file)) {
+			document = getDocument(file);
+		}
+
+		E entry;
+		if (document != null) {
+			synchronized (document) {
+				entry = document.entries.get(path);
+			}
+		} else {
+			// Other files are parsed without being kept.
+			Map<String, E> entries = new LinkedHashMap<>();
+			parse(file, entries::put);
+			entry = entries.get(path);
+		}
+		return entry == null ? Optional.empty() : Optional.of(decode(entry));
+	}
+
+	@Override
+	protected void readAll(@Nonnull Consumer<T> consumer) throws IOException {
+		Optional<File> defaultFile = getDefaultFile();
+		if (defaultFile.isEmpty()) {
+			Logger.severe("Default files are not setup for this plugin. Please do not use loadAll().");
+			return;
+		}
+
+		readFile(defaultFile.get(), consumer);
+	}
+
+	/**
+	 * Reads every entry of the file. Files that are not in memory are parsed without being kept.
+	 *
+	 * @param file the file to read
+	 * @param consumer the consumer of the data
+	 */
+	@Override
+	protected void readFile(@Nonnull File file, @Nonnull Consumer<T> consumer) throws IOException {
+		Document<E> document = documents.get(file);
+		if (document == null) {
+			parse(file, (path, entry) -> consumer.accept(decode(entry)));
+			return;
+		}
+
+		// Copies the entries so that the document is not locked while the data is processed.
+		List<E> entries;
+		synchronized (document) {
+			entries = new ArrayList<>(document.entries.values());
+		}
+		for (E entry : entries) {
+			consumer.accept(decode(entry));
+		}
+	}
+
+	@Override
+	public void save(@Nonnull T data) throws Exception {
+		Identifier identifier = Identifier.create();
+		configureIdentifier(identifier, data);
+		if (requiresInternalPath() && identifier.getInternalPath().isEmpty()) {
+			throw new IllegalArgumentException(getClass().getSimpleName() + " requires an internal path to store data.");
+		}
+
+		File file = getFile(getFileName(identifier), true);
+		E entry = encode(data);
+		change(file, entries -> entries.put(identifier.getInternalPath(), entry));
+	}
+
+	/**
+	 * Saves every specified data in memory, marking each changed file dirty once.
+	 *
+	 * @param data the data to be saved
+	 * @return a completed future, or a failed future if the data could not be saved
+	 */
+	@Nonnull
+	@Override
+	public CompletableFuture<Void> saveAll(@Nonnull Collection<T> data) {
+		try {
+			for (T element : data) {
+				save(element);
+			}
+			return CompletableFuture.completedFuture(null);
+		} catch (Exception e) {
+			return CompletableFuture.failedFuture(e);
+		}
+	}
+
+	@Override
+	public void delete(@Nonnull T data) throws Exception {
+		Identifier identifier = Identifier.create();
+		configureIdentifier(identifier, data);
+
+		File file = getFile(getFileName(identifier), false);
+		String path = identifier.getInternalPath();
+
+		// Delete the file if it is a unique file.
+		if (path.isEmpty() || !isDefaultFile(file)) {
+			synchronized (file) {
+				Document<E> document = documents.remove(file);
+				if (document != null) {
+					synchronized (document) {
+						document.evicted = true;
+					}
+				}
+				unmarkDirty(file);
+				if (file.delete() || !file.exists()) {
+					return;
+				}
+			}
+		}
+
+		// Otherwise, delete the data from the file.
+		change(file, entries -> entries.remove(path));
+	}
+
+	@Override
+	protected void write(@Nonnull File file) throws IOException {
+		Document<E> document = documents.get(file);
+		if (document == null) {
+			return;
+		}
+
+		// Copies the document so that saves are not blocked while the file is written.
+		Map<String, E> snapshot;
+		long changes;
+		synchronized (document) {
+			snapshot = new LinkedHashMap<>(document.entries);
+			changes = document.changes;
+		}
+
+		synchronized (file) {
+			// The file may have been deleted since it was marked dirty.
+			if (documents.get(file) != document) {
+				return;
+			}
+			writeAtomically(file, out -> writeEntries(out, snapshot));
+		}
+
+		// Files other than the default file are dropped from memory once every change has been written.
+		if (!isDefaultFile(file)) {
+			synchronized (document) {
+				if (document.changes == changes) {
+					document.evicted = true;
+					documents.remove(file, document);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Changes the in-memory document of the file and marks the file dirty.
+	 *
+	 * @param file the file
+	 * @param change the change to the entries of the file
+	 */
+	private void change(@Nonnull File file, @Nonnull Consumer<Map<String, E>> change) {
+		while (true) {
+			Document<E> document = getDocument(file);
+			synchronized (document) {
+				// The document may have been dropped from memory since it was retrieved.
+				if (!document.evicted) {
+					change.accept(document.entries);
+					document.changes++;
+					break;
+				}
+			}
+		}
+		markDirty(file);
+	}
+
+	/**
+	 * Gets the in-memory document of the file, parsing the file if it is not in memory.
+	 *
+	 * @param file the file
+	 * @return the document of the file
+	 */
+	@Nonnull
+	private Document<E> getDocument(@Nonnull File file) {
+		return documents.computeIfAbsent(file, f -> {
+			Document<E> document = new Document<>();
+			try {
+				parse(f, document.entries::put);
+			} catch (IOException e) {
+				throw new UncheckedIOException("Failed to read " + f.getName(), e);
+			}
+			return document;
+		});
+	}
+
+	/**
+	 * Parses the entries of the file, if the file exists and is not empty.
+	 *
+	 * @param file the file
+	 * @param consumer the consumer of each internal path and its entry
+	 */
+	private void parse(@Nonnull File file, @Nonnull BiConsumer<String, E> consumer) throws IOException {
+		if (!file.exists() || file.length() == 0) {
+			return;
+		}
+
+		try (InputStream in = new BufferedInputStream(Files.newInputStream(file.toPath()))) {
+			parseEntries(in, consumer);
+		}
+	}
+
+	/**
+	 * Checks if the file is the default file, without creating the default file.
+	 *
+	 * @param file the file
+	 * @return true if the file is the default file
+	 */
+	private boolean isDefaultFile(@Nonnull File file) throws IOException {
+		String defaultFileName = getDefaultFileName();
+		return defaultFileName != null && file.equals(getFile(defaultFileName, false));
+	}
+
+	/**
+	 * Gets the name of the file for the specified identifier.
+	 * <p>
+	 * If the file name is not specified, the default file name is set and used.
+	 *
+	 * @param identifier the identifier
+	 * @return the file name with the file extension
+	 */
+	@Nonnull
+	private String getFileName(@Nonnull Identifier identifier) throws FileNotSpecifiedException {
+		if (identifier.getFileName() == null) {
+			identifier.setFileName(getDefaultFileName());
+		}
+
+		String fileName = identifier.getFileName();
+		String extension = getFileExtension();
+		if (fileName == null) {
+			throw new FileNotSpecifiedException();
+		} else {
+			return fileName.endsWith(extension) ? fileName : fileName + extension;
+		}
+	}
+
+	private static class Document<E> {
+		final Map<String, E> entries = new LinkedHashMap<>();
+		// Guarded by the document.
+		long changes = 0;
+		boolean evicted = false;
+	}
+}
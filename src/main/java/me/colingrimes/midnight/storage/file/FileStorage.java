@@ -1,33 +1,66 @@
 package me.colingrimes.midnight.storage.file;
 
 import me.colingrimes.midnight.Midnight;
+import me.colingrimes.midnight.scheduler.Scheduler;
+import me.colingrimes.midnight.scheduler.task.Task;
 import me.colingrimes.midnight.serialize.Serializable;
-import me.colingrimes.midnight.storage.Storage;
+import me.colingrimes.midnight.storage.AsyncStorage;
 import me.colingrimes.midnight.storage.file.composite.Identifier;
+import me.colingrimes.midnight.util.io.Logger;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.IOException;
-import java.util.HashMap;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * An abstract class representing a file-based storage.
+ * <p>
+ * Data is identified by an {@link Identifier}. The async methods of {@link AsyncStorage} return the loaded data
+ * directly, while {@link #loadAll()} and {@link #load(Identifier)} pass it to {@link #process(Serializable)}.
+ * <p>
+ * Storages that keep their files in memory, such as a {@link DocumentStorage}, call {@link #markDirty(File)} after
+ * changing a file. Dirty files are written by {@link #flush()}, which runs asynchronously every flush interval and
+ * always on {@link #shutdown()}, so many saves to the same file only cause one write.
  *
  * @param <T> the type of data being stored
  */
-public abstract class FileStorage<T extends Serializable> implements Storage<T> {
+public abstract class FileStorage<T extends Serializable> implements AsyncStorage<T, Identifier> {
+
+    private static final int SHARD_BATCH_SIZE = 64;
 
     protected final Midnight plugin;
     protected final Class<T> clazz;
     protected final Map<String, File> fileMap;
 
+    private final Set<File> dirty = ConcurrentHashMap.newKeySet();
+    private final Object flushLock = new Object();
+    private long flushTicks = 40;
+    private Task flushTask;
+
     public FileStorage(@Nonnull Midnight plugin, @Nonnull Class<T> clazz) {
         this.plugin = plugin;
         this.clazz = clazz;
-        this.fileMap = new HashMap<>();
+        this.fileMap = new ConcurrentHashMap<>();
     }
 
     /**
@@ -44,6 +77,107 @@ public abstract class FileStorage<T extends Serializable> implements Storage<T>
      */
     public abstract void load(@Nonnull Identifier identifier) throws Exception;
 
+    /**
+     * Reads the data associated with the specified composite identifier without processing it.
+     *
+     * @param identifier the composite identifier
+     * @return the data, or empty if there is no data for the identifier
+     * @throws Exception if there is an issue reading the data
+     */
+    @Nonnull
+    protected abstract Optional<T> read(@Nonnull Identifier identifier) throws Exception;
+
+    /**
+     * Reads all data from the storage without processing it, passing each element to the consumer as it is read.
+     *
+     * @param consumer the consumer of the data
+     * @throws Exception if there is an issue reading the data
+     */
+    protected abstract void readAll(@Nonnull Consumer<T> consumer) throws Exception;
+
+    @Nonnull
+    @Override
+    public CompletableFuture<List<T>> loadMany(@Nonnull Collection<Identifier> identifiers) {
+        List<Identifier> copy = List.copyOf(identifiers);
+        return Scheduler.virtual().call(() -> {
+            List<T> data = new ArrayList<>();
+            for (Identifier identifier : copy) {
+                read(identifier).ifPresent(data::add);
+            }
+            return data;
+        });
+    }
+
+    @Nonnull
+    @Override
+    public CompletableFuture<Void> loadAll(@Nonnull Consumer<T> consumer) {
+        return Scheduler.virtual().run(() -> readAll(consumer));
+    }
+
+    /**
+     * Loads every file in the {@link #getShardDirectory()} in parallel, such as a folder with a file per player.
+     * <p>
+     * Files are read and deserialized on the {@link ForkJoinPool#commonPool()} in batches of {@value #SHARD_BATCH_SIZE},
+     * and each batch is passed to {@link #process(Serializable)} on the main thread as soon as it is read.
+     * Files that fail to read are logged and skipped.
+     *
+     * @return a future that will be completed with the amount of processed data once every batch is processed
+     */
+    @Nonnull
+    public CompletableFuture<Integer> loadShards() {
+        String directory = getShardDirectory();
+        if (directory == null) {
+            return CompletableFuture.failedFuture(new UnsupportedOperationException(getClass().getSimpleName() + " does not have a shard directory."));
+        }
+
+        Executor mainThread = Scheduler.mainThread();
+        return Scheduler.virtual().call(() -> findShards(directory)).thenCompose(files -> {
+            List<CompletableFuture<Integer>> batches = new ArrayList<>();
+            for (int from = 0; from < files.size(); from += SHARD_BATCH_SIZE) {
+                List<File> batch = files.subList(from, Math.min(files.size(), from + SHARD_BATCH_SIZE));
+                batches.add(CompletableFuture.supplyAsync(() -> readShards(batch), ForkJoinPool.commonPool()).thenApplyAsync(data -> {
+                    data.forEach(this::process);
+                    return data.size();
+                }, mainThread));
+            }
+            return CompletableFuture.allOf(batches.toArray(CompletableFuture[]::new))
+                    .thenApply(v -> batches.stream().mapToInt(CompletableFuture::join).sum());
+        });
+    }
+
+    /**
+     * Gets the directory, relative to the data folder, that holds a file for each element.
+     * This method should be overridden by subclasses that use {@link #loadShards()}.
+     *
+     * @return the shard directory, or null if the storage is not sharded
+     */
+    @Nullable
+    protected String getShardDirectory() {
+        return null;
+    }
+
+    /**
+     * Gets the extension of the files this storage reads, such as {@code .yml}.
+     *
+     * @return the file extension, or null to read every file
+     */
+    @Nullable
+    protected String getFileExtension() {
+        return null;
+    }
+
+    /**
+     * Reads every element stored in the file without processing it.
+     * This method should be overridden by subclasses that support {@link #loadShards()}, and must be thread-safe.
+     *
+     * @param file the file to read
+     * @param consumer the consumer of the data
+     * @throws Exception if there is an issue reading the file
+     */
+    protected void readFile(@Nonnull File file, @Nonnull Consumer<T> consumer) throws Exception {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " does not support reading shards.");
+    }
+
     /**
      * Processes the data after it has been loaded.
      * <p>
@@ -117,6 +251,143 @@ public abstract class FileStorage<T extends Serializable> implements Storage<T>
         return file;
     }
 
+    /**
+     * Sets how often dirty files are written. This should be called in the constructor of the storage.
+     *
+     * @param flushTicks the amount of ticks between flushes
+     */
+    protected void setFlushInterval(long flushTicks) {
+        if (flushTicks <= 0) {
+            throw new IllegalArgumentException("Flush ticks must be positive.");
+        }
+        this.flushTicks = flushTicks;
+    }
+
+    /**
+     * Marks the file as changed in memory, so that it is written by the next {@link #flush()}.
+     *
+     * @param file the changed file
+     */
+    protected void markDirty(@Nonnull File file) {
+        dirty.add(file);
+        synchronized (flushLock) {
+            if (flushTask == null || flushTask.isCancelled()) {
+                flushTask = Scheduler.async().runRepeating(this::flush, flushTicks, flushTicks);
+            }
+        }
+    }
+
+    /**
+     * Removes the file from the files waiting to be written, such as when it is deleted.
+     *
+     * @param file the file
+     */
+    protected void unmarkDirty(@Nonnull File file) {
+        dirty.remove(file);
+    }
+
+    /**
+     * Writes every dirty file to disk. Files that fail to write stay dirty and are tried again on the next flush.
+     */
+    public synchronized void flush() {
+        for (File file : List.copyOf(dirty)) {
+            dirty.remove(file);
+            try {
+                write(file);
+            } catch (IOException e) {
+                dirty.add(file);
+                Logger.severe(plugin, "FileStorage has failed to write " + file.getName() + ":", e);
+            }
+        }
+    }
+
+    /**
+     * Writes the in-memory contents of the dirty file to disk.
+     * This method should be overridden by subclasses that use {@link #markDirty(File)}.
+     *
+     * @param file the file to write
+     * @throws IOException if there is an issue writing the file
+     */
+    protected void write(@Nonnull File file) throws IOException {}
+
+    @Nonnull
+    private List<File> findShards(@Nonnull String directory) throws IOException {
+        Path root = new File(plugin.getDataFolder(), directory).toPath();
+        if (!Files.isDirectory(root)) {
+            return List.of();
+        }
+
+        String extension = getFileExtension();
+        try (Stream<Path> paths = Files.walk(root)) {
+            return paths.filter(Files::isRegularFile)
+                    .filter(path -> extension == null || path.getFileName().toString().endsWith(extension))
+                    .map(Path::toFile)
+                    .toList();
+        }
+    }
+
+    @Nonnull
+    private List<T> readShards(@Nonnull List<File> files) {
+        List<T> data = new ArrayList<>();
+        for (File file : files) {
+            try {
+                readFile(file, data::add);
+            } catch (Exception e) {
+                Logger.severe(plugin, "FileStorage has failed to read " + file.getName() + ":", e);
+            }
+        }
+        return data;
+    }
+
+    /**
+     * Replaces the contents of the file without ever leaving it partially written, by writing a temporary file
+     * next to it and moving it over the file.
+     *
+     * @param file the file
+     * @param contents the new contents of the file
+     * @throws IOException if there is an issue writing the file
+     */
+    protected static void writeAtomically(@Nonnull File file, @Nonnull String contents) throws IOException {
+        writeAtomically(file, contents.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Replaces the contents of the file without ever leaving it partially written, by writing a temporary file
+     * next to it and moving it over the file.
+     *
+     * @param file the file
+     * @param contents the new contents of the file
+     * @throws IOException if there is an issue writing the file
+     */
+    protected static void writeAtomically(@Nonnull File file, @Nonnull byte[] contents) throws IOException {
+        writeAtomically(file, out -> out.write(contents));
+    }
+
+    /**
+     * Replaces the contents of the file without ever leaving it partially written, by streaming the contents
+     * into a temporary file next to it and moving it over the file.
+     *
+     * @param file the file
+     * @param contents writes the new contents of the file to the buffered output stream
+     * @throws IOException if there is an issue writing the file
+     */
+    protected static void writeAtomically(@Nonnull File file, @Nonnull ContentWriter contents) throws IOException {
+        Path target = file.toPath();
+        Path temp = target.resolveSibling(file.getName() + ".tmp");
+        Files.createDirectories(target.toAbsolutePath().getParent());
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temp))) {
+            contents.write(out);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        try {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
     @Override
     public void init() {
         // No specific initialization needed for file-based storage.
@@ -124,6 +395,27 @@ public abstract class FileStorage<T extends Serializable> implements Storage<T>
 
     @Override
     public void shutdown() {
-        // No specific shutdown operations needed for file-based storage.
+        synchronized (flushLock) {
+            if (flushTask != null) {
+                flushTask.stop();
+                flushTask = null;
+            }
+        }
+        flush();
+    }
+
+    /**
+     * Writes the contents of a file to an output stream.
+     */
+    @FunctionalInterface
+    protected interface ContentWriter {
+
+        /**
+         * Writes the contents to the output stream.
+         *
+         * @param out the output stream
+         * @throws IOException if there is an issue writing the contents
+         */
+        void write(@Nonnull OutputStream out) throws IOException;
     }
 }
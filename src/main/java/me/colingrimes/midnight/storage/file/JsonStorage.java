@@ -0,0 +1,77 @@
+package me.colingrimes.midnight.storage.file;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import me.colingrimes.midnight.Midnight;
+import me.colingrimes.midnight.serialize.Json;
+import me.colingrimes.midnight.serialize.Serializable;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * A {@link DocumentStorage} that stores data in JSON files.
+ * <p>
+ * Each file holds a JSON object with an element for each internal path. Files are parsed and written as a stream,
+ * so a file that is not in memory only holds one element at a time while it is read.
+ *
+ * @param <T> the type of data being stored
+ */
+public abstract class JsonStorage<T extends Serializable> extends DocumentStorage<T, JsonElement> {
+
+	public JsonStorage(@Nonnull Midnight plugin, @Nonnull Class<T> clazz) {
+		super(plugin, clazz);
+	}
+
+	@Nonnull
+	@Override
+	protected JsonElement encode(@Nonnull T data) {
+		return data.serialize();
+	}
+
+	@Nonnull
+	@Override
+	protected T decode(@Nonnull JsonElement entry) {
+		return Serializable.deserialize(clazz, entry);
+	}
+
+	@Override
+	protected void parseEntries(@Nonnull InputStream in, @Nonnull BiConsumer<String, JsonElement> consumer) throws IOException {
+		JsonReader reader = Json.reader(new InputStreamReader(in, StandardCharsets.UTF_8));
+		if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+			return;
+		}
+
+		reader.beginObject();
+		while (reader.hasNext()) {
+			String path = reader.nextName();
+			consumer.accept(path, JsonParser.parseReader(reader));
+		}
+		reader.endObject();
+	}
+
+	@Override
+	protected void writeEntries(@Nonnull OutputStream out, @Nonnull Map<String, JsonElement> entries) throws IOException {
+		JsonObject root = new JsonObject();
+		entries.forEach(root::add);
+
+		// Streams the entries into the file instead of building the whole string first.
+		Json.write(root, Json.prettyWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)));
+	}
+
+	@Nonnull
+	@Override
+	protected String getFileExtension() {
+		return ".json";
+	}
+}
@@ -3,128 +3,67 @@ package me.colingrimes.midnight.storage.file;
 import me.colingrimes.midnight.Midnight;
 import me.colingrimes.midnight.serialize.Json;
 import me.colingrimes.midnight.serialize.Serializable;
-import me.colingrimes.midnight.storage.file.composite.Identifier;
-import me.colingrimes.midnight.storage.file.exception.FileNotSpecifiedException;
-import me.colingrimes.midnight.util.io.Logger;
-import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.file.YamlConfiguration;
 
 import javax.annotation.Nonnull;
-import java.io.File;
 import java.io.IOException;
-import java.util.Optional;
-
-public abstract class YamlStorage<T extends Serializable> extends FileStorage<T> {
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * A {@link DocumentStorage} that stores each element as a JSON string inside YAML files.
+ * <p>
+ * Each element is stored at its internal path, so every element must have an internal path.
+ *
+ * @param <T> the type of data being stored
+ */
+public abstract class YamlStorage<T extends Serializable> extends DocumentStorage<T, String> {
 
     public YamlStorage(@Nonnull Midnight plugin, @Nonnull Class<T> clazz) {
         super(plugin, clazz);
     }
 
+    @Nonnull
     @Override
-    public void loadAll() throws IOException {
-        Optional<File> defaultFile = getDefaultFile();
-        if (defaultFile.isEmpty()) {
-            Logger.severe("Default files are not setup for this plugin. Please do not use loadAll().");
-            return;
-        }
-
-        YamlConfiguration config = YamlConfiguration.loadConfiguration(defaultFile.get());
-        ConfigurationSection sec = config.getConfigurationSection("");
-        if (sec == null) {
-            return;
-        }
-
-        // Process the default file.
-        for (String key : sec.getKeys(false)) {
-            String json = sec.getString(key);
-            if (json != null) {
-                process(Serializable.deserialize(clazz, Json.toElement(json)));
-            }
-        }
+    protected String encode(@Nonnull T data) {
+        return Json.toString(data);
     }
 
+    @Nonnull
     @Override
-    public void load(@Nonnull Identifier identifier) throws Exception {
-        File file = getFile(getFileName(identifier), false);
-        if (!file.exists()) {
-            return;
-        }
-
-        YamlConfiguration config = YamlConfiguration.loadConfiguration(file);
-        String json = config.getString(identifier.getInternalPath());
-        if (json == null) {
-            return;
-        }
-
-        // Process the file of the specified identifier.
-        process(Serializable.deserialize(clazz, Json.toElement(json)));
+    protected T decode(@Nonnull String entry) {
+        return Serializable.deserialize(clazz, Json.toElement(entry));
     }
 
     @Override
-    public void save(@Nonnull T data) throws Exception {
-        Identifier identifier = Identifier.create();
-        configureIdentifier(identifier, data);
-
-        // Gets the file and internal path.
-        File file = getFile(getFileName(identifier), true);
-        String path = getInternalPath(identifier);
-
-        // Serialize the data.
-        YamlConfiguration config = YamlConfiguration.loadConfiguration(file);
-        config.set(path, Json.toString(data));
-        config.save(file);
+    protected void parseEntries(@Nonnull InputStream in, @Nonnull BiConsumer<String, String> consumer) {
+        YamlConfiguration config = YamlConfiguration.loadConfiguration(new InputStreamReader(in, StandardCharsets.UTF_8));
+        for (String path : config.getKeys(true)) {
+            if (config.isString(path)) {
+                consumer.accept(path, config.getString(path));
+            }
+        }
     }
 
     @Override
-    public void delete(@Nonnull T data) throws Exception {
-        Identifier identifier = Identifier.create();
-        configureIdentifier(identifier, data);
-
-        // Gets the file and internal path.
-        File file = getFile(getFileName(identifier), false);
-        String path = identifier.getInternalPath();
-
-        // Delete the file if it is a unique file.
-        if (!file.equals(getDefaultFile().orElse(null)) && file.delete()) {
-            return;
-        }
-
-        // Otherwise, delete the data from the file.
-        YamlConfiguration yamlConfiguration = YamlConfiguration.loadConfiguration(file);
-        yamlConfiguration.set(path, null);
-        yamlConfiguration.save(file);
+    protected void writeEntries(@Nonnull OutputStream out, @Nonnull Map<String, String> entries) throws IOException {
+        YamlConfiguration config = new YamlConfiguration();
+        entries.forEach(config::set);
+        out.write(config.saveToString().getBytes(StandardCharsets.UTF_8));
     }
 
-    /**
-     * Gets the name of the YAML file for the specified identifier.
-     * <p>
-     * If the file name is not specified, the default file name is set and used.
-     *
-     * @param identifier the identifier
-     * @return the YAML file name
-     */
     @Nonnull
-    private String getFileName(@Nonnull Identifier identifier) throws FileNotSpecifiedException {
-        if (identifier.getFileName() == null) {
-            identifier.setFileName(getDefaultFileName());
-        }
-
-        String fileName = identifier.getFileName();
-        if (fileName == null) {
-            throw new FileNotSpecifiedException();
-        } else {
-            return fileName.endsWith(".yml") ? fileName : fileName + ".yml";
-        }
+    @Override
+    protected String getFileExtension() {
+        return ".yml";
     }
 
-    /**
-     * Gets the internal path for the specified identifier.
-     *
-     * @param identifier the identifier
-     * @return the internal path
-     */
-    private String getInternalPath(@Nonnull Identifier identifier) {
-        String internalPath = identifier.getInternalPath();
-        return internalPath.isEmpty() ? "" : internalPath + ".";
+    @Override
+    protected boolean requiresInternalPath() {
+        return true;
     }
 }
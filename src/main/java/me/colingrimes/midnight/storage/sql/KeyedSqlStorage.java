@@ -0,0 +1,338 @@
+package me.colingrimes.midnight.storage.sql;
+
+import me.colingrimes.midnight.Midnight;
+import me.colingrimes.midnight.scheduler.Scheduler;
+import me.colingrimes.midnight.scheduler.task.Task;
+import me.colingrimes.midnight.storage.AsyncStorage;
+import me.colingrimes.midnight.storage.WriteBehindQueue;
+import me.colingrimes.midnight.storage.sql.connection.ConnectionProvider;
+import me.colingrimes.midnight.util.io.Logger;
+
+import javax.annotation.Nonnull;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * An SQL-based storage whose data is identified by a key, such as the primary key of its rows.
+ * <p>
+ * Besides the blocking {@link #save(Object)} and {@link #delete(Object)}, data can be queued with {@link #queueSave(Object)}
+ * and {@link #queueDelete(Object)}. Queued writes are coalesced per key in a {@link WriteBehindQueue} and written in JDBC
+ * batches by {@link #flush()}, which runs asynchronously once enough writes are queued or the flush interval passes,
+ * and always on {@link #shutdown()}. Writes can no longer be queued once the storage has been shut down.
+ * <p>
+ * The {@link AsyncStorage} methods are identified by the same key, {@link #saveAll(Collection)} uses the save statement
+ * while {@link #loadMany(Collection)} and {@link #loadAll(Consumer)} use the load queries and {@link #map(Row)}.
+ * {@link #loadMany(Collection)} loads the keys in chunks of the batch size, with a single query per chunk.
+ *
+ * @param <T> the type of data being stored
+ * @param <K> the type of the keys
+ */
+public abstract class KeyedSqlStorage<T, K> extends SqlStorage<T> implements AsyncStorage<T, K> {
+
+	private final WriteBehindQueue<K, T> queue = new WriteBehindQueue<>();
+	private final Map<Integer, Query> loadQueries = new ConcurrentHashMap<>();
+	private final AtomicBoolean flushQueued = new AtomicBoolean(false);
+	private final Object flushLock = new Object();
+	private long flushTicks = 100;
+	private Task flushTask;
+
+	public KeyedSqlStorage(@Nonnull Midnight plugin, @Nonnull ConnectionProvider connectionProvider) {
+		super(plugin, connectionProvider);
+	}
+
+	/**
+	 * Queues the data to be saved in the next batch, replacing any queued write with the same key.
+	 *
+	 * @param data the data to be saved
+	 * @throws IllegalStateException if the storage has been shut down
+	 */
+	public void queueSave(@Nonnull T data) {
+		queue.save(getKey(data), data);
+		scheduleFlush();
+	}
+
+	/**
+	 * Queues the data to be deleted in the next batch, replacing any queued write with the same key.
+	 *
+	 * @param data the data to be deleted
+	 * @throws IllegalStateException if the storage has been shut down
+	 */
+	public void queueDelete(@Nonnull T data) {
+		queue.delete(getKey(data), data);
+		scheduleFlush();
+	}
+
+	/**
+	 * Writes every queued save and delete to the database, using one batch per statement and chunk of the batch size.
+	 * Each batch runs in its own transaction. Writes of a failed batch are queued again unless a newer write has replaced them.
+	 */
+	public void flush() {
+		flushQueued.set(false);
+		try {
+			queue.flush(writes -> {
+				Map<K, WriteBehindQueue.Write<T>> saves = new LinkedHashMap<>();
+				Map<K, WriteBehindQueue.Write<T>> deletes = new LinkedHashMap<>();
+				writes.forEach((key, write) -> (write.isDelete() ? deletes : saves).put(key, write));
+
+				List<K> failed = new ArrayList<>();
+				try (Connection connection = provider.getConnection()) {
+					failed.addAll(writeBatches(connection, getSaveQuery(), saves, false));
+					failed.addAll(writeBatches(connection, getDeleteQuery(), deletes, true));
+				}
+				return failed;
+			});
+		} catch (Exception e) {
+			Logger.severe(plugin, "SqlStorage has failed to open a connection to flush queued writes:", e);
+		}
+	}
+
+	/**
+	 * Sets the amount of ticks between flushes. This should be called in the constructor of the storage.
+	 * A flush is also triggered once a full batch of writes is queued, see {@link #setBatchSize(int)}.
+	 *
+	 * @param flushTicks the amount of ticks between flushes
+	 */
+	protected void setFlushInterval(long flushTicks) {
+		if (flushTicks <= 0) {
+			throw new IllegalArgumentException("Flush ticks must be positive.");
+		}
+		this.flushTicks = flushTicks;
+	}
+
+	/**
+	 * Gets the amount of writes that are waiting to be flushed.
+	 *
+	 * @return the amount of queued writes
+	 */
+	public int getQueuedWrites() {
+		return queue.size();
+	}
+
+	/**
+	 * Saves every specified data asynchronously.
+	 * The data is written with the save statement in batches of the batch size, each in its own transaction.
+	 *
+	 * @param data the data to be saved
+	 * @return a future that will be completed once all data is saved
+	 */
+	@Nonnull
+	@Override
+	public CompletableFuture<Void> saveAll(@Nonnull Collection<T> data) {
+		List<T> copy = List.copyOf(data);
+		return getScheduler().run(() -> {
+			try (Connection connection = provider.getConnection()) {
+				for (int from = 0; from < copy.size(); from += getBatchSize()) {
+					writeBatch(connection, getSaveQuery(), copy.subList(from, Math.min(copy.size(), from + getBatchSize())), false);
+				}
+			}
+		});
+	}
+
+	@Nonnull
+	@Override
+	public CompletableFuture<List<T>> loadMany(@Nonnull Collection<K> keys) {
+		List<K> copy = List.copyOf(keys);
+		return getScheduler().call(() -> {
+			Map<K, List<T>> loaded = new HashMap<>();
+			for (int from = 0; from < copy.size(); from += getBatchSize()) {
+				List<K> chunk = copy.subList(from, Math.min(copy.size(), from + getBatchSize()));
+				try (Stream<T> rows = stream(getLoadQuery(chunk.size()), this::map, chunk.toArray())) {
+					rows.forEach(data -> loaded.computeIfAbsent(getKey(data), k -> new ArrayList<>()).add(data));
+				}
+			}
+
+			// The rows are returned in the order of their keys, no matter the order the database returned them in.
+			List<T> data = new ArrayList<>();
+			for (K key : copy) {
+				data.addAll(loaded.getOrDefault(key, List.of()));
+			}
+			return data;
+		});
+	}
+
+	@Nonnull
+	@Override
+	public CompletableFuture<Void> loadAll(@Nonnull Consumer<T> consumer) {
+		return query(getLoadAllQuery(), this::map, consumer);
+	}
+
+	/**
+	 * Gets the key that data is identified by, such as the primary key of the row.
+	 *
+	 * @param data the data
+	 * @return the key of the data
+	 */
+	@Nonnull
+	protected abstract K getKey(@Nonnull T data);
+
+	/**
+	 * Gets the statement used to save data in batches, such as an upsert.
+	 *
+	 * @return the save statement
+	 */
+	@Nonnull
+	protected abstract String getSaveQuery();
+
+	/**
+	 * Sets the parameters of the save statement for the specified data.
+	 *
+	 * @param statement the save statement
+	 * @param data the data to be saved
+	 */
+	protected abstract void bindSave(@Nonnull PreparedStatement statement, @Nonnull T data) throws SQLException;
+
+	/**
+	 * Gets the statement used to delete data in batches.
+	 *
+	 * @return the delete statement
+	 */
+	@Nonnull
+	protected abstract String getDeleteQuery();
+
+	/**
+	 * Sets the parameters of the delete statement for the specified data.
+	 *
+	 * @param statement the delete statement
+	 * @param data the data to be deleted
+	 */
+	protected abstract void bindDelete(@Nonnull PreparedStatement statement, @Nonnull T data) throws SQLException;
+
+	/**
+	 * Gets the query used to load data by its keys, with a single {@code IN (?)} parameter such as
+	 * {@code SELECT * FROM 'players' WHERE 'uuid' IN (?)}. The parameter is expanded to one parameter for every key
+	 * of a chunk, and UUID keys are set in the {@link #getUUIDFormat()} of the storage.
+	 *
+	 * @return the load query
+	 */
+	@Nonnull
+	protected abstract Query getLoadQuery();
+
+	/**
+	 * Gets the query used to load all data.
+	 *
+	 * @return the load all query
+	 */
+	@Nonnull
+	protected abstract Query getLoadAllQuery();
+
+	/**
+	 * Maps the current row to the data.
+	 *
+	 * @param row the current row
+	 * @return the data of the row
+	 */
+	@Nonnull
+	protected abstract T map(@Nonnull Row row) throws SQLException;
+
+	@Override
+	void beforeShutdown() {
+		synchronized (flushLock) {
+			queue.close();
+			if (flushTask != null) {
+				flushTask.stop();
+				flushTask = null;
+			}
+		}
+		flush();
+	}
+
+	/**
+	 * Gets the load query with its {@code IN (?)} parameter expanded to the amount of keys.
+	 *
+	 * @param keys the amount of keys
+	 * @return the expanded load query
+	 */
+	@Nonnull
+	private Query getLoadQuery(int keys) {
+		return loadQueries.computeIfAbsent(keys, size -> {
+			Query query = getLoadQuery();
+			String raw = query.getRaw();
+			int index = raw.indexOf("(?)");
+			if (index == -1 || query.getParameters() != 1) {
+				throw new IllegalStateException("The load query must have a single parameter written as IN (?).");
+			}
+			return Query.of(raw.substring(0, index) + "(" + String.join(", ", Collections.nCopies(size, "?")) + ")" + raw.substring(index + 3));
+		});
+	}
+
+	private void scheduleFlush() {
+		synchronized (flushLock) {
+			if (!queue.isClosed() && (flushTask == null || flushTask.isCancelled())) {
+				flushTask = Scheduler.async().runRepeating(this::flush, flushTicks, flushTicks);
+			}
+		}
+
+		// Flushes early once a full batch is waiting, at most one early flush is queued at a time.
+		if (queue.size() >= getBatchSize() && flushQueued.compareAndSet(false, true)) {
+			Scheduler.async().run(this::flush, "SqlStorage has failed to flush queued writes:");
+		}
+	}
+
+	/**
+	 * Writes the queued writes in batches of the batch size.
+	 *
+	 * @return the keys of the writes whose batch has failed
+	 */
+	@Nonnull
+	private List<K> writeBatches(@Nonnull Connection connection, @Nonnull String query, @Nonnull Map<K, WriteBehindQueue.Write<T>> writes, boolean delete) {
+		List<K> failed = new ArrayList<>();
+		List<Map.Entry<K, WriteBehindQueue.Write<T>>> entries = new ArrayList<>(writes.entrySet());
+		for (int from = 0; from < entries.size(); from += getBatchSize()) {
+			List<Map.Entry<K, WriteBehindQueue.Write<T>>> chunk = entries.subList(from, Math.min(entries.size(), from + getBatchSize()));
+			try {
+				writeBatch(connection, query, chunk.stream().map(entry -> entry.getValue().getData()).toList(), delete);
+			} catch (SQLException e) {
+				Logger.severe(plugin, "SqlStorage has failed to write a batch of " + chunk.size() + " queued writes:", e);
+				chunk.forEach(entry -> failed.add(entry.getKey()));
+			}
+		}
+		return failed;
+	}
+
+	/**
+	 * Writes the data with a single batch of the specified statement in its own transaction.
+	 *
+	 * @param connection the database connection
+	 * @param query the save or delete statement
+	 * @param data the data to write
+	 * @param delete whether the data is being deleted
+	 */
+	private void writeBatch(@Nonnull Connection connection, @Nonnull String query, @Nonnull List<T> data, boolean delete) throws SQLException {
+		if (data.isEmpty()) {
+			return;
+		}
+
+		boolean autoCommit = connection.getAutoCommit();
+		connection.setAutoCommit(false);
+		try (PreparedStatement ps = prepare(connection, query)) {
+			for (T element : data) {
+				if (delete) {
+					bindDelete(ps, element);
+				} else {
+					bindSave(ps, element);
+				}
+				ps.addBatch();
+			}
+			ps.executeBatch();
+			connection.commit();
+		} catch (SQLException e) {
+			connection.rollback();
+			throw e;
+		} finally {
+			connection.setAutoCommit(autoCommit);
+		}
+	}
+}
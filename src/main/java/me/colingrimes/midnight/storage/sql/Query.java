@@ -0,0 +1,251 @@
+package me.colingrimes.midnight.storage.sql;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * An immutable SQL query that remembers its dialect-specific text.
+ * <p>
+ * Queries are written with single-quoted identifiers like every other statement in {@link SqlStorage}, and are
+ * converted by the statement processor of the connection provider the first time they are prepared. Queries are
+ * meant to be created once and kept in a constant, which removes all string work from preparing them.
+ * <pre>
+ * private static final Query SELECT_PLAYER = Query.select("players").columns("name", "kills").where("uuid").build();
+ * </pre>
+ */
+public final class Query {
+
+	private final String raw;
+	private final int parameters;
+	private volatile Processed processed;
+
+	/**
+	 * Creates a query from the raw SQL.
+	 *
+	 * @param raw the raw SQL with single-quoted identifiers
+	 * @return the query
+	 */
+	@Nonnull
+	public static Query of(@Nonnull String raw) {
+		return new Query(raw);
+	}
+
+	/**
+	 * Starts building a {@code SELECT} query. If no columns are set, every column is selected.
+	 *
+	 * @param table the table to select from
+	 * @return the query builder object
+	 */
+	@Nonnull
+	public static Builder select(@Nonnull String table) {
+		return new Builder(Kind.SELECT, table);
+	}
+
+	/**
+	 * Starts building an {@code INSERT} query with a parameter for every column.
+	 *
+	 * @param table the table to insert into
+	 * @return the query builder object
+	 */
+	@Nonnull
+	public static Builder insert(@Nonnull String table) {
+		return new Builder(Kind.INSERT, table);
+	}
+
+	/**
+	 * Starts building an {@code UPDATE} query that sets a parameter for every column.
+	 *
+	 * @param table the table to update
+	 * @return the query builder object
+	 */
+	@Nonnull
+	public static Builder update(@Nonnull String table) {
+		return new Builder(Kind.UPDATE, table);
+	}
+
+	/**
+	 * Starts building a {@code DELETE} query.
+	 *
+	 * @param table the table to delete from
+	 * @return the query builder object
+	 */
+	@Nonnull
+	public static Builder delete(@Nonnull String table) {
+		return new Builder(Kind.DELETE, table);
+	}
+
+	private Query(@Nonnull String raw) {
+		this.raw = raw;
+		this.parameters = (int) raw.chars().filter(c -> c == '?').count();
+	}
+
+	/**
+	 * Gets the raw SQL of the query.
+	 *
+	 * @return the raw SQL
+	 */
+	@Nonnull
+	public String getRaw() {
+		return raw;
+	}
+
+	/**
+	 * Gets the amount of parameters in the query.
+	 *
+	 * @return the amount of parameters
+	 */
+	public int getParameters() {
+		return parameters;
+	}
+
+	/**
+	 * Gets the SQL of the query converted by the statement processor.
+	 * The result is remembered, so the processor only runs again if a different processor is used.
+	 *
+	 * @param processor the statement processor
+	 * @return the processed SQL
+	 */
+	@Nonnull
+	public String process(@Nonnull Function<String, String> processor) {
+		Processed current = processed;
+		if (current == null || current.processor != processor) {
+			current = new Processed(processor, processor.apply(raw));
+			processed = current;
+		}
+		return current.sql;
+	}
+
+	@Nonnull
+	@Override
+	public String toString() {
+		return raw;
+	}
+
+	private static class Processed {
+		final Function<String, String> processor;
+		final String sql;
+
+		Processed(@Nonnull Function<String, String> processor, @Nonnull String sql) {
+			this.processor = processor;
+			this.sql = sql;
+		}
+	}
+
+	private enum Kind {
+		SELECT, INSERT, UPDATE, DELETE
+	}
+
+	/**
+	 * Provides a simple way to build {@link Query} objects.
+	 */
+	public static class Builder {
+
+		private final Kind kind;
+		private final String table;
+		private final List<String> columns = new ArrayList<>();
+		private final List<String> where = new ArrayList<>();
+		private String orderBy;
+		private int limit = -1;
+
+		private Builder(@Nonnull Kind kind, @Nonnull String table) {
+			this.kind = kind;
+			this.table = table;
+		}
+
+		/**
+		 * Adds the columns to select, insert or update.
+		 *
+		 * @param columns the columns
+		 * @return the query builder object
+		 */
+		@Nonnull
+		public Builder columns(@Nonnull String... columns) {
+			this.columns.addAll(Arrays.asList(columns));
+			return this;
+		}
+
+		/**
+		 * Adds the columns that must be equal to a parameter, joined with {@code AND}.
+		 *
+		 * @param columns the columns to filter by
+		 * @return the query builder object
+		 */
+		@Nonnull
+		public Builder where(@Nonnull String... columns) {
+			this.where.addAll(Arrays.asList(columns));
+			return this;
+		}
+
+		/**
+		 * Orders the selected rows by the column.
+		 *
+		 * @param column the column to order by
+		 * @param descending whether the rows are in descending order
+		 * @return the query builder object
+		 */
+		@Nonnull
+		public Builder orderBy(@Nonnull String column, boolean descending) {
+			this.orderBy = quote(column) + (descending ? " DESC" : " ASC");
+			return this;
+		}
+
+		/**
+		 * Limits the amount of selected rows.
+		 *
+		 * @param limit the maximum amount of rows
+		 * @return the query builder object
+		 */
+		@Nonnull
+		public Builder limit(int limit) {
+			this.limit = limit;
+			return this;
+		}
+
+		/**
+		 * Builds the {@link Query} object.
+		 *
+		 * @return the query
+		 */
+		@Nonnull
+		public Query build() {
+			if ((kind == Kind.INSERT || kind == Kind.UPDATE) && columns.isEmpty()) {
+				throw new IllegalStateException(kind + " queries require at least one column.");
+			}
+
+			StringBuilder sql = new StringBuilder();
+			switch (kind) {
+				case SELECT -> sql.append("SELECT ").append(columns.isEmpty() ? "*" : join(columns, ", ", "")).append(" FROM ").append(quote(table));
+				case INSERT -> sql.append("INSERT INTO ").append(quote(table))
+						.append(" (").append(join(columns, ", ", "")).append(") VALUES (")
+						.append(String.join(", ", columns.stream().map(c -> "?").toList())).append(")");
+				case UPDATE -> sql.append("UPDATE ").append(quote(table)).append(" SET ").append(join(columns, ", ", " = ?"));
+				case DELETE -> sql.append("DELETE FROM ").append(quote(table));
+			}
+
+			if (!where.isEmpty()) {
+				sql.append(" WHERE ").append(join(where, " AND ", " = ?"));
+			}
+			if (orderBy != null) {
+				sql.append(" ORDER BY ").append(orderBy);
+			}
+			if (limit >= 0) {
+				sql.append(" LIMIT ").append(limit);
+			}
+			return new Query(sql.toString());
+		}
+
+		@Nonnull
+		private static String join(@Nonnull List<String> columns, @Nonnull String delimiter, @Nonnull String suffix) {
+			return columns.stream().map(column -> quote(column) + suffix).collect(Collectors.joining(delimiter));
+		}
+
+		@Nonnull
+		private static String quote(@Nonnull String identifier) {
+			return "'" + identifier + "'";
+		}
+	}
+}
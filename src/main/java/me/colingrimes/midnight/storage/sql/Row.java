@@ -0,0 +1,115 @@
+package me.colingrimes.midnight.storage.sql;
+
+import com.google.gson.JsonElement;
+import me.colingrimes.midnight.serialize.Serializable;
+import me.colingrimes.midnight.storage.database.DatabaseType;
+import me.colingrimes.midnight.storage.database.DatabaseUtils;
+import me.colingrimes.midnight.storage.database.UUIDFormat;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A view of the current row of a {@link ResultSet} that reads values in a way that works for all database types.
+ * <p>
+ * The same row object is reused for every row of a query, so it should never be kept after mapping.
+ */
+public final class Row {
+
+	private final DatabaseType type;
+	private final UUIDFormat uuidFormat;
+	private final ResultSet rs;
+
+	Row(@Nonnull DatabaseType type, @Nonnull UUIDFormat uuidFormat, @Nonnull ResultSet rs) {
+		this.type = type;
+		this.uuidFormat = uuidFormat;
+		this.rs = rs;
+	}
+
+	/**
+	 * Gets the database type the row was read from.
+	 *
+	 * @return the database type
+	 */
+	@Nonnull
+	public DatabaseType getType() {
+		return type;
+	}
+
+	/**
+	 * Gets the underlying result set, positioned at the current row.
+	 *
+	 * @return the result set
+	 */
+	@Nonnull
+	public ResultSet getResultSet() {
+		return rs;
+	}
+
+	@Nullable
+	public String getString(@Nonnull String column) throws SQLException {
+		return rs.getString(column);
+	}
+
+	public int getInt(@Nonnull String column) throws SQLException {
+		return rs.getInt(column);
+	}
+
+	public long getLong(@Nonnull String column) throws SQLException {
+		return rs.getLong(column);
+	}
+
+	public double getDouble(@Nonnull String column) throws SQLException {
+		return rs.getDouble(column);
+	}
+
+	public boolean getBoolean(@Nonnull String column) throws SQLException {
+		return rs.getBoolean(column);
+	}
+
+	/**
+	 * Gets a UUID stored in the {@link UUIDFormat} of the storage.
+	 *
+	 * @see DatabaseUtils#getUUID(DatabaseType, UUIDFormat, ResultSet, String)
+	 */
+	@Nullable
+	public UUID getUUID(@Nonnull String column) throws SQLException {
+		return DatabaseUtils.getUUID(type, uuidFormat, rs, column);
+	}
+
+	/**
+	 * @see DatabaseUtils#getTimestamp(DatabaseType, ResultSet, String)
+	 */
+	@Nullable
+	public Instant getTimestamp(@Nonnull String column) throws SQLException {
+		return DatabaseUtils.getTimestamp(type, rs, column);
+	}
+
+	/**
+	 * @see DatabaseUtils#getJson(DatabaseType, ResultSet, String)
+	 */
+	@Nullable
+	public JsonElement getJson(@Nonnull String column) throws SQLException {
+		return DatabaseUtils.getJson(type, rs, column);
+	}
+
+	/**
+	 * @see DatabaseUtils#getJson(DatabaseType, ResultSet, String, Class)
+	 */
+	@Nullable
+	public <T extends Serializable> T getJson(@Nonnull String column, @Nonnull Class<T> clazz) throws SQLException {
+		return DatabaseUtils.getJson(type, rs, column, clazz);
+	}
+
+	/**
+	 * @see DatabaseUtils#getBinary(DatabaseType, ResultSet, String, Class)
+	 */
+	@Nullable
+	public <T extends Serializable> T getBinary(@Nonnull String column, @Nonnull Class<T> clazz) throws SQLException {
+		return DatabaseUtils.getBinary(type, rs, column, clazz);
+	}
+}
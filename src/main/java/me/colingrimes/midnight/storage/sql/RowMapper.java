@@ -0,0 +1,22 @@
+package me.colingrimes.midnight.storage.sql;
+
+import javax.annotation.Nonnull;
+import java.sql.SQLException;
+
+/**
+ * Maps the current row of a query to an object.
+ *
+ * @param <R> the type of object each row is mapped to
+ */
+@FunctionalInterface
+public interface RowMapper<R> {
+
+	/**
+	 * Maps the current row to an object. The row is only valid until this method returns.
+	 *
+	 * @param row the current row
+	 * @return the mapped object
+	 */
+	@Nonnull
+	R map(@Nonnull Row row) throws SQLException;
+}
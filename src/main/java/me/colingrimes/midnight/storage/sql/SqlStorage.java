@@ -1,30 +1,67 @@
 package me.colingrimes.midnight.storage.sql;
 
 import me.colingrimes.midnight.Midnight;
+import me.colingrimes.midnight.scheduler.Scheduler;
+import me.colingrimes.midnight.scheduler.implementation.VirtualScheduler;
 import me.colingrimes.midnight.storage.Storage;
 import me.colingrimes.midnight.storage.database.DatabaseType;
 import me.colingrimes.midnight.storage.sql.connection.ConnectionProvider;
+import me.colingrimes.midnight.storage.sql.migration.Migration;
+import me.colingrimes.midnight.storage.sql.migration.MigrationRunner;
+import me.colingrimes.midnight.storage.sql.migration.SqlMigration;
 import me.colingrimes.midnight.storage.database.DatabaseUtils;
+import me.colingrimes.midnight.storage.database.UUIDFormat;
 import me.colingrimes.midnight.util.io.Logger;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * An abstract class representing an SQL-based storage.
+ * <p>
+ * Storages whose data is identified by a key can extend {@link KeyedSqlStorage} instead, which adds queued writes
+ * that are written in JDBC batches and the bulk loads of {@link me.colingrimes.midnight.storage.AsyncStorage}.
+ *
  * @param <T> the type of data being stored
  */
 public abstract class SqlStorage<T> implements Storage<T> {
 
-    private final Midnight plugin;
+    private static final int MAX_PROCESSED_QUERIES = 1024;
+    private static final String SCHEMA_MIGRATIONS = "schema";
+
+    protected final Midnight plugin;
     private final String versionTable;
+    private final MigrationRunner migrationRunner;
     protected final ConnectionProvider provider;
     protected final DatabaseType type;
     protected final Function<String, String> processor;
+    private final Scheduler scheduler;
+
+    private final Map<String, String> processedQueries = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+            return size() > MAX_PROCESSED_QUERIES;
+        }
+    };
+    private int batchSize = 500;
+    private int fetchSize = 1000;
+    private UUIDFormat uuidFormat = UUIDFormat.STRING;
 
     public SqlStorage(@Nonnull Midnight plugin, @Nonnull ConnectionProvider connectionProvider) {
         this.plugin = plugin;
@@ -32,6 +69,11 @@ public abstract class SqlStorage<T> implements Storage<T> {
         this.provider = connectionProvider;
         this.type = connectionProvider.getType();
         this.processor = connectionProvider.getStatementProcessor();
+        this.migrationRunner = new MigrationRunner(plugin, plugin.getName().toLowerCase() + "_migrations", processor);
+
+        // Async tasks wait on their virtual thread for a free connection instead of piling up in the pool.
+        int connections = connectionProvider.getMaximumConnections();
+        this.scheduler = connections > 0 ? VirtualScheduler.limited(connections) : new VirtualScheduler();
     }
 
     @Override
@@ -39,7 +81,7 @@ public abstract class SqlStorage<T> implements Storage<T> {
         if (provider.isInitialized()) {
             // Runs any migrations the storage might have.
             try (Connection c = provider.getConnection()) {
-                migrate(c, getVersion(c));
+                runMigrations(c);
             }
             return;
         }
@@ -55,23 +97,274 @@ public abstract class SqlStorage<T> implements Storage<T> {
             }
 
             Logger.log(plugin, "Schema has been executed on the " + type.getName() + " database type.");
-            migrate(c, getVersion(c));
+            runMigrations(c);
         }
     }
 
     @Override
     public final void shutdown() {
+        beforeShutdown();
         provider.shutdown();
     }
 
+    /**
+     * Called by {@link #shutdown()} before the connection provider is shut down.
+     */
+    void beforeShutdown() {}
+
+    /**
+     * Sets the amount of statements that are written per batch. This should be called in the constructor of the storage.
+     *
+     * @param batchSize the amount of statements per batch
+     */
+    protected void setBatchSize(int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive.");
+        }
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Gets the amount of statements that are written per batch.
+     *
+     * @return the batch size
+     */
+    protected int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Sets how many rows are fetched from the database at a time when streaming results.
+     * This is a hint on MySQL, which always streams row by row.
+     *
+     * @param fetchSize the amount of rows per fetch
+     */
+    protected void setFetchSize(int fetchSize) {
+        if (fetchSize <= 0) {
+            throw new IllegalArgumentException("Fetch size must be positive.");
+        }
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Sets the format that UUIDs of this storage are stored in on MySQL and SQLite. This should be called in the constructor of the storage.
+     * <p>
+     * Existing tables can be converted to a new format with {@link #migrateUUIDs(Connection, String, String, UUIDFormat, UUIDFormat)}.
+     *
+     * @param uuidFormat the uuid format
+     */
+    protected void setUUIDFormat(@Nonnull UUIDFormat uuidFormat) {
+        this.uuidFormat = uuidFormat;
+    }
+
+    /**
+     * Gets the format that UUIDs of this storage are stored in.
+     *
+     * @return the uuid format
+     */
+    @Nonnull
+    public UUIDFormat getUUIDFormat() {
+        return uuidFormat;
+    }
+
+    /**
+     * Gets the scheduler that runs the asynchronous work of this storage.
+     * At most {@link ConnectionProvider#getMaximumConnections()} of its tasks run at the same time.
+     *
+     * @return the virtual thread scheduler of the storage
+     */
+    @Nonnull
+    protected Scheduler getScheduler() {
+        return scheduler;
+    }
+
+    /**
+     * Gets a UUID stored in the {@link UUIDFormat} of this storage.
+     *
+     * @param rs the result set
+     * @param column the column name
+     * @return the uuid
+     */
+    @Nullable
+    protected UUID getUUID(@Nonnull ResultSet rs, @Nonnull String column) throws SQLException {
+        return DatabaseUtils.getUUID(type, uuidFormat, rs, column);
+    }
+
+    /**
+     * Sets a UUID in the {@link UUIDFormat} of this storage.
+     *
+     * @param ps the statement
+     * @param index the parameter index
+     * @param uuid the uuid
+     */
+    protected void setUUID(@Nonnull PreparedStatement ps, int index, @Nullable UUID uuid) throws SQLException {
+        DatabaseUtils.setUUID(type, uuidFormat, ps, index, uuid);
+    }
+
+    /**
+     * Streams the rows of the query asynchronously, passing each mapped row to the consumer as soon as it is read.
+     * Rows are fetched in chunks of the fetch size, so memory use does not depend on the size of the result.
+     *
+     * @param query the query
+     * @param mapper the row mapper
+     * @param consumer the consumer of each mapped row, called on the loading thread
+     * @param parameters the parameters of the query
+     * @return a future that will be completed once every row is consumed
+     * @param <R> the type of each mapped row
+     */
+    @Nonnull
+    protected <R> CompletableFuture<Void> query(@Nonnull Query query, @Nonnull RowMapper<R> mapper, @Nonnull Consumer<R> consumer, @Nonnull Object... parameters) {
+        return scheduler.run(() -> {
+            try (Stream<R> stream = stream(query, mapper, parameters)) {
+                stream.forEach(consumer);
+            }
+        });
+    }
+
+    /**
+     * Streams the rows of the query, reading rows from the database only as the stream is consumed.
+     * <p>
+     * The stream holds a read connection until it is closed, so it must always be used in a try-with-resources block.
+     * This method blocks and should not be called on the main thread. Any {@link SQLException} thrown while reading
+     * is rethrown as a {@link RuntimeException}.
+     *
+     * @param query the query
+     * @param mapper the row mapper
+     * @param parameters the parameters of the query
+     * @return the stream of mapped rows
+     * @param <R> the type of each mapped row
+     */
+    @Nonnull
+    protected <R> Stream<R> stream(@Nonnull Query query, @Nonnull RowMapper<R> mapper, @Nonnull Object... parameters) throws SQLException {
+        Connection connection = provider.getReadConnection();
+        boolean autoCommit = connection.getAutoCommit();
+        PreparedStatement ps = null;
+        ResultSet rs;
+        try {
+            ps = prepare(connection, query, parameters);
+            configureStreaming(connection, ps);
+            rs = ps.executeQuery();
+        } catch (SQLException | RuntimeException e) {
+            closeStream(connection, autoCommit, ps, null);
+            throw e;
+        }
+
+        Row row = new Row(type, uuidFormat, rs);
+        PreparedStatement statement = ps;
+        Spliterator<R> spliterator = new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super R> action) {
+                try {
+                    if (!rs.next()) {
+                        return false;
+                    }
+                    action.accept(mapper.map(row));
+                    return true;
+                } catch (SQLException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        };
+        return StreamSupport.stream(spliterator, false).onClose(() -> closeStream(connection, autoCommit, statement, rs));
+    }
+
+    /**
+     * Gets the versioned migrations of the storage, which are applied by {@link Storage#init()} once each.
+     * <p>
+     * The {@code schema/<database>/V<version>.sql} resources of the plugin are shared by all of its storages and
+     * are always applied first. The migrations returned here belong to this storage only and are recorded by its
+     * {@link #getStorageName()}, so their versions do not collide with those of other storages.
+     *
+     * @return the migrations of the storage
+     * @see MigrationRunner
+     */
+    @Nonnull
+    protected List<Migration> getMigrations() {
+        return List.of();
+    }
+
+    /**
+     * Gets the name that the {@link #getMigrations()} of this storage are recorded by.
+     * This should be overridden if the class of the storage might be renamed, as its migrations would be applied again.
+     *
+     * @return the name of the storage
+     */
+    @Nonnull
+    protected String getStorageName() {
+        String name = getClass().getSimpleName();
+        return name.isEmpty() ? getClass().getName() : name;
+    }
+
     /**
      * Runs optional migration logic after the {@link Storage#init()} method is called.
+     * The versioned migrations of {@link #getMigrations()} are applied afterward.
+     * The legacy version table is only read if this method is overridden.
      *
      * @param connection the database connection
      * @param version the current database version of the plugin
+     * @deprecated use {@link #getMigrations()}, which applies each step once in its own transaction
      */
+    @Deprecated
     protected void migrate(@Nonnull Connection connection, int version) throws SQLException {}
 
+    /**
+     * Converts every UUID in the column from one {@link UUIDFormat} to another, and is meant to be called from a {@link Migration}.
+     * <p>
+     * On MySQL the column is widened to {@code VARBINARY(36)} during the conversion and then changed to {@code CHAR(36)}
+     * or {@code BINARY(16)}, keeping its indexes and nullability. SQLite stores the converted values in the existing column,
+     * as its columns accept any type. Columns of other tables that reference this column must be converted as well.
+     * Nothing is done on PostgreSQL, which always uses its native UUID type.
+     *
+     * @param connection the database connection
+     * @param table the table name
+     * @param column the uuid column
+     * @param from the current format of the column
+     * @param to the new format of the column
+     * @return the amount of converted rows
+     */
+    protected int migrateUUIDs(@Nonnull Connection connection, @Nonnull String table, @Nonnull String column, @Nonnull UUIDFormat from, @Nonnull UUIDFormat to) throws SQLException {
+        if (type == DatabaseType.POSTGRESQL || from == to) {
+            return 0;
+        }
+
+        String nullability = "";
+        if (type == DatabaseType.MYSQL) {
+            try (ResultSet rs = connection.getMetaData().getColumns(connection.getCatalog(), null, table, column)) {
+                nullability = rs.next() && "NO".equals(rs.getString("IS_NULLABLE")) ? " NOT NULL" : "";
+            }
+            try (PreparedStatement ps = prepare(connection, String.format("ALTER TABLE '%s' MODIFY '%s' VARBINARY(36)%s", table, column, nullability))) {
+                ps.execute();
+            }
+        }
+
+        List<UUID> uuids = new ArrayList<>();
+        try (PreparedStatement ps = prepare(connection, String.format("SELECT '%s' FROM '%s' WHERE '%s' IS NOT NULL", column, table, column)); ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                uuids.add(DatabaseUtils.getUUID(type, from, rs, column));
+            }
+        }
+
+        String update = String.format("UPDATE '%s' SET '%s' = ? WHERE '%s' = ?", table, column, column);
+        try (PreparedStatement ps = prepare(connection, update)) {
+            for (int i = 0; i < uuids.size(); i++) {
+                DatabaseUtils.setUUID(type, to, ps, 1, uuids.get(i));
+                DatabaseUtils.setUUID(type, from, ps, 2, uuids.get(i));
+                ps.addBatch();
+                if ((i + 1) % batchSize == 0 || i + 1 == uuids.size()) {
+                    ps.executeBatch();
+                }
+            }
+        }
+
+        if (type == DatabaseType.MYSQL) {
+            String definition = to.isBinary() ? "BINARY(16)" : "CHAR(36)";
+            try (PreparedStatement ps = prepare(connection, String.format("ALTER TABLE '%s' MODIFY '%s' %s%s", table, column, definition, nullability))) {
+                ps.execute();
+            }
+        }
+        return uuids.size();
+    }
+
     /**
      * Gets the current database version of the plugin.
      *
@@ -82,17 +375,12 @@ public abstract class SqlStorage<T> implements Storage<T> {
         String versionCreate = String.format("CREATE TABLE IF NOT EXISTS '%s' (version INTEGER)", versionTable);
         String versionSelect = String.format("SELECT version FROM '%s' LIMIT 1", versionTable);
 
-        // Creates the version table.
-        try (PreparedStatement ps = prepare(connection, versionCreate)) {
-            ps.execute();
-        }
-
-        // Gets the version number.
-        try (PreparedStatement ps = prepare(connection, versionSelect)) {
-            try (ResultSet rs = ps.executeQuery()) {
-                if (rs.next()) {
-                    return rs.getInt("version");
-                }
+        // Gets the version number, the version table only has to be created the first time.
+        try (PreparedStatement ps = prepare(connection, versionSelect); ResultSet rs = ps.executeQuery()) {
+            return rs.next() ? rs.getInt("version") : 1;
+        } catch (SQLException e) {
+            try (PreparedStatement ps = prepare(connection, versionCreate)) {
+                ps.execute();
             }
         }
 
@@ -110,24 +398,62 @@ public abstract class SqlStorage<T> implements Storage<T> {
         String versionDelete = String.format("DELETE FROM '%s'", versionTable);
         String versionSet = String.format("INSERT INTO '%s' (version) VALUES (?)", versionTable);
 
-        // Deletes the old version.
-        try (PreparedStatement ps = prepare(connection, versionDelete)) {
-            ps.executeUpdate();
+        // Replaces the old version in one transaction, unless the caller already started one.
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try {
+            try (PreparedStatement ps = prepare(connection, versionDelete)) {
+                ps.executeUpdate();
+            }
+            try (PreparedStatement ps = prepare(connection, versionSet)) {
+                ps.setInt(1, version);
+                ps.executeUpdate();
+            }
+            if (autoCommit) {
+                connection.commit();
+            }
+        } catch (SQLException e) {
+            if (autoCommit) {
+                connection.rollback();
+            }
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
         }
 
-        // Sets the new version.
-        try (PreparedStatement ps = prepare(connection, versionSet)) {
-            ps.setInt(1, version);
-            ps.executeUpdate();
+        return version;
+    }
+
+    private void runMigrations(@Nonnull Connection connection) throws SQLException {
+        if (overridesMigrate()) {
+            migrate(connection, getVersion(connection));
         }
+        migrationRunner.run(connection, SCHEMA_MIGRATIONS, SqlMigration.load(plugin, type));
+        migrationRunner.run(connection, getStorageName(), getMigrations());
+    }
 
-        return version;
+    /**
+     * Checks if a subclass overrides the deprecated {@link #migrate(Connection, int)}.
+     *
+     * @return true if the legacy migration logic should run
+     */
+    private boolean overridesMigrate() {
+        for (Class<?> clazz = getClass(); clazz != SqlStorage.class; clazz = clazz.getSuperclass()) {
+            try {
+                clazz.getDeclaredMethod("migrate", Connection.class, int.class);
+                return true;
+            } catch (NoSuchMethodException ignored) {}
+        }
+        return false;
     }
 
     /**
      * Creates a {@link PreparedStatement} from the given query.
      * <p>
      * Uses the {@link ConnectionProvider#getStatementProcessor()} to convert each statement to the correct format for its database type.
+     * The converted text of the {@value #MAX_PROCESSED_QUERIES} most recently used queries is cached by the raw query,
+     * so queries should use parameters instead of embedding values that change between calls.
+     * Executions of the statement are recorded in the {@link ConnectionProvider#getMetrics()} if statement timing is enabled.
      *
      * @param connection the connection
      * @param query the query
@@ -135,6 +461,81 @@ public abstract class SqlStorage<T> implements Storage<T> {
      */
     @Nonnull
     protected PreparedStatement prepare(@Nonnull Connection connection, @Nonnull String query) throws SQLException {
-        return connection.prepareStatement(processor.apply(query));
+        String sql;
+        synchronized (processedQueries) {
+            sql = processedQueries.computeIfAbsent(query, processor);
+        }
+        return provider.getMetrics().timed(connection.prepareStatement(sql), sql);
+    }
+
+    /**
+     * Creates a {@link PreparedStatement} from the given query and sets its parameters in order.
+     * The dialect-specific text of the query is computed once and reused by every later call.
+     * UUIDs are set in the {@link #getUUIDFormat()} of the storage, any other parameter is set as an object.
+     *
+     * @param connection the connection
+     * @param query the query
+     * @param parameters the parameters of the query
+     * @return the prepared statement
+     */
+    @Nonnull
+    protected PreparedStatement prepare(@Nonnull Connection connection, @Nonnull Query query, @Nonnull Object... parameters) throws SQLException {
+        if (parameters.length > query.getParameters()) {
+            throw new IllegalArgumentException("Query has " + query.getParameters() + " parameters, but " + parameters.length + " were given.");
+        }
+
+        String sql = query.process(processor);
+        PreparedStatement statement = provider.getMetrics().timed(connection.prepareStatement(sql), sql);
+        for (int i = 0; i < parameters.length; i++) {
+            if (parameters[i] instanceof UUID uuid) {
+                setUUID(statement, i + 1, uuid);
+            } else {
+                statement.setObject(i + 1, parameters[i]);
+            }
+        }
+        return statement;
+    }
+
+    /**
+     * Configures the statement so that its results are streamed instead of loaded into memory at once.
+     * <p>
+     * PostgreSQL only uses a cursor inside a transaction, and MySQL only streams with a fetch size of {@link Integer#MIN_VALUE}.
+     * SQLite always steps through its results one row at a time.
+     *
+     * @param connection the connection of the statement
+     * @param ps the statement
+     */
+    private void configureStreaming(@Nonnull Connection connection, @Nonnull PreparedStatement ps) throws SQLException {
+        switch (type) {
+            case POSTGRESQL -> {
+                connection.setAutoCommit(false);
+                ps.setFetchSize(fetchSize);
+            }
+            case MYSQL -> ps.setFetchSize(Integer.MIN_VALUE);
+            case SQLITE -> ps.setFetchSize(fetchSize);
+        }
+    }
+
+    private void restoreAutoCommit(@Nonnull Connection connection, boolean autoCommit) {
+        try {
+            if (connection.getAutoCommit() != autoCommit) {
+                connection.commit();
+                connection.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            Logger.severe(plugin, "SqlStorage has failed to end a streaming transaction:", e);
+        }
+    }
+
+    private void closeStream(@Nonnull Connection connection, boolean autoCommit, @Nullable PreparedStatement ps, @Nullable ResultSet rs) {
+        try (connection; ps; rs) {
+            // The result set must be closed before the transaction of a PostgreSQL cursor ends.
+            if (rs != null) {
+                rs.close();
+            }
+            restoreAutoCommit(connection, autoCommit);
+        } catch (SQLException e) {
+            Logger.severe(plugin, "SqlStorage has failed to close a result stream:", e);
+        }
     }
 }
@@ -2,7 +2,9 @@ package me.colingrimes.midnight.storage.sql.connection;
 
 import me.colingrimes.midnight.Midnight;
 import me.colingrimes.midnight.storage.database.DatabaseCredentials;
+import me.colingrimes.midnight.storage.database.PoolSettings;
 import me.colingrimes.midnight.storage.sql.connection.file.SqliteConnectionProvider;
+import me.colingrimes.midnight.storage.sql.connection.file.WalSqliteConnectionProvider;
 import me.colingrimes.midnight.storage.sql.connection.hikari.MySqlConnectionProvider;
 import me.colingrimes.midnight.storage.sql.connection.hikari.PostgreSqlConnectionProvider;
 
@@ -18,6 +20,9 @@ public class ConnectionFactory {
 
 	/**
 	 * Creates a new connection provider based on the given credentials.
+	 * <p>
+	 * SQLite databases use a {@link SqliteConnectionProvider}, unless {@link PoolSettings#isSqliteWal()} is enabled.
+	 * In that case they use a {@link WalSqliteConnectionProvider}, with one read connection less than the maximum pool size (at most 4).
 	 *
 	 * @param credentials the credentials to use
 	 * @return the connection provider
@@ -27,7 +32,18 @@ public class ConnectionFactory {
 		return switch (credentials.getType()) {
 			case POSTGRESQL -> new PostgreSqlConnectionProvider(credentials);
 			case MYSQL -> new MySqlConnectionProvider(credentials);
-			case SQLITE -> new SqliteConnectionProvider(plugin, credentials.getDatabase());
+			case SQLITE -> createSqliteConnection(credentials);
 		};
 	}
+
+	@Nonnull
+	private ConnectionProvider createSqliteConnection(@Nonnull DatabaseCredentials credentials) {
+		PoolSettings pool = credentials.getPool();
+		if (!pool.isSqliteWal()) {
+			return new SqliteConnectionProvider(plugin, credentials.getDatabase());
+		}
+
+		int readConnections = Math.max(1, Math.min(4, pool.getMaximumPoolSize() - 1));
+		return new WalSqliteConnectionProvider(plugin, credentials.getDatabase(), readConnections, pool.getConnectionTimeout());
+	}
 }
\ No newline at end of file
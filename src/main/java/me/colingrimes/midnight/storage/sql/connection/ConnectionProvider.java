@@ -1,6 +1,7 @@
 package me.colingrimes.midnight.storage.sql.connection;
 
 import me.colingrimes.midnight.storage.database.DatabaseType;
+import me.colingrimes.midnight.storage.sql.connection.metrics.ConnectionMetrics;
 
 import javax.annotation.Nonnull;
 import javax.sql.DataSource;
@@ -40,6 +41,18 @@ public interface ConnectionProvider {
     @Nonnull
     Connection getConnection() throws SQLException;
 
+    /**
+     * Gets a connection that is only used for reading.
+     * Providers that separate readers from writers can hand out these connections concurrently with writes.
+     *
+     * @return a Connection instance for reading
+     * @throws SQLException if an error occurs while getting the connection
+     */
+    @Nonnull
+    default Connection getReadConnection() throws SQLException {
+        return getConnection();
+    }
+
     /**
      * Gets the {@link DataSource} associated with the connection provider.
      *
@@ -62,4 +75,51 @@ public interface ConnectionProvider {
      * @return true if the provider has been initialized
      */
     boolean isInitialized();
+
+    /**
+     * Gets the metrics of the connection provider.
+     * Providers that do not collect metrics return {@link ConnectionMetrics#disabled()}.
+     *
+     * @return the connection metrics
+     */
+    @Nonnull
+    default ConnectionMetrics getMetrics() {
+        return ConnectionMetrics.disabled();
+    }
+
+    /**
+     * Gets the amount of connections that are currently in use.
+     *
+     * @return the active connections, or -1 if the provider is not pooled
+     */
+    default int getActiveConnections() {
+        return -1;
+    }
+
+    /**
+     * Gets the amount of connections that are idle in the pool.
+     *
+     * @return the idle connections, or -1 if the provider is not pooled
+     */
+    default int getIdleConnections() {
+        return -1;
+    }
+
+    /**
+     * Gets the amount of threads that are waiting for a connection from the pool.
+     *
+     * @return the waiting threads, or -1 if the provider is not pooled
+     */
+    default int getWaitingThreads() {
+        return -1;
+    }
+
+    /**
+     * Gets the maximum amount of connections the provider can hand out at the same time.
+     *
+     * @return the maximum connections, or -1 if the provider is not limited
+     */
+    default int getMaximumConnections() {
+        return -1;
+    }
 }
@@ -0,0 +1,272 @@
+package me.colingrimes.midnight.storage.sql.connection.file;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * A long-lived {@link Connection} of a pool, which is handed out through {@link #lease(Consumer)}.
+ * <p>
+ * Closing a leased connection hands it back to its pool instead, after rolling back any open transaction and
+ * restoring auto-commit. Statements prepared without extra options are kept open so that SQLite does not have
+ * to parse them again: closing one clears its parameters and keeps it for the next lease. If a statement is
+ * already in use, a new uncached statement is prepared instead. The least recently used statements are closed
+ * once the cache is full. Statements that are still open when the lease is closed are closed with it.
+ */
+final class PooledConnection {
+
+	private final Connection connection;
+	private final int maximumStatements;
+	private final Map<String, CachedStatement> statements = new LinkedHashMap<>(16, 0.75f, true);
+
+	/**
+	 * Creates a pooled connection.
+	 *
+	 * @param connection the connection
+	 * @param maximumStatements the maximum amount of cached statements
+	 */
+	PooledConnection(@Nonnull Connection connection, int maximumStatements) {
+		this.connection = connection;
+		this.maximumStatements = maximumStatements;
+	}
+
+	/**
+	 * Leases the connection until the returned connection is closed.
+	 *
+	 * @param release the action that hands the connection back to its pool
+	 * @return the leased connection
+	 */
+	@Nonnull
+	Connection lease(@Nonnull Consumer<PooledConnection> release) {
+		return (Connection) Proxy.newProxyInstance(
+				PooledConnection.class.getClassLoader(),
+				new Class<?>[] { Connection.class },
+				new Lease(release)
+		);
+	}
+
+	/**
+	 * Closes every cached statement and the connection itself.
+	 */
+	synchronized void close() {
+		for (CachedStatement cached : statements.values()) {
+			closeQuietly(cached.statement);
+		}
+		statements.clear();
+		try {
+			connection.close();
+		} catch (SQLException ignored) {}
+	}
+
+	/**
+	 * Gets a prepared statement for the SQL, reusing a cached statement if one is available.
+	 *
+	 * @param sql the SQL of the statement
+	 * @param lease the lease that the statement is handed out to
+	 * @return the prepared statement
+	 */
+	@Nonnull
+	private synchronized PreparedStatement prepare(@Nonnull String sql, @Nonnull Lease lease) throws SQLException {
+		CachedStatement cached = statements.get(sql);
+		if (cached != null && cached.inUse) {
+			return lease.track(connection.prepareStatement(sql), null);
+		}
+
+		if (cached == null || cached.statement.isClosed()) {
+			cached = new CachedStatement(connection.prepareStatement(sql));
+			statements.put(sql, cached);
+			evict();
+		}
+
+		cached.inUse = true;
+		return lease.track(cached.statement, cached);
+	}
+
+	private void evict() {
+		Iterator<CachedStatement> iterator = statements.values().iterator();
+		while (statements.size() > maximumStatements && iterator.hasNext()) {
+			CachedStatement cached = iterator.next();
+			iterator.remove();
+			cached.evicted = true;
+			if (!cached.inUse) {
+				closeQuietly(cached.statement);
+			}
+		}
+	}
+
+	private synchronized void release(@Nonnull CachedStatement cached) {
+		cached.inUse = false;
+		if (cached.evicted) {
+			closeQuietly(cached.statement);
+			return;
+		}
+
+		try {
+			cached.statement.clearParameters();
+			cached.statement.clearBatch();
+		} catch (SQLException e) {
+			statements.values().remove(cached);
+			closeQuietly(cached.statement);
+		}
+	}
+
+	private void reset() {
+		try {
+			if (!connection.getAutoCommit()) {
+				connection.rollback();
+				connection.setAutoCommit(true);
+			}
+		} catch (SQLException ignored) {
+			// A broken connection fails again on its next use, there is nothing else to reset.
+		}
+	}
+
+	private static void closeQuietly(@Nonnull PreparedStatement statement) {
+		try {
+			statement.close();
+		} catch (SQLException ignored) {}
+	}
+
+	private static Object delegate(@Nonnull Object target, @Nonnull Method method, Object[] args) throws Throwable {
+		try {
+			return method.invoke(target, args);
+		} catch (InvocationTargetException e) {
+			throw e.getCause();
+		}
+	}
+
+	private class Lease implements InvocationHandler {
+		final Consumer<PooledConnection> release;
+		final List<LeasedStatement> open = new ArrayList<>();
+		boolean released = false;
+
+		Lease(@Nonnull Consumer<PooledConnection> release) {
+			this.release = release;
+		}
+
+		/**
+		 * Hands out the statement until it or the lease is closed.
+		 *
+		 * @param statement the prepared statement
+		 * @param cached the cache entry of the statement, or null if it is not cached
+		 * @return the statement that is handed out
+		 */
+		@Nonnull
+		synchronized PreparedStatement track(@Nonnull PreparedStatement statement, @Nullable CachedStatement cached) {
+			LeasedStatement leased = new LeasedStatement(this, statement, cached);
+			open.add(leased);
+			return (PreparedStatement) Proxy.newProxyInstance(PooledConnection.class.getClassLoader(), new Class<?>[] { PreparedStatement.class }, leased);
+		}
+
+		synchronized void untrack(@Nonnull LeasedStatement leased) {
+			open.remove(leased);
+		}
+
+		@Override
+		public synchronized Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			switch (method.getName()) {
+				case "close" -> {
+					if (!released) {
+						released = true;
+						// Statements left open by the caller are released, so the cache can hand them out again.
+						for (LeasedStatement leased : new ArrayList<>(open)) {
+							leased.close();
+						}
+						reset();
+						release.accept(PooledConnection.this);
+					}
+					return null;
+				}
+				case "isClosed" -> {
+					return released || connection.isClosed();
+				}
+				case "equals" -> {
+					return proxy == args[0];
+				}
+				case "hashCode" -> {
+					return System.identityHashCode(proxy);
+				}
+			}
+
+			if (released) {
+				throw new SQLException("Connection has already been returned to the pool.");
+			}
+
+			if (method.getName().equals("prepareStatement") && args.length == 1) {
+				return prepare((String) args[0], this);
+			}
+			return delegate(connection, method, args);
+		}
+	}
+
+	private static class CachedStatement {
+		final PreparedStatement statement;
+		// Guarded by the pooled connection.
+		boolean inUse = false;
+		boolean evicted = false;
+
+		CachedStatement(@Nonnull PreparedStatement statement) {
+			this.statement = statement;
+		}
+	}
+
+	/**
+	 * A statement that has been handed out to a lease. Closing it releases a cached statement, or closes an uncached one.
+	 */
+	private class LeasedStatement implements InvocationHandler {
+		final Lease lease;
+		final PreparedStatement statement;
+		final CachedStatement cached;
+		boolean closed = false;
+
+		LeasedStatement(@Nonnull Lease lease, @Nonnull PreparedStatement statement, @Nullable CachedStatement cached) {
+			this.lease = lease;
+			this.statement = statement;
+			this.cached = cached;
+		}
+
+		void close() {
+			synchronized (this) {
+				if (closed) {
+					return;
+				}
+				closed = true;
+			}
+
+			lease.untrack(this);
+			if (cached != null) {
+				release(cached);
+			} else {
+				closeQuietly(statement);
+			}
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			switch (method.getName()) {
+				case "close" -> {
+					close();
+					return null;
+				}
+				case "isClosed" -> {
+					synchronized (this) {
+						return closed || statement.isClosed();
+					}
+				}
+			}
+			return delegate(statement, method, args);
+		}
+	}
+}
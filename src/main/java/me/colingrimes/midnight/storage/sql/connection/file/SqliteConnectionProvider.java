@@ -3,6 +3,7 @@ package me.colingrimes.midnight.storage.sql.connection.file;
 import me.colingrimes.midnight.Midnight;
 import me.colingrimes.midnight.storage.database.DatabaseType;
 import me.colingrimes.midnight.storage.sql.connection.ConnectionProvider;
+import me.colingrimes.midnight.storage.sql.connection.metrics.ConnectionMetrics;
 import org.sqlite.SQLiteDataSource;
 
 import javax.annotation.Nonnull;
@@ -17,6 +18,7 @@ public class SqliteConnectionProvider implements ConnectionProvider {
 
 	private final Midnight plugin;
 	private final String databaseName;
+	private final ConnectionMetrics metrics = new ConnectionMetrics();
 	private SQLiteDataSource dataSource;
 	private boolean initialized = false;
 
@@ -55,7 +57,10 @@ public class SqliteConnectionProvider implements ConnectionProvider {
 	@Nonnull
 	@Override
 	public Connection getConnection() throws SQLException {
-		return dataSource.getConnection();
+		long start = System.nanoTime();
+		Connection connection = dataSource.getConnection();
+		metrics.recordAcquisition(System.nanoTime() - start);
+		return connection;
 	}
 
 	@Nonnull
@@ -74,4 +79,10 @@ public class SqliteConnectionProvider implements ConnectionProvider {
 	public boolean isInitialized() {
 		return initialized;
 	}
+
+	@Nonnull
+	@Override
+	public ConnectionMetrics getMetrics() {
+		return metrics;
+	}
 }
@@ -0,0 +1,261 @@
+package me.colingrimes.midnight.storage.sql.connection.file;
+
+import me.colingrimes.midnight.Midnight;
+import me.colingrimes.midnight.storage.database.DatabaseType;
+import me.colingrimes.midnight.storage.sql.connection.ConnectionProvider;
+import me.colingrimes.midnight.storage.sql.connection.metrics.ConnectionMetrics;
+import org.sqlite.SQLiteDataSource;
+
+import javax.annotation.Nonnull;
+import javax.sql.DataSource;
+import java.io.File;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * A SQLite connection provider that uses WAL journaling and keeps its connections open.
+ * <p>
+ * In WAL mode readers never block the writer and the writer never blocks readers, but SQLite still only allows
+ * one writer at a time. This provider therefore keeps a single writer connection that is handed out by
+ * {@link #getConnection()} to one caller at a time, in the order they asked for it, and a small pool of
+ * read-only connections that are handed out by {@link #getReadConnection()}. A thread that already holds the
+ * writer connection cannot get it again, so nested writes fail right away instead of waiting for themselves.
+ * <p>
+ * Closing a connection returns it to the provider. Since the connections stay open, each of them keeps its
+ * prepared statements open as a {@link PooledConnection} so repeated queries are only parsed once.
+ */
+public class WalSqliteConnectionProvider implements ConnectionProvider {
+
+	private static final int STATEMENT_CACHE_SIZE = 64;
+	private static final String[] PRAGMAS = {
+			"PRAGMA journal_mode = WAL",
+			"PRAGMA synchronous = NORMAL",
+			"PRAGMA busy_timeout = 5000",
+			"PRAGMA temp_store = MEMORY",
+			"PRAGMA mmap_size = 268435456",
+			"PRAGMA cache_size = -8000"
+	};
+
+	private final Midnight plugin;
+	private final String databaseName;
+	private final int readConnections;
+	private final long timeoutMillis;
+	private final ConnectionMetrics metrics = new ConnectionMetrics();
+	private final Semaphore writerLock = new Semaphore(1, true);
+	private final List<PooledConnection> connections = new ArrayList<>();
+	private volatile BlockingQueue<PooledConnection> readers;
+	private SQLiteDataSource dataSource;
+	private volatile PooledConnection writer;
+	private volatile Thread writerOwner;
+	private boolean initialized = false;
+
+	/**
+	 * Creates a WAL SQLite connection provider with 4 read connections and a 30 second timeout.
+	 *
+	 * @param plugin the plugin
+	 * @param databaseName the name of the database file
+	 */
+	public WalSqliteConnectionProvider(@Nonnull Midnight plugin, @Nonnull String databaseName) {
+		this(plugin, databaseName, 4, 30000);
+	}
+
+	/**
+	 * Creates a WAL SQLite connection provider.
+	 *
+	 * @param plugin the plugin
+	 * @param databaseName the name of the database file
+	 * @param readConnections the amount of read connections
+	 * @param timeoutMillis how long to wait for a connection before failing
+	 */
+	public WalSqliteConnectionProvider(@Nonnull Midnight plugin, @Nonnull String databaseName, int readConnections, long timeoutMillis) {
+		if (readConnections <= 0) {
+			throw new IllegalArgumentException("Read connections must be positive.");
+		}
+		this.plugin = plugin;
+		this.databaseName = databaseName.endsWith(".db") ? databaseName : databaseName + ".db";
+		this.readConnections = readConnections;
+		this.timeoutMillis = timeoutMillis;
+	}
+
+	@Nonnull
+	@Override
+	public DatabaseType getType() {
+		return DatabaseType.SQLITE;
+	}
+
+	@Override
+	public synchronized void init() throws IOException, SQLException {
+		if (initialized) {
+			return;
+		} else {
+			initialized = true;
+		}
+
+		File file = new File(plugin.getDataFolder(), databaseName);
+		if (!file.exists()) {
+			file.getParentFile().mkdirs();
+			file.createNewFile();
+		}
+
+		dataSource = new SQLiteDataSource();
+		dataSource.setUrl("jdbc:sqlite:" + file);
+
+		// The writer is opened first as it switches the database file to WAL mode.
+		writer = open(false);
+		readers = new ArrayBlockingQueue<>(readConnections);
+		for (int i = 0; i < readConnections; i++) {
+			readers.add(open(true));
+		}
+	}
+
+	@Override
+	public synchronized void shutdown() {
+		connections.forEach(PooledConnection::close);
+		connections.clear();
+		readers = null;
+		writer = null;
+		dataSource = null;
+		initialized = false;
+	}
+
+	/**
+	 * Gets the writer connection, waiting until every earlier caller has closed it.
+	 *
+	 * @return the writer connection
+	 * @throws SQLException if the provider is not initialized, the connection timed out, or the thread already holds it
+	 */
+	@Nonnull
+	@Override
+	public Connection getConnection() throws SQLException {
+		PooledConnection writer = this.writer;
+		if (writer == null) {
+			throw new SQLException("Connection has failed, provider is not initialized.");
+		} else if (writerOwner == Thread.currentThread()) {
+			throw new SQLException("The SQLite writer connection is already held by this thread.");
+		}
+
+		long start = System.nanoTime();
+		try {
+			if (!writerLock.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS)) {
+				throw new SQLException("Timed out waiting for the SQLite writer connection.");
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new SQLException("Interrupted while waiting for the SQLite writer connection.", e);
+		}
+
+		writerOwner = Thread.currentThread();
+		metrics.recordAcquisition(System.nanoTime() - start);
+		return writer.lease(connection -> {
+			writerOwner = null;
+			writerLock.release();
+		});
+	}
+
+	/**
+	 * Gets a read-only connection from the pool, waiting if every read connection is in use.
+	 *
+	 * @return a read-only connection
+	 * @throws SQLException if the provider is not initialized or the connection timed out
+	 */
+	@Nonnull
+	@Override
+	public Connection getReadConnection() throws SQLException {
+		BlockingQueue<PooledConnection> readers = this.readers;
+		if (readers == null) {
+			throw new SQLException("Connection has failed, provider is not initialized.");
+		}
+
+		long start = System.nanoTime();
+		PooledConnection connection;
+		try {
+			connection = readers.poll(timeoutMillis, TimeUnit.MILLISECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new SQLException("Interrupted while waiting for a SQLite read connection.", e);
+		}
+
+		if (connection == null) {
+			throw new SQLException("Timed out waiting for a SQLite read connection.");
+		}
+
+		metrics.recordAcquisition(System.nanoTime() - start);
+		return connection.lease(readers::add);
+	}
+
+	@Nonnull
+	@Override
+	public DataSource getDataSource() {
+		return dataSource;
+	}
+
+	@Nonnull
+	@Override
+	public Function<String, String> getStatementProcessor() {
+		return s -> s.replace('\'', '`');
+	}
+
+	@Override
+	public boolean isInitialized() {
+		return initialized;
+	}
+
+	@Nonnull
+	@Override
+	public ConnectionMetrics getMetrics() {
+		return metrics;
+	}
+
+	@Override
+	public int getActiveConnections() {
+		int readersInUse = readers == null ? 0 : readConnections - readers.size();
+		return readersInUse + (writerLock.availablePermits() == 0 ? 1 : 0);
+	}
+
+	@Override
+	public int getIdleConnections() {
+		int idleReaders = readers == null ? 0 : readers.size();
+		return idleReaders + (writer != null && writerLock.availablePermits() > 0 ? 1 : 0);
+	}
+
+	@Override
+	public int getWaitingThreads() {
+		return writerLock.getQueueLength();
+	}
+
+	@Override
+	public int getMaximumConnections() {
+		return readConnections + 1;
+	}
+
+	/**
+	 * Opens a new connection with the WAL pragmas applied.
+	 *
+	 * @param readOnly whether the connection should only be allowed to read
+	 * @return the connection
+	 */
+	@Nonnull
+	private PooledConnection open(boolean readOnly) throws SQLException {
+		Connection connection = dataSource.getConnection();
+		try (Statement statement = connection.createStatement()) {
+			for (String pragma : PRAGMAS) {
+				statement.execute(pragma);
+			}
+			if (readOnly) {
+				statement.execute("PRAGMA query_only = 1");
+			}
+		}
+		PooledConnection pooled = new PooledConnection(connection, STATEMENT_CACHE_SIZE);
+		connections.add(pooled);
+		return pooled;
+	}
+}
@@ -2,10 +2,14 @@ package me.colingrimes.midnight.storage.sql.connection.hikari;
 
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
 import me.colingrimes.midnight.storage.database.DatabaseCredentials;
+import me.colingrimes.midnight.storage.database.PoolSettings;
 import me.colingrimes.midnight.storage.sql.connection.ConnectionProvider;
+import me.colingrimes.midnight.storage.sql.connection.metrics.ConnectionMetrics;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import javax.sql.DataSource;
 import java.sql.Connection;
 import java.sql.SQLException;
@@ -13,6 +17,7 @@ import java.sql.SQLException;
 public abstract class HikariConnectionProvider implements ConnectionProvider {
 
     private final DatabaseCredentials credentials;
+    private final ConnectionMetrics metrics = new ConnectionMetrics();
     private HikariDataSource hikari;
     private boolean initialized = false;
 
@@ -22,6 +27,7 @@ public abstract class HikariConnectionProvider implements ConnectionProvider {
 
     /**
      * Configure the database-specific settings for the HikariConfig.
+     * This includes the driver, URL, authentication and the recommended driver properties of the database.
      *
      * @param config the {@link HikariConfig} object to be configured
      * @param credentials the StorageCredentials containing the required database settings
@@ -39,22 +45,18 @@ public abstract class HikariConnectionProvider implements ConnectionProvider {
         HikariConfig config = new HikariConfig();
         configureDatabase(config, credentials);
 
-        // Recommended HikariCP settings for improved performance.
-        config.addDataSourceProperty("cachePrepStmts", "true");
-        config.addDataSourceProperty("prepStmtCacheSize", "250");
-        config.addDataSourceProperty("prepStmtCacheSqlLimit", "2048");
-        config.addDataSourceProperty("useServerPrepStmts", "true");
-        config.addDataSourceProperty("useLocalSessionState", "true");
-        config.addDataSourceProperty("rewriteBatchedStatements", "true");
-        config.addDataSourceProperty("cacheResultSetMetadata", "true");
-        config.addDataSourceProperty("cacheServerConfiguration", "true");
-        config.addDataSourceProperty("elideSetAutoCommits", "true");
-        config.addDataSourceProperty("maintainTimeStats", "false");
-
         // Configure the connection pool settings.
-        config.setMaximumPoolSize(10);
-        config.setMinimumIdle(2);
-        config.setIdleTimeout(30000);
+        PoolSettings pool = credentials.getPool();
+        config.setMaximumPoolSize(pool.getMaximumPoolSize());
+        config.setMinimumIdle(pool.getMinimumIdle());
+        config.setConnectionTimeout(pool.getConnectionTimeout());
+        config.setIdleTimeout(pool.getIdleTimeout());
+        config.setMaxLifetime(pool.getMaxLifetime());
+        config.setLeakDetectionThreshold(pool.getLeakDetectionThreshold());
+        config.setPoolName("Midnight-" + getType().getName());
+
+        // Configured driver properties override the defaults of the provider.
+        pool.getProperties().forEach(config::addDataSourceProperty);
 
         hikari = new HikariDataSource(config);
     }
@@ -73,7 +75,9 @@ public abstract class HikariConnectionProvider implements ConnectionProvider {
             throw new SQLException("Connection has failed, hikari is null.");
         }
 
+        long start = System.nanoTime();
         Connection connection = hikari.getConnection();
+        metrics.recordAcquisition(System.nanoTime() - start);
         if (connection == null) {
             throw new SQLException("Connection has failed, connection is null.");
         }
@@ -91,4 +95,38 @@ public abstract class HikariConnectionProvider implements ConnectionProvider {
     public boolean isInitialized() {
         return initialized;
     }
+
+    @Nonnull
+    @Override
+    public ConnectionMetrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public int getActiveConnections() {
+        HikariPoolMXBean pool = getPoolBean();
+        return pool == null ? 0 : pool.getActiveConnections();
+    }
+
+    @Override
+    public int getIdleConnections() {
+        HikariPoolMXBean pool = getPoolBean();
+        return pool == null ? 0 : pool.getIdleConnections();
+    }
+
+    @Override
+    public int getWaitingThreads() {
+        HikariPoolMXBean pool = getPoolBean();
+        return pool == null ? 0 : pool.getThreadsAwaitingConnection();
+    }
+
+    @Override
+    public int getMaximumConnections() {
+        return credentials.getPool().getMaximumPoolSize();
+    }
+
+    @Nullable
+    private HikariPoolMXBean getPoolBean() {
+        return hikari == null ? null : hikari.getHikariPoolMXBean();
+    }
 }
@@ -31,5 +31,11 @@ public class PostgreSqlConnectionProvider extends HikariConnectionProvider {
         config.setJdbcUrl("jdbc:postgresql://" + credentials.getHost() + ":" + credentials.getPort() + "/" + credentials.getDatabase());
         config.setUsername(credentials.getUser());
         config.setPassword(credentials.getPassword());
+
+        // Recommended PostgreSQL driver settings for improved performance.
+        config.addDataSourceProperty("reWriteBatchedInserts", "true");
+        config.addDataSourceProperty("prepareThreshold", "3");
+        config.addDataSourceProperty("preparedStatementCacheQueries", "256");
+        config.addDataSourceProperty("tcpKeepAlive", "true");
     }
 }
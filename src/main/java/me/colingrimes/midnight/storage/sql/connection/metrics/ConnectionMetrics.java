@@ -0,0 +1,170 @@
+package me.colingrimes.midnight.storage.sql.connection.metrics;
+
+import me.colingrimes.midnight.util.io.Logger;
+
+import javax.annotation.Nonnull;
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Collects the metrics of a {@link me.colingrimes.midnight.storage.sql.connection.ConnectionProvider}.
+ * <p>
+ * Records how long it takes to acquire connections from the provider. Statement timing is opt-in with
+ * {@link #setStatementTiming(boolean)}, after which the execution time of each statement is recorded, grouped by its
+ * SQL, for up to {@value #MAX_STATEMENTS} of the most recently executed statements. Statements that take longer than
+ * the slow query threshold are logged.
+ */
+public class ConnectionMetrics {
+
+	/**
+	 * The maximum amount of distinct statements that statistics are kept for.
+	 */
+	public static final int MAX_STATEMENTS = 256;
+	private static final ConnectionMetrics DISABLED = new ConnectionMetrics(false);
+
+	private final boolean enabled;
+	private final LatencyStats acquisition = new LatencyStats();
+	private final Map<String, LatencyStats> statements = new LinkedHashMap<>(16, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, LatencyStats> eldest) {
+			return size() > MAX_STATEMENTS;
+		}
+	};
+	private volatile boolean statementTiming = false;
+	private volatile long slowQueryNanos = Duration.ofMillis(250).toNanos();
+
+	public ConnectionMetrics() {
+		this(true);
+	}
+
+	private ConnectionMetrics(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	/**
+	 * Gets the shared metrics of providers that do not collect metrics, which ignore everything they are given.
+	 *
+	 * @return the disabled metrics
+	 */
+	@Nonnull
+	public static ConnectionMetrics disabled() {
+		return DISABLED;
+	}
+
+	/**
+	 * Records the time it took to acquire a connection.
+	 *
+	 * @param nanos the acquisition time in nanoseconds
+	 */
+	public void recordAcquisition(long nanos) {
+		if (enabled) {
+			acquisition.record(nanos);
+		}
+	}
+
+	/**
+	 * Records the time it took to execute a statement, logging it if it exceeds the slow query threshold.
+	 *
+	 * @param sql the SQL of the statement
+	 * @param nanos the execution time in nanoseconds
+	 */
+	public void recordStatement(@Nonnull String sql, long nanos) {
+		if (!enabled) {
+			return;
+		}
+
+		LatencyStats stats;
+		synchronized (statements) {
+			stats = statements.computeIfAbsent(sql, s -> new LatencyStats());
+		}
+		stats.record(nanos);
+		if (slowQueryNanos > 0 && nanos >= slowQueryNanos) {
+			Logger.warn(String.format("Slow query took %.1fms: %s", nanos / 1e6, sql));
+		}
+	}
+
+	/**
+	 * Wraps the statement so that every execution is recorded with {@link #recordStatement(String, long)}.
+	 * The statement is returned as is unless statement timing is enabled.
+	 *
+	 * @param statement the statement to wrap
+	 * @param sql the SQL of the statement
+	 * @return the timed statement
+	 */
+	@Nonnull
+	public PreparedStatement timed(@Nonnull PreparedStatement statement, @Nonnull String sql) {
+		return isStatementTiming() ? TimedStatement.wrap(statement, sql, this) : statement;
+	}
+
+	/**
+	 * Sets whether the execution time of statements is recorded. Statements that were prepared before
+	 * this is changed keep their current behavior.
+	 *
+	 * @param statementTiming true to record the execution time of statements
+	 */
+	public void setStatementTiming(boolean statementTiming) {
+		this.statementTiming = statementTiming;
+	}
+
+	/**
+	 * Gets whether the execution time of statements is recorded.
+	 *
+	 * @return true if statements are timed
+	 */
+	public boolean isStatementTiming() {
+		return enabled && statementTiming;
+	}
+
+	/**
+	 * Gets the statistics of acquiring connections.
+	 *
+	 * @return the acquisition statistics
+	 */
+	@Nonnull
+	public LatencyStats getAcquisition() {
+		return acquisition;
+	}
+
+	/**
+	 * Gets the execution statistics of every statement, keyed by its SQL.
+	 *
+	 * @return a copy of the statement statistics
+	 */
+	@Nonnull
+	public Map<String, LatencyStats> getStatements() {
+		synchronized (statements) {
+			return new HashMap<>(statements);
+		}
+	}
+
+	/**
+	 * Sets the execution time after which a statement is logged as slow.
+	 *
+	 * @param threshold the slow query threshold, or zero to disable the slow query log
+	 */
+	public void setSlowQueryThreshold(@Nonnull Duration threshold) {
+		this.slowQueryNanos = threshold.toNanos();
+	}
+
+	/**
+	 * Gets the execution time after which a statement is logged as slow.
+	 *
+	 * @return the slow query threshold
+	 */
+	@Nonnull
+	public Duration getSlowQueryThreshold() {
+		return Duration.ofNanos(slowQueryNanos);
+	}
+
+	/**
+	 * Removes every recorded statement statistic.
+	 */
+	public void reset() {
+		synchronized (statements) {
+			statements.clear();
+		}
+	}
+}
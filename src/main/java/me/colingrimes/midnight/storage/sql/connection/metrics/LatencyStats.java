@@ -0,0 +1,121 @@
+package me.colingrimes.midnight.storage.sql.connection.metrics;
+
+import javax.annotation.Nonnull;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe latency statistics of a single operation, such as acquiring a connection or executing a statement.
+ * <p>
+ * Latencies are kept in a histogram with power-of-two microsecond buckets, so recording never allocates.
+ */
+public class LatencyStats {
+
+	/**
+	 * The amount of buckets in the histogram. Bucket {@code i} holds latencies below {@code 2^i} microseconds,
+	 * and the last bucket holds everything above.
+	 */
+	public static final int BUCKETS = 24;
+
+	private final AtomicLongArray histogram = new AtomicLongArray(BUCKETS);
+	private final LongAdder count = new LongAdder();
+	private final LongAdder totalNanos = new LongAdder();
+	private final AtomicLong maxNanos = new AtomicLong();
+
+	/**
+	 * Records a single latency.
+	 *
+	 * @param nanos the latency in nanoseconds
+	 */
+	public void record(long nanos) {
+		histogram.incrementAndGet(bucket(nanos));
+		count.increment();
+		totalNanos.add(nanos);
+		maxNanos.accumulateAndGet(nanos, Math::max);
+	}
+
+	/**
+	 * Gets the amount of recorded latencies.
+	 *
+	 * @return the count
+	 */
+	public long getCount() {
+		return count.sum();
+	}
+
+	/**
+	 * Gets the sum of every recorded latency.
+	 *
+	 * @return the total duration
+	 */
+	@Nonnull
+	public Duration getTotal() {
+		return Duration.ofNanos(totalNanos.sum());
+	}
+
+	/**
+	 * Gets the average recorded latency.
+	 *
+	 * @return the average duration
+	 */
+	@Nonnull
+	public Duration getAverage() {
+		long count = getCount();
+		return Duration.ofNanos(count == 0 ? 0 : totalNanos.sum() / count);
+	}
+
+	/**
+	 * Gets the highest recorded latency.
+	 *
+	 * @return the max duration
+	 */
+	@Nonnull
+	public Duration getMax() {
+		return Duration.ofNanos(maxNanos.get());
+	}
+
+	/**
+	 * Gets an upper bound of the specified percentile of the recorded latencies.
+	 *
+	 * @param percentile the percentile between 0 and 1
+	 * @return the upper bound of the histogram bucket containing the percentile
+	 */
+	@Nonnull
+	public Duration getPercentile(double percentile) {
+		long[] buckets = getHistogram();
+		long total = 0;
+		for (long bucket : buckets) {
+			total += bucket;
+		}
+
+		long target = (long) Math.ceil(total * percentile);
+		long seen = 0;
+		for (int i = 0; i < buckets.length; i++) {
+			seen += buckets[i];
+			if (seen >= target && seen > 0) {
+				return i == buckets.length - 1 ? getMax() : Duration.ofNanos((1L << i) * 1000);
+			}
+		}
+		return Duration.ZERO;
+	}
+
+	/**
+	 * Gets a copy of the latency histogram, see {@link #BUCKETS} for the bucket boundaries.
+	 *
+	 * @return the histogram
+	 */
+	@Nonnull
+	public long[] getHistogram() {
+		long[] buckets = new long[BUCKETS];
+		for (int i = 0; i < BUCKETS; i++) {
+			buckets[i] = histogram.get(i);
+		}
+		return buckets;
+	}
+
+	static int bucket(long nanos) {
+		return Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(nanos / 1000));
+	}
+}
@@ -0,0 +1,55 @@
+package me.colingrimes.midnight.storage.sql.connection.metrics;
+
+import javax.annotation.Nonnull;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.PreparedStatement;
+
+/**
+ * Proxies a {@link PreparedStatement} and records the duration of every {@code execute} call.
+ */
+final class TimedStatement implements InvocationHandler {
+
+	private final PreparedStatement statement;
+	private final String sql;
+	private final ConnectionMetrics metrics;
+
+	private TimedStatement(@Nonnull PreparedStatement statement, @Nonnull String sql, @Nonnull ConnectionMetrics metrics) {
+		this.statement = statement;
+		this.sql = sql;
+		this.metrics = metrics;
+	}
+
+	@Nonnull
+	static PreparedStatement wrap(@Nonnull PreparedStatement statement, @Nonnull String sql, @Nonnull ConnectionMetrics metrics) {
+		return (PreparedStatement) Proxy.newProxyInstance(
+				TimedStatement.class.getClassLoader(),
+				new Class<?>[] { PreparedStatement.class },
+				new TimedStatement(statement, sql, metrics)
+		);
+	}
+
+	@Override
+	public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+		if (!method.getName().startsWith("execute")) {
+			return invoke(method, args);
+		}
+
+		long start = System.nanoTime();
+		try {
+			return invoke(method, args);
+		} finally {
+			metrics.recordStatement(sql, System.nanoTime() - start);
+		}
+	}
+
+	private Object invoke(@Nonnull Method method, Object[] args) throws Throwable {
+		try {
+			return method.invoke(statement, args);
+		} catch (InvocationTargetException e) {
+			throw e.getCause();
+		}
+	}
+}
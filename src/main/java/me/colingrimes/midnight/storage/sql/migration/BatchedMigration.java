@@ -0,0 +1,67 @@
+package me.colingrimes.midnight.storage.sql.migration;
+
+import javax.annotation.Nonnull;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * A {@link Migration} for large tables that commits its work in batches instead of one large transaction,
+ * which keeps locks and undo logs small.
+ * <p>
+ * Each batch must be idempotent and only touch rows that were not migrated yet (for example with
+ * {@code WHERE new_column IS NULL LIMIT ?}), and {@link #before(Connection)} must tolerate running again, so that a
+ * migration that failed halfway can safely be applied again.
+ */
+public abstract class BatchedMigration implements Migration {
+
+	private final int batchSize;
+
+	protected BatchedMigration(int batchSize) {
+		if (batchSize <= 0) {
+			throw new IllegalArgumentException("Batch size must be positive.");
+		}
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * Runs {@link #before(Connection)}, every batch and {@link #after(Connection)}, committing after each batch.
+	 *
+	 * @param connection the database connection
+	 */
+	@Override
+	public final void apply(@Nonnull Connection connection) throws SQLException {
+		before(connection);
+		connection.commit();
+
+		int migrated;
+		do {
+			migrated = applyBatch(connection, batchSize);
+			connection.commit();
+		} while (migrated > 0);
+
+		after(connection);
+	}
+
+	/**
+	 * Runs before the first batch, such as adding the new column.
+	 *
+	 * @param connection the database connection
+	 */
+	protected void before(@Nonnull Connection connection) throws SQLException {}
+
+	/**
+	 * Migrates up to {@code batchSize} rows that were not migrated yet.
+	 *
+	 * @param connection the database connection
+	 * @param batchSize the maximum amount of rows to migrate
+	 * @return the amount of migrated rows, the migration continues until this is 0
+	 */
+	protected abstract int applyBatch(@Nonnull Connection connection, int batchSize) throws SQLException;
+
+	/**
+	 * Runs after the last batch, in the same transaction the migration is recorded in.
+	 *
+	 * @param connection the database connection
+	 */
+	protected void after(@Nonnull Connection connection) throws SQLException {}
+}
@@ -0,0 +1,50 @@
+package me.colingrimes.midnight.storage.sql.migration;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * A single versioned step of a database schema.
+ * <p>
+ * Migrations are applied in order of their version by the {@link MigrationRunner}, each in its own transaction,
+ * and are recorded so that they are never applied twice. Note that MySQL commits implicitly after DDL statements,
+ * so a failed MySQL migration that alters tables can only be rolled back partially.
+ */
+public interface Migration {
+
+	/**
+	 * Gets the version of the migration, which must be positive and unique.
+	 *
+	 * @return the version
+	 */
+	int getVersion();
+
+	/**
+	 * Gets a short description of what the migration does.
+	 *
+	 * @return the description
+	 */
+	@Nonnull
+	default String getDescription() {
+		return getClass().getSimpleName();
+	}
+
+	/**
+	 * Gets the checksum of the migration, used to detect migrations that were changed after they were applied.
+	 *
+	 * @return the checksum, or null if the migration is not checked
+	 */
+	@Nullable
+	default String getChecksum() {
+		return null;
+	}
+
+	/**
+	 * Applies the migration. The connection is in a transaction which is committed once this method returns.
+	 *
+	 * @param connection the database connection
+	 */
+	void apply(@Nonnull Connection connection) throws SQLException;
+}
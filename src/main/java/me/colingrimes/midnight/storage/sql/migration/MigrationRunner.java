@@ -0,0 +1,157 @@
+package me.colingrimes.midnight.storage.sql.migration;
+
+import me.colingrimes.midnight.Midnight;
+import me.colingrimes.midnight.util.io.Logger;
+
+import javax.annotation.Nonnull;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Applies {@link Migration} steps that have not been applied yet and records them in a history table.
+ * <p>
+ * Migrations are recorded by the name of their owner together with their version, so several storages can share
+ * one history table without their versions colliding. Startup only reads the history of the owner once. Each pending
+ * migration runs in its own transaction together with its history row, so a failed migration is rolled back and stops
+ * the runner without recording it.
+ * <p>
+ * This only holds for databases with transactional DDL, such as SQLite and PostgreSQL. MySQL commits implicitly before
+ * and after every DDL statement, such as {@code CREATE TABLE} or {@code ALTER TABLE}, so a failed migration keeps the
+ * changes of its statements that ran before the failure and is still not recorded. Migrations for MySQL should
+ * contain a single DDL statement, or be written so that running them again is safe.
+ */
+public class MigrationRunner {
+
+	private final Midnight plugin;
+	private final String historyTable;
+	private final Function<String, String> processor;
+
+	/**
+	 * Creates a migration runner.
+	 *
+	 * @param plugin the plugin
+	 * @param historyTable the table that applied migrations are recorded in
+	 * @param processor the statement processor of the connection provider
+	 */
+	public MigrationRunner(@Nonnull Midnight plugin, @Nonnull String historyTable, @Nonnull Function<String, String> processor) {
+		this.plugin = plugin;
+		this.historyTable = historyTable;
+		this.processor = processor;
+	}
+
+	/**
+	 * Applies every migration of the owner that has not been applied yet, in order of their version.
+	 *
+	 * @param connection the database connection
+	 * @param owner the name that the migrations are recorded by, such as the name of the storage
+	 * @param migrations the migrations
+	 * @return the amount of applied migrations
+	 */
+	public int run(@Nonnull Connection connection, @Nonnull String owner, @Nonnull List<Migration> migrations) throws SQLException {
+		if (migrations.isEmpty()) {
+			return 0;
+		}
+
+		Set<Integer> versions = new HashSet<>();
+		for (Migration migration : migrations) {
+			if (migration.getVersion() <= 0 || !versions.add(migration.getVersion())) {
+				throw new IllegalArgumentException("Migration versions must be positive and unique (" + migration.getVersion() + ").");
+			}
+		}
+
+		Map<Integer, String> applied = getApplied(connection, owner);
+		List<Migration> sorted = migrations.stream().sorted(Comparator.comparingInt(Migration::getVersion)).toList();
+		int count = 0;
+		for (Migration migration : sorted) {
+			if (applied.containsKey(migration.getVersion())) {
+				String checksum = applied.get(migration.getVersion());
+				if (migration.getChecksum() != null && checksum != null && !Objects.equals(checksum, migration.getChecksum())) {
+					Logger.warn(plugin, "Migration " + migration.getVersion() + " (" + migration.getDescription() + ") has changed since it was applied.");
+				}
+				continue;
+			}
+
+			apply(connection, owner, migration);
+			count++;
+		}
+		return count;
+	}
+
+	/**
+	 * Gets the versions and checksums of every applied migration of the owner, creating the history table on the first run.
+	 *
+	 * @param connection the database connection
+	 * @param owner the owner of the migrations
+	 * @return the checksums of the applied migrations by version
+	 */
+	@Nonnull
+	private Map<Integer, String> getApplied(@Nonnull Connection connection, @Nonnull String owner) throws SQLException {
+		Map<Integer, String> applied = new HashMap<>();
+		String select = processor.apply(String.format("SELECT 'version', 'checksum' FROM '%s' WHERE 'owner' = ?", historyTable));
+		try (PreparedStatement ps = connection.prepareStatement(select)) {
+			ps.setString(1, owner);
+			try (ResultSet rs = ps.executeQuery()) {
+				while (rs.next()) {
+					applied.put(rs.getInt("version"), rs.getString("checksum"));
+				}
+			}
+			return applied;
+		} catch (SQLException e) {
+			// The history table does not exist yet.
+			if (!connection.getAutoCommit()) {
+				connection.rollback();
+			}
+		}
+
+		String create = processor.apply(String.format(
+				"CREATE TABLE IF NOT EXISTS '%s' ('owner' VARCHAR(64) NOT NULL, 'version' INTEGER NOT NULL, 'description' VARCHAR(255), 'checksum' VARCHAR(64), 'applied_at' BIGINT, 'duration' BIGINT, PRIMARY KEY ('owner', 'version'))",
+				historyTable
+		));
+		try (PreparedStatement ps = connection.prepareStatement(create)) {
+			ps.execute();
+		}
+		return applied;
+	}
+
+	private void apply(@Nonnull Connection connection, @Nonnull String owner, @Nonnull Migration migration) throws SQLException {
+		boolean autoCommit = connection.getAutoCommit();
+		long start = System.currentTimeMillis();
+		connection.setAutoCommit(false);
+		try {
+			migration.apply(connection);
+
+			String insert = processor.apply(String.format(
+					"INSERT INTO '%s' ('owner', 'version', 'description', 'checksum', 'applied_at', 'duration') VALUES (?, ?, ?, ?, ?, ?)",
+					historyTable
+			));
+			try (PreparedStatement ps = connection.prepareStatement(insert)) {
+				ps.setString(1, owner);
+				ps.setInt(2, migration.getVersion());
+				ps.setString(3, migration.getDescription());
+				ps.setString(4, migration.getChecksum());
+				ps.setLong(5, start);
+				ps.setLong(6, System.currentTimeMillis() - start);
+				ps.executeUpdate();
+			}
+
+			connection.commit();
+			Logger.log(plugin, "Applied migration " + migration.getVersion() + " (" + migration.getDescription() + ") in " + (System.currentTimeMillis() - start) + "ms.");
+		} catch (SQLException | RuntimeException e) {
+			connection.rollback();
+			Logger.severe(plugin, "Migration " + migration.getVersion() + " (" + migration.getDescription() + ") has failed:", e);
+			throw e;
+		} finally {
+			connection.setAutoCommit(autoCommit);
+		}
+	}
+}
@@ -0,0 +1,216 @@
+package me.colingrimes.midnight.storage.sql.migration;
+
+import me.colingrimes.midnight.Midnight;
+import me.colingrimes.midnight.storage.database.DatabaseType;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.CRC32;
+
+/**
+ * A {@link Migration} read from a {@code schema/<database>/V<version>.sql} resource.
+ * <p>
+ * Statements are separated by semicolons and run as written, without the statement processor. Comments are removed,
+ * and semicolons inside quotes, {@code CASE} expressions and the {@code BEGIN ... END} body of a trigger do not end a
+ * statement. Other compound statements, such as stored procedures, are not supported.
+ * The checksum is the CRC32 of the file, so editing an applied file is detected on the next startup.
+ */
+public final class SqlMigration implements Migration {
+
+	private final int version;
+	private final List<String> statements;
+	private final String checksum;
+
+	/**
+	 * Loads every migration resource of the database type, starting at {@code V1.sql} until a version is missing.
+	 *
+	 * @param plugin the plugin to load the resources from
+	 * @param type the database type
+	 * @return the migrations in order of their version
+	 */
+	@Nonnull
+	public static List<Migration> load(@Nonnull Midnight plugin, @Nonnull DatabaseType type) {
+		List<Migration> migrations = new ArrayList<>();
+		String directory = "schema/" + type.getName().toLowerCase() + "/";
+		for (int version = 1; ; version++) {
+			URL url = plugin.getClass().getClassLoader().getResource(directory + "V" + version + ".sql");
+			if (url == null) {
+				return migrations;
+			}
+
+			try (InputStream inputStream = url.openStream()) {
+				migrations.add(new SqlMigration(version, new String(inputStream.readAllBytes(), StandardCharsets.UTF_8)));
+			} catch (IOException e) {
+				throw new RuntimeException("Failed to read migration " + directory + "V" + version + ".sql", e);
+			}
+		}
+	}
+
+	SqlMigration(int version, @Nonnull String sql) {
+		CRC32 crc = new CRC32();
+		crc.update(sql.replace("\r\n", "\n").getBytes(StandardCharsets.UTF_8));
+		this.version = version;
+		this.statements = split(sql);
+		this.checksum = Long.toHexString(crc.getValue());
+	}
+
+	@Override
+	public int getVersion() {
+		return version;
+	}
+
+	@Nonnull
+	@Override
+	public String getDescription() {
+		return "V" + version + ".sql";
+	}
+
+	@Nonnull
+	@Override
+	public String getChecksum() {
+		return checksum;
+	}
+
+	@Override
+	public void apply(@Nonnull Connection connection) throws SQLException {
+		try (Statement statement = connection.createStatement()) {
+			for (String sql : statements) {
+				statement.execute(sql);
+			}
+		}
+	}
+
+	/**
+	 * Splits the SQL into its statements, removing comments.
+	 *
+	 * @param sql the SQL of the migration
+	 * @return the statements in order
+	 */
+	@Nonnull
+	static List<String> split(@Nonnull String sql) {
+		Splitter splitter = new Splitter();
+		int length = sql.length();
+		int i = 0;
+		while (i < length) {
+			char c = sql.charAt(i);
+			char next = i + 1 < length ? sql.charAt(i + 1) : 0;
+			if (c == '-' && next == '-') {
+				int end = sql.indexOf('\n', i);
+				i = end == -1 ? length : end;
+				splitter.separate();
+			} else if (c == '/' && next == '*') {
+				int end = sql.indexOf("*/", i + 2);
+				i = end == -1 ? length : end + 2;
+				splitter.separate();
+			} else if (c == '\'' || c == '"' || c == '`') {
+				// Copies the quoted text, where a doubled quote is an escaped quote.
+				int end = i + 1;
+				while (end < length) {
+					if (sql.charAt(end) != c) {
+						end++;
+					} else if (end + 1 < length && sql.charAt(end + 1) == c) {
+						end += 2;
+					} else {
+						break;
+					}
+				}
+				end = Math.min(end + 1, length);
+				splitter.word();
+				splitter.current.append(sql, i, end);
+				i = end;
+			} else if (Character.isLetterOrDigit(c) || c == '_') {
+				splitter.word.append(c);
+				splitter.current.append(c);
+				i++;
+			} else if (c == ';') {
+				splitter.word();
+				splitter.end();
+				i++;
+			} else {
+				splitter.word();
+				splitter.current.append(c);
+				i++;
+			}
+		}
+		splitter.word();
+		splitter.finish();
+		return splitter.statements;
+	}
+
+	private static class Splitter {
+		final List<String> statements = new ArrayList<>();
+		final StringBuilder current = new StringBuilder();
+		final StringBuilder word = new StringBuilder();
+		int words = 0;
+		int depth = 0;
+		boolean create = false;
+		boolean trigger = false;
+
+		/**
+		 * Ends the current word, such as after a comment, so that words on both sides are not joined.
+		 */
+		void separate() {
+			word();
+			current.append(' ');
+		}
+
+		/**
+		 * Ends the current word, keeping track of the blocks that semicolons do not end a statement in.
+		 */
+		void word() {
+			if (word.isEmpty()) {
+				return;
+			}
+
+			String keyword = word.toString().toUpperCase(Locale.ROOT);
+			word.setLength(0);
+			if (++words == 1) {
+				create = keyword.equals("CREATE");
+			} else if (create && keyword.equals("TRIGGER")) {
+				trigger = true;
+			}
+
+			if (keyword.equals("CASE") || (trigger && keyword.equals("BEGIN"))) {
+				depth++;
+			} else if (keyword.equals("END") && depth > 0) {
+				depth--;
+			}
+		}
+
+		/**
+		 * Ends the current statement at a semicolon, unless the semicolon is inside a block.
+		 */
+		void end() {
+			if (depth > 0) {
+				current.append(';');
+				return;
+			}
+
+			finish();
+		}
+
+		/**
+		 * Ends the current statement.
+		 */
+		void finish() {
+			String statement = current.toString().trim();
+			if (!statement.isEmpty()) {
+				statements.add(statement);
+			}
+			current.setLength(0);
+			words = 0;
+			depth = 0;
+			create = false;
+			trigger = false;
+		}
+	}
+}
@@ -20,7 +20,7 @@ public class UpdateCheckerSpigot implements UpdateChecker {
 		this.plugin = plugin;
 		this.updateUrl = "https://api.spigotmc.org/legacy/update.php?resource=" + resourceId;
 		this.resourceUrl = "https://www.spigotmc.org/resources/" + resourceId;
-		Scheduler.async().run(this::check);
+		Scheduler.virtual().run(this::check);
 	}
 
 	@Override
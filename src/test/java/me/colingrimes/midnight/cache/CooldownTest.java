@@ -12,8 +12,7 @@ import java.time.Duration;
 import java.time.Instant;
 import java.util.function.Consumer;
 
-import static org.junit.jupiter.api.Assertions.assertFalse;
-import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
@@ -95,4 +94,19 @@ class CooldownTest extends MockSetup {
 		verify(defaultAction, never()).accept(bukkit.player2);
 		verify(action, never()).accept(bukkit.player2);
 	}
+
+	@Test
+	void testClose() {
+		Cooldown<Player> playerCooldown = Cooldown.create(Duration.ofSeconds(10), defaultAction);
+		playerCooldown.add(bukkit.player);
+		assertEquals(1, playerCooldown.size());
+
+		// Test that closing clears the cooldown without executing its action.
+		playerCooldown.close();
+		assertFalse(playerCooldown.onCooldown(bukkit.player));
+		assertThrows(IllegalStateException.class, () -> playerCooldown.add(bukkit.player));
+		instant.when(Instant::now).thenReturn(INSTANT_3);
+		task.run();
+		verify(defaultAction, never()).accept(bukkit.player);
+	}
 }
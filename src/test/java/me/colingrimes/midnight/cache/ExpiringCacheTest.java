@@ -0,0 +1,118 @@
+package me.colingrimes.midnight.cache;
+
+import me.colingrimes.midnight.scheduler.Scheduler;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ExpiringCacheTest {
+
+	@Test
+	void testMaximumSize() {
+		ExpiringCache<String, Integer> cache = ExpiringCache.<String, Integer>builder().maximumSize(2).build();
+		cache.put("a", 1);
+		cache.put("b", 2);
+
+		// Reading "a" makes "b" the least recently used entry.
+		assertEquals(Optional.of(1), cache.getIfPresent("a"));
+		cache.put("c", 3);
+		assertEquals(List.of("a", "c"), cache.keys());
+		assertEquals(1, cache.getStats().getEvictions());
+	}
+
+	@Test
+	void testExpireAfterWrite() {
+		ExpiringCache<String, Integer> cache = ExpiringCache.<String, Integer>builder().expireAfterWrite(Duration.ZERO).build();
+		cache.put("a", 1);
+		assertEquals(Optional.empty(), cache.getIfPresent("a"));
+		assertEquals(0, cache.size());
+	}
+
+	@Test
+	void testStats() {
+		ExpiringCache<String, Integer> cache = ExpiringCache.<String, Integer>builder().build();
+		cache.put("a", 1);
+		cache.getIfPresent("a");
+		cache.getIfPresent("b");
+		cache.invalidate("a");
+		cache.getIfPresent("a");
+
+		ExpiringCache.Stats stats = cache.getStats();
+		assertEquals(1, stats.getHits());
+		assertEquals(2, stats.getMisses());
+		assertEquals(0, stats.getEvictions());
+		assertEquals(1.0 / 3, stats.getHitRate());
+	}
+
+	@Test
+	void testChangesDuringLoad() {
+		CompletableFuture<Integer> firstLoad = new CompletableFuture<>();
+		CompletableFuture<Integer> secondLoad = new CompletableFuture<>();
+		Scheduler async = mock(Scheduler.class);
+		doReturn(firstLoad, secondLoad).when(async).call(any());
+
+		try (MockedStatic<Scheduler> scheduler = mockStatic(Scheduler.class)) {
+			scheduler.when(Scheduler::async).thenReturn(async);
+			ExpiringCache<String, Integer> cache = ExpiringCache.<String, Integer>builder().loader(key -> 1).build();
+
+			// A value that is put during the load is kept.
+			CompletableFuture<Integer> first = cache.get("a");
+			cache.put("a", 2);
+			firstLoad.complete(1);
+			assertEquals(2, first.join());
+			assertEquals(Optional.of(2), cache.getIfPresent("a"));
+
+			// A value that is invalidated during the load is not cached.
+			CompletableFuture<Integer> second = cache.get("b");
+			cache.invalidate("b");
+			secondLoad.complete(3);
+			assertEquals(3, second.join());
+			assertEquals(Optional.empty(), cache.getIfPresent("b"));
+		}
+	}
+
+	@Test
+	void testPutRacingLoad() throws Exception {
+		List<CompletableFuture<Integer>> loads = new ArrayList<>();
+		Scheduler async = mock(Scheduler.class);
+		doAnswer(invocation -> {
+			CompletableFuture<Integer> load = new CompletableFuture<>();
+			loads.add(load);
+			return load;
+		}).when(async).call(any());
+
+		try (MockedStatic<Scheduler> scheduler = mockStatic(Scheduler.class)) {
+			scheduler.when(Scheduler::async).thenReturn(async);
+			for (int i = 0; i < 1000; i++) {
+				ExpiringCache<String, Integer> cache = ExpiringCache.<String, Integer>builder().loader(key -> 1).build();
+				CountDownLatch start = new CountDownLatch(1);
+				Thread writer = new Thread(() -> {
+					try {
+						start.await();
+					} catch (InterruptedException ignored) {}
+					cache.put("a", 2);
+				});
+				writer.start();
+
+				// Whether the put lands before, during, or after the miss, the older loaded value never replaces it.
+				loads.clear();
+				start.countDown();
+				CompletableFuture<Integer> value = cache.get("a");
+				writer.join();
+				loads.forEach(load -> load.complete(1));
+				assertEquals(2, value.join());
+				assertEquals(Optional.of(2), cache.getIfPresent("a"));
+			}
+		}
+	}
+}
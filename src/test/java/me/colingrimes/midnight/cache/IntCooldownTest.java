@@ -0,0 +1,73 @@
+package me.colingrimes.midnight.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntCooldownTest {
+
+	@Test
+	void testCooldown() {
+		IntCooldown cooldown = IntCooldown.create(Duration.ofMinutes(10));
+		assertFalse(cooldown.onCooldown(1));
+		assertEquals(0, cooldown.remainingMillis(1));
+
+		cooldown.add(1);
+		assertTrue(cooldown.onCooldown(1));
+		assertTrue(cooldown.remainingMillis(1) > Duration.ofMinutes(9).toMillis());
+
+		cooldown.cancel(1);
+		assertFalse(cooldown.onCooldown(1));
+		assertEquals(0, cooldown.size());
+	}
+
+	@Test
+	void testExpired() {
+		IntCooldown cooldown = IntCooldown.create(Duration.ofMinutes(10));
+		cooldown.add(1, Duration.ZERO);
+		assertFalse(cooldown.onCooldown(1));
+		assertEquals(Duration.ZERO, cooldown.getTimeLeft(1));
+
+		// Expired entries are dropped when purging.
+		assertEquals(1, cooldown.size());
+		cooldown.purge();
+		assertEquals(0, cooldown.size());
+	}
+
+	@Test
+	void testManyKeys() {
+		IntCooldown cooldown = IntCooldown.create(Duration.ofMinutes(10));
+		for (int i = 0; i < 10_000; i++) {
+			cooldown.add(i);
+		}
+
+		// Removing every other key must not break the lookups of the remaining keys.
+		for (int i = 0; i < 10_000; i += 2) {
+			cooldown.cancel(i);
+		}
+		for (int i = 0; i < 10_000; i++) {
+			assertEquals(i % 2 == 1, cooldown.onCooldown(i));
+		}
+		assertEquals(5_000, cooldown.size());
+	}
+
+	@Test
+	void testLargeDurations() {
+		// Durations that do not fit in nanoseconds saturate instead of overflowing into the past.
+		IntCooldown cooldown = IntCooldown.create(Duration.ofSeconds(Long.MAX_VALUE));
+		cooldown.add(1);
+		cooldown.add(2, Duration.ofDays(Long.MAX_VALUE / 86_400));
+		cooldown.addMillis(3, Long.MAX_VALUE);
+		for (int key = 1; key <= 3; key++) {
+			assertTrue(cooldown.onCooldown(key));
+			assertTrue(cooldown.remainingMillis(key) > Duration.ofDays(365 * 100).toMillis());
+		}
+
+		cooldown.addMillis(4, Long.MIN_VALUE);
+		cooldown.add(5, Duration.ofSeconds(Long.MIN_VALUE));
+		assertFalse(cooldown.onCooldown(4));
+		assertFalse(cooldown.onCooldown(5));
+	}
+}
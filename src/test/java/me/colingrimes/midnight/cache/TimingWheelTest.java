@@ -0,0 +1,72 @@
+package me.colingrimes.midnight.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimingWheelTest {
+
+	private static class TestNode extends TimingWheel.Node {}
+
+	@Test
+	void testAdvance() {
+		TimingWheel<TestNode> wheel = new TimingWheel<>(50, 0);
+		TestNode first = new TestNode();
+		TestNode second = new TestNode();
+		wheel.schedule(first, 100);
+		wheel.schedule(second, 1_000);
+		assertEquals(2, wheel.size());
+
+		// Nothing is due before the first deadline.
+		assertTrue(wheel.advance(99).isEmpty());
+
+		// Only the first node is due at its deadline.
+		assertEquals(List.of(first), wheel.advance(100));
+		assertFalse(first.isScheduled());
+		assertEquals(1, wheel.size());
+
+		// The second node is due once its deadline has passed.
+		assertEquals(List.of(second), wheel.advance(5_000));
+		assertEquals(0, wheel.size());
+	}
+
+	@Test
+	void testCascade() {
+		TimingWheel<TestNode> wheel = new TimingWheel<>(1, 0);
+		TestNode node = new TestNode();
+
+		// Far enough away to be placed on the higher levels of the wheel.
+		wheel.schedule(node, 10_000_000);
+		assertTrue(wheel.advance(9_999_999).isEmpty());
+		assertEquals(List.of(node), wheel.advance(10_000_000));
+	}
+
+	@Test
+	void testCancelAndReschedule() {
+		TimingWheel<TestNode> wheel = new TimingWheel<>(50, 0);
+		TestNode node = new TestNode();
+		wheel.schedule(node, 100);
+		assertTrue(wheel.cancel(node));
+		assertFalse(wheel.cancel(node));
+		assertTrue(wheel.advance(200).isEmpty());
+
+		// Rescheduling moves the node instead of adding it twice.
+		wheel.schedule(node, 300);
+		wheel.schedule(node, 500);
+		assertEquals(1, wheel.size());
+		assertTrue(wheel.advance(400).isEmpty());
+		assertEquals(List.of(node), wheel.advance(500));
+	}
+
+	@Test
+	void testOverdue() {
+		TimingWheel<TestNode> wheel = new TimingWheel<>(50, 1_000);
+		TestNode node = new TestNode();
+
+		// Nodes scheduled in the past are due on the next advance.
+		wheel.schedule(node, 0);
+		assertEquals(List.of(node), wheel.advance(1_000));
+	}
+}
@@ -0,0 +1,44 @@
+package me.colingrimes.midnight.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UUIDCooldownTest {
+
+	@Test
+	void testCooldown() {
+		UUID uuid = UUID.randomUUID();
+		UUID other = UUID.randomUUID();
+		UUIDCooldown cooldown = UUIDCooldown.create(Duration.ofSeconds(10));
+		cooldown.add(uuid);
+		assertTrue(cooldown.onCooldown(uuid));
+		assertFalse(cooldown.onCooldown(other));
+
+		// Overriding the cooldown replaces the previous duration.
+		cooldown.addMillis(uuid, 60_000);
+		assertTrue(cooldown.remainingMillis(uuid) > 10_000);
+		assertEquals(1, cooldown.size());
+
+		cooldown.cancel(uuid);
+		assertFalse(cooldown.onCooldown(uuid));
+	}
+
+	@Test
+	void testLargeDurations() {
+		UUID uuid = UUID.randomUUID();
+		UUIDCooldown cooldown = UUIDCooldown.create(Duration.ofSeconds(Long.MAX_VALUE));
+		cooldown.add(uuid);
+		assertTrue(cooldown.onCooldown(uuid));
+
+		cooldown.addMillis(uuid, Long.MAX_VALUE);
+		assertTrue(cooldown.onCooldown(uuid));
+		assertTrue(cooldown.getTimeLeft(uuid).toDays() > 365 * 100);
+
+		cooldown.addMillis(uuid, Long.MIN_VALUE);
+		assertFalse(cooldown.onCooldown(uuid));
+	}
+}
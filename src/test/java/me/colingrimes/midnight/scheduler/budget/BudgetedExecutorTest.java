@@ -0,0 +1,121 @@
+package me.colingrimes.midnight.scheduler.budget;
+
+import me.colingrimes.midnight.MockSetup;
+import me.colingrimes.midnight.scheduler.task.Task;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BudgetedExecutorTest extends MockSetup {
+
+	private Task task;
+	private Runnable tick;
+
+	@Test
+	void testJobFitsInBudget() {
+		captureTick();
+		BudgetedExecutor executor = new BudgetedExecutor(1_000_000_000L, () -> -1);
+		List<Integer> processed = new ArrayList<>();
+		BudgetedJob<Integer> job = executor.submit(IntStream.range(0, 100).boxed().toList(), processed::add);
+		assertEquals(100, job.getTotal());
+		assertEquals(0, job.getProgress());
+
+		// The whole job runs in a single tick, after which the task stops.
+		tick.run();
+		assertTrue(job.getFuture().isDone());
+		assertEquals(100, processed.size());
+		assertEquals(1, job.getProgress());
+		assertEquals(0, executor.getQueuedJobs());
+		verify(task).stop();
+
+		// Submitting another job starts the task again.
+		executor.submit(List.of(1), processed::add);
+		verify(syncScheduler, times(2)).runRepeating(any(Runnable.class), anyLong(), anyLong());
+	}
+
+	@Test
+	void testJobIsSpreadOverTicks() {
+		captureTick();
+		// Without a budget, a single item is processed per tick.
+		BudgetedExecutor executor = new BudgetedExecutor(0, () -> -1);
+		List<Integer> processed = new ArrayList<>();
+		BudgetedJob<Integer> first = executor.submit(List.of(1, 2).iterator(), processed::add);
+		BudgetedJob<Integer> second = executor.submit(List.of(3), processed::add);
+		assertEquals(-1, first.getTotal());
+
+		tick.run();
+		assertEquals(List.of(1), processed);
+		assertEquals(1, first.getProcessed());
+		tick.run();
+		assertEquals(List.of(1, 2), processed);
+		assertFalse(first.isDone());
+
+		// Jobs run in the order they were submitted.
+		tick.run();
+		assertTrue(first.isDone());
+		assertEquals(List.of(1, 2), processed);
+		tick.run();
+		tick.run();
+		assertTrue(second.isDone());
+		assertEquals(List.of(1, 2, 3), processed);
+		verify(task).stop();
+	}
+
+	@Test
+	void testFailedAndCancelledJobs() {
+		captureTick();
+		BudgetedExecutor executor = new BudgetedExecutor(1_000_000_000L, () -> -1);
+		BudgetedJob<Integer> failed = executor.submit(List.of(1, 2), i -> {
+			throw new IllegalStateException("Item has failed.");
+		});
+		BudgetedJob<Integer> cancelled = executor.submit(List.of(1, 2), i -> fail("Cancelled job was processed."));
+		List<Integer> processed = new ArrayList<>();
+		BudgetedJob<Integer> job = executor.submit(List.of(1, 2), processed::add);
+		cancelled.cancel();
+
+		// A failed job does not keep the next jobs from running.
+		tick.run();
+		assertTrue(failed.getFuture().isCompletedExceptionally());
+		assertEquals(0, failed.getProcessed());
+		assertTrue(cancelled.isCancelled());
+		assertTrue(job.isDone());
+		assertEquals(List.of(1, 2), processed);
+	}
+
+	@Test
+	void testBudgetUsesServerTickTime() {
+		AtomicReference<Double> tickMillis = new AtomicReference<>(20.0);
+		BudgetedExecutor executor = new BudgetedExecutor(10_000_000L, tickMillis::get);
+		assertEquals(10_000_000L, executor.getBudgetNanos());
+
+		// Only the time that the tick has left is used, down to a tenth of the budget.
+		tickMillis.set(45.0);
+		assertEquals(5_000_000L, executor.getBudgetNanos());
+		tickMillis.set(80.0);
+		assertEquals(1_000_000L, executor.getBudgetNanos());
+
+		// Servers that do not measure their tick time fall back to the time between ticks.
+		tickMillis.set(-1.0);
+		assertEquals(10_000_000L, executor.getBudgetNanos());
+	}
+
+	private void captureTick() {
+		// Capture the Scheduler.sync().runRepeating() Runnable argument.
+		task = mock(Task.class);
+		when(syncScheduler.runRepeating(any(Runnable.class), anyLong(), anyLong())).thenAnswer(invocation -> {
+			tick = invocation.getArgument(0);
+			return task;
+		});
+	}
+}
@@ -0,0 +1,99 @@
+package me.colingrimes.midnight.scheduler.executor;
+
+import me.colingrimes.midnight.MockSetup;
+import me.colingrimes.midnight.scheduler.task.Task;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MainThreadExecutorTest extends MockSetup {
+
+	private Task task;
+	private Runnable drain;
+
+	@BeforeEach
+	void setUp() {
+		// Capture the Scheduler.sync().runRepeating() Runnable argument.
+		task = mock(Task.class);
+		when(syncScheduler.runRepeating(any(Runnable.class), anyLong(), anyLong())).thenAnswer(invocation -> {
+			drain = invocation.getArgument(0);
+			return task;
+		});
+	}
+
+	@Test
+	void testDrain() {
+		MainThreadExecutor executor = new MainThreadExecutor();
+		List<Integer> ran = new ArrayList<>();
+		executor.execute(() -> ran.add(1));
+		executor.execute(() -> ran.add(2));
+		assertEquals(2, executor.getQueued());
+		assertTrue(ran.isEmpty());
+
+		// Tasks run in order once the queue is drained, and a single task drains every tick.
+		drain.run();
+		assertEquals(List.of(1, 2), ran);
+		assertEquals(0, executor.getQueued());
+		verify(syncScheduler, times(1)).runRepeating(any(Runnable.class), anyLong(), anyLong());
+	}
+
+	@Test
+	void testTasksQueuedWhileDraining() {
+		MainThreadExecutor executor = new MainThreadExecutor();
+		List<Integer> ran = new ArrayList<>();
+		executor.execute(() -> {
+			ran.add(1);
+			executor.execute(() -> ran.add(2));
+		});
+
+		// The task queued while draining runs on the next tick.
+		drain.run();
+		assertEquals(List.of(1), ran);
+		assertEquals(1, executor.getQueued());
+		drain.run();
+		assertEquals(List.of(1, 2), ran);
+	}
+
+	@Test
+	void testFailedTask() {
+		MainThreadExecutor executor = new MainThreadExecutor();
+		List<Integer> ran = new ArrayList<>();
+		executor.execute(() -> {
+			throw new IllegalStateException("Task has failed.");
+		});
+		executor.execute(() -> ran.add(1));
+
+		// A failed task does not keep the next tasks from running.
+		drain.run();
+		assertEquals(List.of(1), ran);
+	}
+
+	@Test
+	void testCancelledTaskIsRestarted() {
+		MainThreadExecutor executor = new MainThreadExecutor();
+		executor.execute(() -> {});
+		when(task.isCancelled()).thenReturn(true);
+		executor.execute(() -> {});
+		verify(syncScheduler, times(2)).runRepeating(any(Runnable.class), anyLong(), anyLong());
+	}
+
+	@Test
+	void testCompletableFuture() {
+		MainThreadExecutor executor = new MainThreadExecutor();
+		CompletableFuture<Integer> future = CompletableFuture.completedFuture(1).thenApplyAsync(i -> i + 1, executor);
+		assertFalse(future.isDone());
+		drain.run();
+		assertEquals(2, future.join());
+	}
+}
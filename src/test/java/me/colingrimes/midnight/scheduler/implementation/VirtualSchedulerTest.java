@@ -0,0 +1,72 @@
+package me.colingrimes.midnight.scheduler.implementation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VirtualSchedulerTest {
+
+	@Test
+	void testCall() throws Exception {
+		VirtualScheduler scheduler = new VirtualScheduler();
+		assertEquals("result", scheduler.call(() -> "result").get(1, TimeUnit.SECONDS));
+		assertEquals(-1, scheduler.getAvailablePermits());
+	}
+
+	@Test
+	void testErrorCompletesFuture() {
+		VirtualScheduler scheduler = VirtualScheduler.limited(1);
+		CompletableFuture<Object> future = scheduler.call(() -> {
+			throw new AssertionError("Task has failed.");
+		});
+
+		ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(1, TimeUnit.SECONDS));
+		assertInstanceOf(AssertionError.class, e.getCause());
+
+		// The permit of the failed task is released.
+		assertEquals(1, scheduler.getAvailablePermits());
+	}
+
+	@Test
+	void testLimited() throws Exception {
+		VirtualScheduler scheduler = VirtualScheduler.limited(2);
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicInteger running = new AtomicInteger();
+		AtomicInteger maxRunning = new AtomicInteger();
+
+		List<CompletableFuture<Void>> futures = new ArrayList<>();
+		for (int i = 0; i < 6; i++) {
+			futures.add(scheduler.run(() -> {
+				maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+				release.await();
+				running.decrementAndGet();
+			}));
+		}
+
+		// Only two tasks start, the others wait for a permit.
+		long deadline = System.currentTimeMillis() + 1000;
+		while (scheduler.getAvailablePermits() > 0 && System.currentTimeMillis() < deadline) {
+			Thread.sleep(5);
+		}
+		Thread.sleep(50);
+		assertEquals(2, running.get());
+
+		release.countDown();
+		CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(1, TimeUnit.SECONDS);
+		assertEquals(2, maxRunning.get());
+		assertEquals(2, scheduler.getAvailablePermits());
+	}
+
+	@Test
+	void testLimitedMustBePositive() {
+		assertThrows(IllegalArgumentException.class, () -> VirtualScheduler.limited(0));
+	}
+}
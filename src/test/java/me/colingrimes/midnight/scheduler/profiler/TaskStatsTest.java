@@ -0,0 +1,58 @@
+package me.colingrimes.midnight.scheduler.profiler;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskStatsTest {
+
+	@AfterEach
+	void tearDown() {
+		TaskProfiler.setBudget(Duration.ofMillis(5));
+	}
+
+	@Test
+	void testBucket() {
+		assertEquals(0, TaskStats.bucket(0));
+		assertEquals(0, TaskStats.bucket(999));
+		assertEquals(1, TaskStats.bucket(1_000));
+		assertEquals(2, TaskStats.bucket(3_000));
+		assertEquals(TaskStats.BUCKETS - 1, TaskStats.bucket(Long.MAX_VALUE));
+	}
+
+	@Test
+	void testRecord() {
+		TaskProfiler.setBudget(Duration.ofMillis(5));
+		Runnable action = () -> {};
+		TaskStats stats = new TaskStats(action, false, null);
+		stats.record(Duration.ofMillis(1).toNanos());
+		stats.record(Duration.ofMillis(3).toNanos());
+		stats.record(Duration.ofMillis(20).toNanos());
+
+		TaskReport report = stats.report(7);
+		assertEquals(7, report.getTaskId());
+		assertEquals("Unknown", report.getOwner());
+		assertEquals(3, report.getRuns());
+		assertEquals(1, report.getOverruns());
+		assertEquals(Duration.ofMillis(24), report.getTotal());
+		assertEquals(Duration.ofMillis(8), report.getAverage());
+		assertEquals(Duration.ofMillis(20), report.getMax());
+		assertTrue(report.getCreationStack().isEmpty());
+	}
+
+	@Test
+	void testPercentile() {
+		TaskStats stats = new TaskStats(new Object(), true, null);
+		for (int i = 0; i < 99; i++) {
+			stats.record(Duration.ofNanos(500).toNanos());
+		}
+		stats.record(Duration.ofMillis(10).toNanos());
+
+		TaskReport report = stats.report(1);
+		assertEquals(Duration.ofNanos(1_000), report.getPercentile(0.5));
+		assertTrue(report.getPercentile(1.0).compareTo(Duration.ofMillis(10)) >= 0);
+	}
+}
@@ -0,0 +1,100 @@
+package me.colingrimes.midnight.scheduler.task;
+
+import me.colingrimes.midnight.MockSetup;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class TimedTaskTest extends MockSetup {
+
+	private static final long MILLIS = 1_000_000L;
+
+	// The current time of the task, in nanoseconds.
+	private final AtomicLong now = new AtomicLong(0);
+
+	@Test
+	void testCatchUp() {
+		TimedTask task = create(Duration.ZERO, null, RepeatPolicy.CATCH_UP);
+		tick(0);
+		assertEquals(1, task.getTimesRan());
+		tick(49 * MILLIS);
+		assertEquals(1, task.getTimesRan());
+
+		// Every run that was missed is executed on the next tick.
+		tick(200 * MILLIS);
+		assertEquals(5, task.getTimesRan());
+		tick(249 * MILLIS);
+		assertEquals(5, task.getTimesRan());
+	}
+
+	@Test
+	void testSkip() {
+		TimedTask task = create(Duration.ZERO, null, RepeatPolicy.SKIP);
+		tick(0);
+		assertEquals(1, task.getTimesRan());
+
+		// Missed runs are dropped, and the task stays on its original schedule.
+		tick(220 * MILLIS);
+		assertEquals(2, task.getTimesRan());
+		tick(249 * MILLIS);
+		assertEquals(2, task.getTimesRan());
+		tick(250 * MILLIS);
+		assertEquals(3, task.getTimesRan());
+	}
+
+	@Test
+	void testDelayAndCancel() {
+		TimedTask task = create(Duration.ofMillis(100), Duration.ofMillis(250), RepeatPolicy.CATCH_UP);
+		tick(0);
+		assertEquals(0, task.getTimesRan());
+		tick(100 * MILLIS);
+		assertEquals(1, task.getTimesRan());
+
+		// Runs that are due after the cancel time are never executed.
+		tick(1000 * MILLIS);
+		assertEquals(3, task.getTimesRan());
+		assertTrue(task.isCancelled());
+		tick(2000 * MILLIS);
+		assertEquals(3, task.getTimesRan());
+	}
+
+	@Test
+	void testStopDuringCatchUp() {
+		Consumer<Task> consumer = task -> {
+			if (task.getTimesRan() == 1) {
+				task.stop();
+			}
+		};
+		TimedTask task = new TimedTask(null, consumer, Duration.ZERO, Duration.ofMillis(50), null, RepeatPolicy.CATCH_UP, false, now::get);
+
+		// The remaining missed runs are not executed once the task has been stopped.
+		tick(500 * MILLIS);
+		assertEquals(2, task.getTimesRan());
+		assertTrue(task.isCancelled());
+	}
+
+	@Test
+	void testPeriodMustBePositive() {
+		assertThrows(IllegalArgumentException.class, () -> create(Duration.ZERO, null, RepeatPolicy.SKIP, Duration.ZERO));
+	}
+
+	private void tick(long nanos) {
+		now.set(nanos);
+		server.getScheduler().performOneTick();
+	}
+
+	private TimedTask create(Duration delay, Duration cancelAfter, RepeatPolicy policy) {
+		return create(delay, cancelAfter, policy, Duration.ofMillis(50));
+	}
+
+	private TimedTask create(Duration delay, Duration cancelAfter, RepeatPolicy policy, Duration period) {
+		return new TimedTask(() -> {}, null, delay, period, cancelAfter, policy, false, now::get);
+	}
+}
@@ -0,0 +1,166 @@
+package me.colingrimes.midnight.serialize;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonPrimitive;
+import me.colingrimes.midnight.MockSetup;
+import me.colingrimes.midnight.geometry.Position;
+import me.colingrimes.midnight.geometry.Region;
+import me.colingrimes.midnight.geometry.Rotation;
+import me.colingrimes.midnight.geometry.Size;
+import org.bukkit.World;
+import org.junit.jupiter.api.Test;
+
+import javax.annotation.Nonnull;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinaryTest extends MockSetup {
+
+	@Test
+	void testVarInts() throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(bytes);
+		int[] ints = { 0, 1, -1, 63, -64, 64, Integer.MAX_VALUE, Integer.MIN_VALUE };
+		long[] longs = { 0, -1, Long.MAX_VALUE, Long.MIN_VALUE };
+		for (int value : ints) {
+			Binary.writeVarInt(out, value);
+		}
+		for (long value : longs) {
+			Binary.writeVarLong(out, value);
+		}
+		Binary.writeString(out, "héllo");
+
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+		for (int value : ints) {
+			assertEquals(value, Binary.readVarInt(in));
+		}
+		for (long value : longs) {
+			assertEquals(value, Binary.readVarLong(in));
+		}
+		assertEquals("héllo", Binary.readString(in));
+	}
+
+	@Test
+	void testSmallNumbersUseOneByte() throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		Binary.writeVarInt(new DataOutputStream(bytes), -64);
+		assertEquals(1, bytes.size());
+	}
+
+	@Test
+	void testGeometryRoundTrip() {
+		Size size = Size.of(10, 256, 3);
+		byte[] bytes = Binary.toBytes(size);
+		assertEquals(size, Binary.fromBytes(Size.class, bytes));
+		assertTrue(bytes.length < Json.toString(size).length());
+
+		Rotation rotation = Rotation.of(90, 45, 10);
+		assertEquals(rotation, Binary.fromBytes(Rotation.class, Binary.toBytes(rotation)));
+
+		World world = server.addSimpleWorld("world");
+		Region region = Region.of(Position.of(world, 0, 0, 0), Position.of(world, 10, 20, 30));
+		assertEquals(region, Binary.fromBytes(Region.class, Binary.toBytes(region)));
+	}
+
+	@Test
+	void testJsonFallback() {
+		Name name = new Name("midnight");
+		assertEquals("midnight", Binary.fromBytes(Name.class, Binary.toBytes(name)).value);
+		assertThrows(IOException.class, () -> Binary.read(new DataInputStream(new ByteArrayInputStream(new byte[] { 9 })), Name.class));
+	}
+
+	@Test
+	void testVersions() throws IOException {
+		assertEquals(5, Binary.fromBytes(Counter.class, Binary.toBytes(new Counter(5))).count);
+
+		// Bytes written by an older version of the type can still be read.
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(bytes);
+		out.writeByte(1);
+		Binary.writeVarInt(out, 0);
+		out.writeInt(7);
+		assertEquals(7, Binary.fromBytes(Counter.class, bytes.toByteArray()).count);
+
+		// A newer version cannot be read by a type that only reads a single version.
+		assertThrows(UncheckedIOException.class, () -> Binary.fromBytes(Unversioned.class, Binary.toBytes(new Unversioned())));
+	}
+
+	public static class Counter implements BinarySerializable {
+		final int count;
+
+		Counter(int count) {
+			this.count = count;
+		}
+
+		@Override
+		public void writeTo(@Nonnull DataOutput out) throws IOException {
+			Binary.writeVarInt(out, count);
+		}
+
+		@Override
+		public int getBinaryVersion() {
+			return 1;
+		}
+
+		@Nonnull
+		public static Counter readFrom(@Nonnull DataInput in, int version) throws IOException {
+			// Version 0 wrote the count as a fixed-length int.
+			return new Counter(version == 0 ? in.readInt() : Binary.readVarInt(in));
+		}
+
+		@Nonnull
+		@Override
+		public JsonElement serialize() {
+			return new JsonPrimitive(count);
+		}
+	}
+
+	public static class Unversioned implements BinarySerializable {
+
+		@Override
+		public void writeTo(@Nonnull DataOutput out) {}
+
+		@Override
+		public int getBinaryVersion() {
+			return 1;
+		}
+
+		@Nonnull
+		public static Unversioned readFrom(@Nonnull DataInput in) {
+			return new Unversioned();
+		}
+
+		@Nonnull
+		@Override
+		public JsonElement serialize() {
+			return new JsonPrimitive(0);
+		}
+	}
+
+	public static class Name implements Serializable {
+		final String value;
+
+		Name(@Nonnull String value) {
+			this.value = value;
+		}
+
+		@Nonnull
+		@Override
+		public JsonElement serialize() {
+			return new JsonPrimitive(value);
+		}
+
+		@Nonnull
+		public static Name deserialize(@Nonnull JsonElement element) {
+			return new Name(element.getAsString());
+		}
+	}
+}
@@ -0,0 +1,69 @@
+package me.colingrimes.midnight.serialize;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonPrimitive;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import javax.annotation.Nonnull;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DeserializersTest {
+
+	@AfterEach
+	void tearDown() {
+		Deserializers.unregister(Name.class);
+	}
+
+	@Test
+	void testStaticMethod() {
+		assertEquals("midnight", Serializable.deserialize(Name.class, new JsonPrimitive("midnight")).value);
+		assertSame(Deserializers.get(Name.class), Deserializers.get(Name.class));
+	}
+
+	@Test
+	void testRegisteredDeserializer() {
+		Deserializers.register(Name.class, element -> new Name(element.getAsString().toUpperCase()));
+		assertEquals("MIDNIGHT", Serializable.deserialize(Name.class, new JsonPrimitive("midnight")).value);
+
+		Deserializers.unregister(Name.class);
+		assertEquals("midnight", Serializable.deserialize(Name.class, new JsonPrimitive("midnight")).value);
+	}
+
+	@Test
+	void testErrors() {
+		assertThrows(IllegalStateException.class, () -> Serializable.deserialize(Missing.class, new JsonPrimitive("midnight")));
+
+		// Exceptions thrown by the method are wrapped like before.
+		assertThrows(IllegalStateException.class, () -> Serializable.deserialize(Name.class, JsonNull.INSTANCE));
+	}
+
+	public static class Name implements Serializable {
+		final String value;
+
+		Name(@Nonnull String value) {
+			this.value = value;
+		}
+
+		@Nonnull
+		@Override
+		public JsonElement serialize() {
+			return new JsonPrimitive(value);
+		}
+
+		@Nonnull
+		public static Name deserialize(@Nonnull JsonElement element) {
+			return new Name(element.getAsString());
+		}
+	}
+
+	public static class Missing implements Serializable {
+		@Nonnull
+		@Override
+		public JsonElement serialize() {
+			return new JsonPrimitive("missing");
+		}
+	}
+}
@@ -0,0 +1,116 @@
+package me.colingrimes.midnight.serialize;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import org.junit.jupiter.api.Test;
+
+import javax.annotation.Nonnull;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonTest {
+
+	@Test
+	void testStreamedJsonMatchesTree() {
+		Kill kill = new Kill("Colin", 3);
+		assertEquals(Json.toString(kill.serialize()), Json.toString(kill));
+		assertEquals(Json.toStringPretty(kill.serialize()), Json.toStringPretty(kill));
+	}
+
+	@Test
+	void testHtmlCharacters() {
+		Kill kill = new Kill("<Colin> & 'Midnight' = \"1\"", 3);
+		assertEquals(Json.toString(kill.serialize()), Json.toString(kill));
+		assertEquals(Json.toStringPretty(kill.serialize()), Json.toStringPretty(kill));
+		assertFalse(Json.toString(kill).contains("<"));
+		assertEquals(kill.player, Json.read(Kill.class, new StringReader(Json.toString(kill))).player);
+	}
+
+	@Test
+	void testReadFromStream() {
+		Kill kill = Json.read(Kill.class, new StringReader("{\"player\":\"Colin\",\"ignored\":[1,2],\"kills\":3}"));
+		assertTrue(kill.streamed);
+		assertEquals("Colin", kill.player);
+		assertEquals(3, kill.kills);
+	}
+
+	@Test
+	void testReadFallsBackToDeserialize() {
+		DeserializersTest.Name name = Json.read(DeserializersTest.Name.class, new StringReader("\"midnight\""));
+		assertEquals("midnight", name.value);
+	}
+
+	@Test
+	void testWriteToOutputStream() {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		Json.write(new Kill("C\u00f6lin", 1), out);
+
+		Kill kill = Json.read(Kill.class, new StringReader(out.toString(StandardCharsets.UTF_8)));
+		assertEquals("C\u00f6lin", kill.player);
+		assertEquals(1, kill.kills);
+	}
+
+	@Test
+	void testToElementFromReader() {
+		StringWriter writer = new StringWriter();
+		Json.write(new Kill("Colin", 2), writer);
+		assertEquals(2, Json.toElement(new StringReader(writer.toString())).getAsJsonObject().get("kills").getAsInt());
+	}
+
+	public static class Kill implements StreamSerializable {
+		final String player;
+		final int kills;
+		boolean streamed = false;
+
+		Kill(@Nonnull String player, int kills) {
+			this.player = player;
+			this.kills = kills;
+		}
+
+		@Nonnull
+		@Override
+		public JsonElement serialize() {
+			return Json.create().add("player", player).add("kills", kills).build();
+		}
+
+		@Nonnull
+		public static Kill deserialize(@Nonnull JsonElement element) {
+			JsonObject object = element.getAsJsonObject();
+			return new Kill(object.get("player").getAsString(), object.get("kills").getAsInt());
+		}
+
+		@Override
+		public void writeTo(@Nonnull JsonWriter out) throws IOException {
+			out.beginObject();
+			out.name("player").value(player);
+			out.name("kills").value(kills);
+			out.endObject();
+		}
+
+		@Nonnull
+		public static Kill readFrom(@Nonnull JsonReader in) throws IOException {
+			String player = null;
+			int kills = 0;
+			in.beginObject();
+			while (in.hasNext()) {
+				switch (in.nextName()) {
+					case "player" -> player = in.nextString();
+					case "kills" -> kills = in.nextInt();
+					default -> in.skipValue();
+				}
+			}
+			in.endObject();
+
+			Kill kill = new Kill(player, kills);
+			kill.streamed = true;
+			return kill;
+		}
+	}
+}
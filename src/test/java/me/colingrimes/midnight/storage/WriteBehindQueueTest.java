@@ -0,0 +1,78 @@
+package me.colingrimes.midnight.storage;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WriteBehindQueueTest {
+
+	@Test
+	void testCoalescing() throws Exception {
+		WriteBehindQueue<String, String> queue = new WriteBehindQueue<>();
+		queue.save("a", "first");
+		queue.save("a", "second");
+		queue.delete("b", "deleted");
+		assertEquals(2, queue.size());
+
+		queue.flush(writes -> {
+			assertEquals("second", writes.get("a").getData());
+			assertTrue(writes.get("b").isDelete());
+			return List.of();
+		});
+		assertEquals(0, queue.size());
+		assertEquals(Optional.empty(), queue.get("a"));
+	}
+
+	@Test
+	void testVisibleWhileWriting() throws Exception {
+		WriteBehindQueue<String, String> queue = new WriteBehindQueue<>();
+		queue.delete("a", "deleted");
+
+		queue.flush(writes -> {
+			// A read during the write still sees the delete instead of falling through to the storage.
+			assertTrue(queue.get("a").map(WriteBehindQueue.Write::isDelete).orElse(false));
+			return List.of();
+		});
+		assertEquals(Optional.empty(), queue.get("a"));
+	}
+
+	@Test
+	void testFailedWritesAreQueuedAgain() throws Exception {
+		WriteBehindQueue<String, String> queue = new WriteBehindQueue<>();
+		queue.save("a", "a");
+		queue.save("b", "b");
+		queue.save("c", "c");
+
+		queue.flush(writes -> {
+			// A newer write queued during the flush replaces the failed one.
+			queue.save("b", "newer");
+			return List.of("a", "b");
+		});
+		assertEquals(2, queue.size());
+		assertEquals("a", queue.get("a").orElseThrow().getData());
+		assertEquals("newer", queue.get("b").orElseThrow().getData());
+
+		assertThrows(IllegalStateException.class, () -> queue.flush(writes -> {
+			throw new IllegalStateException("Database is down.");
+		}));
+		assertEquals(2, queue.size());
+	}
+
+	@Test
+	void testClose() throws Exception {
+		WriteBehindQueue<String, String> queue = new WriteBehindQueue<>();
+		queue.save("a", "a");
+		queue.close();
+		assertThrows(IllegalStateException.class, () -> queue.save("b", "b"));
+
+		// Writes queued before the queue was closed can still be flushed.
+		queue.flush(Map::keySet);
+		assertEquals(1, queue.size());
+		queue.flush(writes -> List.of());
+		assertEquals(0, queue.size());
+	}
+}
@@ -10,10 +10,12 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.time.Instant;
+import java.util.List;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -104,4 +106,36 @@ class DatabaseUtilsTest {
 		assertNull(DatabaseUtils.getTimestamp(DatabaseType.POSTGRESQL, resultSet, "timestamp"));
 		assertNull(DatabaseUtils.getUUID(DatabaseType.POSTGRESQL, resultSet, "uuid"));
 	}
+
+	@Test
+	void testInsert() {
+		assertEquals("INSERT INTO 'players' ('uuid', 'name') VALUES (?, ?), (?, ?)", DatabaseUtils.insert("players", List.of("uuid", "name"), 2));
+		assertThrows(IllegalArgumentException.class, () -> DatabaseUtils.insert("players", List.of(), 1));
+	}
+
+	@Test
+	void testUpsert() {
+		List<String> keys = List.of("uuid");
+		List<String> columns = List.of("uuid", "name", "kills");
+
+		assertEquals("INSERT INTO 'players' ('uuid', 'name', 'kills') VALUES (?, ?, ?) ON DUPLICATE KEY UPDATE 'name' = VALUES('name'), 'kills' = VALUES('kills')",
+				DatabaseUtils.upsert(DatabaseType.MYSQL, "players", keys, columns));
+		assertEquals("INSERT INTO 'players' ('uuid', 'name', 'kills') VALUES (?, ?, ?), (?, ?, ?) ON CONFLICT ('uuid') DO UPDATE SET 'name' = excluded.'name', 'kills' = excluded.'kills'",
+				DatabaseUtils.upsert(DatabaseType.POSTGRESQL, "players", keys, columns, 2));
+		assertEquals("INSERT INTO 'players' ('uuid') VALUES (?) ON CONFLICT ('uuid') DO NOTHING",
+				DatabaseUtils.upsert(DatabaseType.SQLITE, "players", keys, keys));
+		assertThrows(IllegalArgumentException.class, () -> DatabaseUtils.upsert(DatabaseType.SQLITE, "players", List.of("id"), columns));
+	}
+
+	@Test
+	void testDistinctByKey() {
+		List<String> rows = List.of("a1", "b1", "a2", "c1", "b2");
+		assertEquals(List.of("a2", "b2", "c1"), DatabaseUtils.distinctByKey(rows, row -> row.charAt(0)));
+	}
+
+	@Test
+	void testGetMaxRows() {
+		assertEquals(333, DatabaseUtils.getMaxRows(DatabaseType.SQLITE, 3));
+		assertEquals(21845, DatabaseUtils.getMaxRows(DatabaseType.POSTGRESQL, 3));
+	}
 }
@@ -0,0 +1,31 @@
+package me.colingrimes.midnight.storage.database;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HexFormat;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UUIDFormatTest {
+
+	@Test
+	void testRoundTrip() {
+		UUID uuid = UUID.randomUUID();
+		for (UUIDFormat format : UUIDFormat.values()) {
+			if (format.isBinary()) {
+				assertEquals(uuid, format.fromBytes(format.toBytes(uuid)));
+			}
+		}
+		assertNull(UUIDFormat.BINARY.fromBytes(null));
+		assertThrows(IllegalArgumentException.class, () -> UUIDFormat.BINARY.fromBytes(new byte[4]));
+	}
+
+	@Test
+	void testOrderedLayout() {
+		// Same layout as UUID_TO_BIN('6ccd780c-baba-1026-9564-5b8c656024db', 1) in MySQL.
+		UUID uuid = UUID.fromString("6ccd780c-baba-1026-9564-5b8c656024db");
+		assertEquals("6ccd780cbaba102695645b8c656024db", HexFormat.of().formatHex(UUIDFormat.BINARY.toBytes(uuid)));
+		assertEquals("1026baba6ccd780c95645b8c656024db", HexFormat.of().formatHex(UUIDFormat.ORDERED_BINARY.toBytes(uuid)));
+	}
+}
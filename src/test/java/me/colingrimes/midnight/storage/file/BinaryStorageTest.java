@@ -0,0 +1,68 @@
+package me.colingrimes.midnight.storage.file;
+
+import me.colingrimes.midnight.Midnight;
+import me.colingrimes.midnight.MockSetup;
+import me.colingrimes.midnight.storage.file.composite.Identifier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinaryStorageTest extends MockSetup {
+
+	private File file;
+
+	@BeforeEach
+	void setUp() {
+		file = new File(plugin.getDataFolder(), "players.bin");
+		file.delete();
+	}
+
+	@Test
+	void testFileHasHeader() throws Exception {
+		TestStorage storage = new TestStorage(plugin);
+		storage.save(new PlayerData("a", 1));
+		storage.save(new PlayerData("b", 2));
+		storage.shutdown();
+
+		byte[] bytes = Files.readAllBytes(file.toPath());
+		assertEquals("MNB1", new String(Arrays.copyOf(bytes, 4), StandardCharsets.US_ASCII));
+		assertEquals(2, new TestStorage(plugin).read(Identifier.internalPath("b")).map(p -> p.kills).orElse(-1));
+	}
+
+	@Test
+	void testRejectsOtherFiles() throws Exception {
+		Files.writeString(file.toPath(), "not binary");
+		TestStorage storage = new TestStorage(plugin);
+		assertThrows(UncheckedIOException.class, () -> storage.read(Identifier.internalPath("a")));
+	}
+
+	private static class TestStorage extends BinaryStorage<PlayerData> {
+
+		TestStorage(@Nonnull Midnight plugin) {
+			super(plugin, PlayerData.class);
+		}
+
+		@Override
+		protected void process(@Nonnull PlayerData data) {}
+
+		@Nullable
+		@Override
+		protected String getDefaultFileName() {
+			return "players.bin";
+		}
+
+		@Override
+		protected void configureIdentifier(@Nonnull Identifier identifier, @Nonnull PlayerData data) {
+			PlayerData.configure(identifier, data);
+		}
+	}
+}
@@ -0,0 +1,163 @@
+package me.colingrimes.midnight.storage.file;
+
+import me.colingrimes.midnight.Midnight;
+import me.colingrimes.midnight.MockSetup;
+import me.colingrimes.midnight.scheduler.Scheduler;
+import me.colingrimes.midnight.scheduler.implementation.VirtualScheduler;
+import me.colingrimes.midnight.storage.file.composite.Identifier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the behaviour that every {@link DocumentStorage} shares, using the JSON format.
+ */
+class DocumentStorageTest extends MockSetup {
+
+	private File file;
+
+	@BeforeEach
+	void setUp() {
+		file = new File(plugin.getDataFolder(), "players.json");
+		file.delete();
+		for (String directory : List.of("unique", "shards")) {
+			File[] files = new File(plugin.getDataFolder(), directory).listFiles();
+			if (files != null) {
+				for (File shard : files) {
+					shard.delete();
+				}
+			}
+		}
+	}
+
+	@Test
+	void testSaveIsFlushed() throws Exception {
+		TestStorage storage = new TestStorage(plugin);
+		storage.save(new PlayerData("a", 1));
+		storage.save(new PlayerData("b", 2));
+		storage.save(new PlayerData("a", 3));
+
+		// Saves are only kept in memory until the storage is flushed.
+		assertEquals(0, file.length());
+		assertEquals(3, storage.read(Identifier.internalPath("a")).map(p -> p.kills).orElse(-1));
+		storage.shutdown();
+		assertTrue(file.length() > 0);
+		assertFalse(new File(plugin.getDataFolder(), "players.json.tmp").exists());
+
+		TestStorage reloaded = new TestStorage(plugin);
+		reloaded.loadAll();
+		assertEquals(List.of("a", "b"), reloaded.processed.stream().map(p -> p.name).toList());
+		assertEquals(3, reloaded.read(Identifier.internalPath("a")).map(p -> p.kills).orElse(-1));
+	}
+
+	@Test
+	void testDeleteFromDefaultFile() throws Exception {
+		TestStorage storage = new TestStorage(plugin);
+		storage.saveAll(List.of(new PlayerData("a", 1), new PlayerData("b", 2), new PlayerData("c", 3))).join();
+		storage.flush();
+		storage.delete(new PlayerData("b", 2));
+		storage.shutdown();
+
+		TestStorage reloaded = new TestStorage(plugin);
+		reloaded.loadAll();
+		assertEquals(List.of("a", "c"), reloaded.processed.stream().map(p -> p.name).toList());
+	}
+
+	@Test
+	void testDeleteUniqueFile() throws Exception {
+		TestStorage storage = new TestStorage(plugin);
+		PlayerData written = new PlayerData("unique1", 1);
+		storage.save(written);
+		storage.flush();
+
+		File writtenFile = new File(plugin.getDataFolder(), "unique/unique1.json");
+		assertEquals(1, new TestStorage(plugin).read(Identifier.fileName("unique/unique1")).map(p -> p.kills).orElse(-1));
+		storage.delete(written);
+		assertFalse(writtenFile.exists());
+
+		// A unique file that is deleted before it is written is never written.
+		PlayerData unwritten = new PlayerData("unique2", 2);
+		storage.save(unwritten);
+		storage.delete(unwritten);
+		storage.shutdown();
+		assertFalse(writtenFile.exists());
+		assertFalse(new File(plugin.getDataFolder(), "unique/unique2.json").exists());
+	}
+
+	@Test
+	void testWrittenFilesAreDropped() throws Exception {
+		TestStorage storage = new TestStorage(plugin);
+		storage.save(new PlayerData("player1", 1));
+		storage.flush();
+
+		// Once written, files other than the default file are parsed again when they are read.
+		TestStorage other = new TestStorage(plugin);
+		other.save(new PlayerData("player1", 2));
+		other.flush();
+		assertEquals(2, storage.read(Identifier.of("shards/player1", "player1")).map(p -> p.kills).orElse(-1));
+	}
+
+	@Test
+	void testLoadShards() throws Exception {
+		scheduler.when(Scheduler::virtual).thenReturn(new VirtualScheduler());
+		scheduler.when(Scheduler::mainThread).thenReturn((Executor) Runnable::run);
+
+		TestStorage saved = new TestStorage(plugin);
+		for (int i = 0; i < 100; i++) {
+			saved.save(new PlayerData("player" + i, i));
+		}
+		saved.shutdown();
+		Files.writeString(new File(plugin.getDataFolder(), "shards/ignored.txt").toPath(), "not json");
+
+		TestStorage storage = new TestStorage(plugin);
+		assertEquals(100, storage.loadShards().get(5, TimeUnit.SECONDS));
+		assertEquals(4950, storage.processed.stream().mapToInt(p -> p.kills).sum());
+
+		// Shards with unwritten changes are read from memory.
+		storage.save(new PlayerData("player0", 100));
+		storage.processed.clear();
+		assertEquals(100, storage.loadShards().get(5, TimeUnit.SECONDS));
+		assertEquals(5050, storage.processed.stream().mapToInt(p -> p.kills).sum());
+	}
+
+	static class TestStorage extends JsonStorage<PlayerData> {
+		final List<PlayerData> processed = Collections.synchronizedList(new ArrayList<>());
+
+		TestStorage(@Nonnull Midnight plugin) {
+			super(plugin, PlayerData.class);
+		}
+
+		@Override
+		protected void process(@Nonnull PlayerData data) {
+			processed.add(data);
+		}
+
+		@Nullable
+		@Override
+		protected String getDefaultFileName() {
+			return "players.json";
+		}
+
+		@Nullable
+		@Override
+		protected String getShardDirectory() {
+			return "shards";
+		}
+
+		@Override
+		protected void configureIdentifier(@Nonnull Identifier identifier, @Nonnull PlayerData data) {
+			PlayerData.configure(identifier, data);
+		}
+	}
+}
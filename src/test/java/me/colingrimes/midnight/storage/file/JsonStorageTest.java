@@ -0,0 +1,54 @@
+package me.colingrimes.midnight.storage.file;
+
+import com.google.gson.JsonObject;
+import me.colingrimes.midnight.MockSetup;
+import me.colingrimes.midnight.serialize.Json;
+import me.colingrimes.midnight.storage.file.DocumentStorageTest.TestStorage;
+import me.colingrimes.midnight.storage.file.composite.Identifier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonStorageTest extends MockSetup {
+
+	private File file;
+
+	@BeforeEach
+	void setUp() {
+		file = new File(plugin.getDataFolder(), "players.json");
+		file.delete();
+	}
+
+	@Test
+	void testFileIsRootObject() throws Exception {
+		TestStorage storage = new TestStorage(plugin);
+		storage.save(new PlayerData("a", 1));
+		storage.save(new PlayerData("b", 2));
+		storage.save(new PlayerData("a", 3));
+		storage.shutdown();
+
+		JsonObject root = Json.toElement(Files.readString(file.toPath())).getAsJsonObject();
+		assertEquals(2, root.size());
+		assertEquals(3, root.getAsJsonObject("a").get("kills").getAsInt());
+	}
+
+	@Test
+	void testReadsEveryRootEntry() throws Exception {
+		Files.writeString(file.toPath(), """
+				{
+				  "a": { "name": "a", "kills": 1 },
+				  "b": { "name": "b", "kills": 2 }
+				}
+				""");
+
+		TestStorage storage = new TestStorage(plugin);
+		storage.loadAll();
+		assertEquals(List.of("a", "b"), storage.processed.stream().map(p -> p.name).toList());
+		assertEquals(2, storage.read(Identifier.internalPath("b")).map(p -> p.kills).orElse(-1));
+	}
+}
@@ -0,0 +1,69 @@
+package me.colingrimes.midnight.storage.file;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import me.colingrimes.midnight.serialize.Binary;
+import me.colingrimes.midnight.serialize.BinarySerializable;
+import me.colingrimes.midnight.serialize.Json;
+import me.colingrimes.midnight.storage.file.composite.Identifier;
+
+import javax.annotation.Nonnull;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * The data stored by the file storage tests.
+ * <p>
+ * Data whose name starts with "unique" is the whole contents of its own file, data whose name starts with "player"
+ * is stored in its own shard, and any other data is stored in the default file.
+ */
+public class PlayerData implements BinarySerializable {
+
+	final String name;
+	final int kills;
+
+	PlayerData(@Nonnull String name, int kills) {
+		this.name = name;
+		this.kills = kills;
+	}
+
+	/**
+	 * Configures the identifier of the data for a test storage.
+	 *
+	 * @param identifier the identifier
+	 * @param data the data
+	 */
+	static void configure(@Nonnull Identifier identifier, @Nonnull PlayerData data) {
+		if (data.name.startsWith("unique")) {
+			identifier.setFileName("unique/" + data.name);
+			return;
+		} else if (data.name.startsWith("player")) {
+			identifier.setFileName("shards/" + data.name);
+		}
+		identifier.setInternalPath(data.name);
+	}
+
+	@Override
+	public void writeTo(@Nonnull DataOutput out) throws IOException {
+		Binary.writeString(out, name);
+		Binary.writeVarInt(out, kills);
+	}
+
+	@Nonnull
+	public static PlayerData readFrom(@Nonnull DataInput in) throws IOException {
+		return new PlayerData(Binary.readString(in), Binary.readVarInt(in));
+	}
+
+	@Nonnull
+	@Override
+	public JsonElement serialize() {
+		return Json.create().add("name", name).add("kills", kills).build();
+	}
+
+	@Nonnull
+	public static PlayerData deserialize(@Nonnull JsonElement element) {
+		JsonObject object = element.getAsJsonObject();
+		return new PlayerData(object.get("name").getAsString(), object.get("kills").getAsInt());
+	}
+}
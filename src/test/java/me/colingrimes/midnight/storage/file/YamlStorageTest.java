@@ -0,0 +1,65 @@
+package me.colingrimes.midnight.storage.file;
+
+import me.colingrimes.midnight.Midnight;
+import me.colingrimes.midnight.MockSetup;
+import me.colingrimes.midnight.storage.file.composite.Identifier;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.File;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class YamlStorageTest extends MockSetup {
+
+	private File file;
+
+	@BeforeEach
+	void setUp() {
+		file = new File(plugin.getDataFolder(), "players.yml");
+		file.delete();
+	}
+
+	@Test
+	void testFileIsKeyedByPath() throws Exception {
+		TestStorage storage = new TestStorage(plugin);
+		storage.save(new PlayerData("a", 1));
+		storage.save(new PlayerData("b", 2));
+		storage.shutdown();
+
+		YamlConfiguration config = YamlConfiguration.loadConfiguration(file);
+		assertTrue(config.isString("a"));
+		assertTrue(config.isString("b"));
+		assertEquals(2, new TestStorage(plugin).read(Identifier.internalPath("b")).map(p -> p.kills).orElse(-1));
+	}
+
+	@Test
+	void testRequiresInternalPath() {
+		TestStorage storage = new TestStorage(plugin);
+		assertThrows(IllegalArgumentException.class, () -> storage.save(new PlayerData("unique1", 1)));
+	}
+
+	private static class TestStorage extends YamlStorage<PlayerData> {
+
+		TestStorage(@Nonnull Midnight plugin) {
+			super(plugin, PlayerData.class);
+		}
+
+		@Override
+		protected void process(@Nonnull PlayerData data) {}
+
+		@Nullable
+		@Override
+		protected String getDefaultFileName() {
+			return "players.yml";
+		}
+
+		@Override
+		protected void configureIdentifier(@Nonnull Identifier identifier, @Nonnull PlayerData data) {
+			PlayerData.configure(identifier, data);
+		}
+	}
+}
@@ -0,0 +1,42 @@
+package me.colingrimes.midnight.storage.sql;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QueryTest {
+
+	@Test
+	void testSelect() {
+		Query query = Query.select("players").columns("name", "kills").where("uuid").orderBy("kills", true).limit(10).build();
+		assertEquals("SELECT 'name', 'kills' FROM 'players' WHERE 'uuid' = ? ORDER BY 'kills' DESC LIMIT 10", query.getRaw());
+		assertEquals(1, query.getParameters());
+	}
+
+	@Test
+	void testInsertUpdateDelete() {
+		assertEquals("INSERT INTO 'players' ('uuid', 'name') VALUES (?, ?)", Query.insert("players").columns("uuid", "name").build().getRaw());
+		assertEquals("UPDATE 'players' SET 'name' = ? WHERE 'uuid' = ?", Query.update("players").columns("name").where("uuid").build().getRaw());
+		assertEquals("DELETE FROM 'players' WHERE 'uuid' = ? AND 'world' = ?", Query.delete("players").where("uuid", "world").build().getRaw());
+		assertThrows(IllegalStateException.class, () -> Query.insert("players").build());
+	}
+
+	@Test
+	void testProcessIsCached() {
+		AtomicInteger calls = new AtomicInteger();
+		Function<String, String> processor = s -> {
+			calls.incrementAndGet();
+			return s.replace('\'', '`');
+		};
+
+		Query query = Query.select("players").where("uuid").build();
+		assertEquals("SELECT * FROM `players` WHERE `uuid` = ?", query.process(processor));
+		assertEquals("SELECT * FROM `players` WHERE `uuid` = ?", query.process(processor));
+		assertEquals(1, calls.get());
+
+		assertEquals("SELECT * FROM \"players\" WHERE \"uuid\" = ?", query.process(s -> s.replace('\'', '"')));
+	}
+}
@@ -0,0 +1,345 @@
+package me.colingrimes.midnight.storage.sql;
+
+import me.colingrimes.midnight.Midnight;
+import me.colingrimes.midnight.MockSetup;
+import me.colingrimes.midnight.scheduler.implementation.VirtualScheduler;
+import me.colingrimes.midnight.storage.database.UUIDFormat;
+import me.colingrimes.midnight.storage.sql.connection.ConnectionProvider;
+import me.colingrimes.midnight.storage.sql.connection.file.WalSqliteConnectionProvider;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.annotation.Nonnull;
+import java.io.File;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SqlStorageTest extends MockSetup {
+
+	private static final Query SELECT_PLAYERS = Query.select("players").columns("uuid", "kills").orderBy("kills", true).build();
+
+	private WalSqliteConnectionProvider provider;
+	private TestStorage storage;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		provider = new WalSqliteConnectionProvider(plugin, "test_storage", 1, 100);
+		provider.init();
+		storage = new TestStorage(plugin, provider);
+
+		try (Connection connection = provider.getConnection(); Statement statement = connection.createStatement()) {
+			statement.execute("DROP TABLE IF EXISTS players");
+			statement.execute("CREATE TABLE players (uuid TEXT PRIMARY KEY, kills INTEGER)");
+			for (int i = 0; i < 100; i++) {
+				statement.execute("INSERT INTO players VALUES ('" + UUID.randomUUID() + "', " + i + ")");
+			}
+		}
+	}
+
+	@AfterEach
+	void tearDown() {
+		provider.shutdown();
+	}
+
+	@Test
+	void testStream() throws SQLException {
+		try (Stream<PlayerRow> rows = storage.stream(SELECT_PLAYERS, row -> new PlayerRow(row.getUUID("uuid"), row.getInt("kills")))) {
+			List<PlayerRow> top = rows.limit(3).toList();
+			assertEquals(List.of(99, 98, 97), top.stream().map(p -> p.kills).toList());
+			assertNotNull(top.get(0).uuid);
+		}
+
+		// The read connection is returned once the stream is closed.
+		assertEquals(0, provider.getActiveConnections());
+	}
+
+	@Test
+	void testStreamWithParameters() throws SQLException {
+		Query query = Query.of("SELECT 'kills' FROM 'players' WHERE 'kills' >= ?");
+		try (Stream<Integer> kills = storage.stream(query, row -> row.getInt("kills"), 90)) {
+			assertEquals(10, kills.count());
+		}
+		assertThrows(IllegalArgumentException.class, () -> storage.stream(query, row -> row.getInt("kills"), 1, 2));
+		assertEquals(0, provider.getActiveConnections());
+	}
+
+	@Test
+	void testMigrateUUIDs() throws SQLException {
+		List<UUID> before;
+		try (Stream<UUID> uuids = storage.stream(SELECT_PLAYERS, row -> row.getUUID("uuid"))) {
+			before = uuids.toList();
+		}
+
+		try (Connection connection = provider.getConnection()) {
+			assertEquals(100, storage.migrateUUIDs(connection, "players", "uuid", UUIDFormat.STRING, UUIDFormat.ORDERED_BINARY));
+		}
+
+		storage.setUUIDFormat(UUIDFormat.ORDERED_BINARY);
+		try (Stream<UUID> uuids = storage.stream(SELECT_PLAYERS, row -> row.getUUID("uuid"))) {
+			assertEquals(before, uuids.toList());
+		}
+	}
+
+	@Test
+	void testUUIDParameter() throws SQLException {
+		UUID first;
+		try (Stream<UUID> uuids = storage.stream(SELECT_PLAYERS, row -> row.getUUID("uuid"))) {
+			first = uuids.findFirst().orElseThrow();
+		}
+
+		try (Connection connection = provider.getConnection()) {
+			storage.migrateUUIDs(connection, "players", "uuid", UUIDFormat.STRING, UUIDFormat.ORDERED_BINARY);
+		}
+
+		// UUID parameters are set in the format of the storage.
+		storage.setUUIDFormat(UUIDFormat.ORDERED_BINARY);
+		Query query = Query.of("SELECT 'kills' FROM 'players' WHERE 'uuid' = ?");
+		try (Stream<Integer> kills = storage.stream(query, row -> row.getInt("kills"), first)) {
+			assertEquals(List.of(99), kills.toList());
+		}
+	}
+
+	@Test
+	void testLegacyMigrateOnlyRunsWhenOverridden() throws Exception {
+		String versionTable = plugin.getName().toLowerCase() + "_version";
+		try (Connection connection = provider.getConnection(); Statement statement = connection.createStatement()) {
+			statement.execute("DROP TABLE IF EXISTS " + versionTable);
+		}
+
+		storage.init();
+		try (Connection connection = provider.getReadConnection()) {
+			assertFalse(hasTable(connection, versionTable));
+		}
+
+		new TestStorage(plugin, provider) {
+			@Override
+			protected void migrate(@Nonnull Connection connection, int version) {}
+		}.init();
+		try (Connection connection = provider.getReadConnection()) {
+			assertTrue(hasTable(connection, versionTable));
+		}
+	}
+
+	@Test
+	void testQueuedWritesAreBatched() throws SQLException {
+		KeyedStorage queued = new KeyedStorage(plugin, provider);
+		PlayerRow player = new PlayerRow(UUID.randomUUID(), 1);
+		PlayerRow deleted = new PlayerRow(UUID.randomUUID(), 1);
+		queued.queueSave(player);
+		queued.queueSave(deleted);
+		queued.queueDelete(deleted);
+		queued.queueSave(new PlayerRow(player.uuid, 2));
+		for (int i = 0; i < 4; i++) {
+			queued.queueSave(new PlayerRow(UUID.randomUUID(), 1000 + i));
+		}
+		assertEquals(6, queued.getQueuedWrites());
+
+		// 5 saves in batches of 2 and a single delete.
+		queued.flush();
+		assertEquals(0, queued.getQueuedWrites());
+		assertEquals(4, queued.batches);
+		try (Connection connection = provider.getReadConnection()) {
+			assertEquals(2, getKills(connection, player.uuid));
+			assertEquals(-1, getKills(connection, deleted.uuid));
+		}
+	}
+
+	@Test
+	void testFailedFlushIsQueuedAgain() throws SQLException {
+		KeyedStorage queued = new KeyedStorage(plugin, provider);
+		PlayerRow player = new PlayerRow(UUID.randomUUID(), 5);
+		queued.queueSave(player);
+
+		try (Connection connection = provider.getConnection(); Statement statement = connection.createStatement()) {
+			statement.execute("ALTER TABLE players RENAME TO players_old");
+		}
+		queued.flush();
+		assertEquals(1, queued.getQueuedWrites());
+
+		try (Connection connection = provider.getConnection(); Statement statement = connection.createStatement()) {
+			statement.execute("ALTER TABLE players_old RENAME TO players");
+		}
+		queued.flush();
+		assertEquals(0, queued.getQueuedWrites());
+		try (Connection connection = provider.getReadConnection()) {
+			assertEquals(5, getKills(connection, player.uuid));
+		}
+	}
+
+	@Test
+	void testShutdownFlushesQueuedWrites() throws SQLException {
+		KeyedStorage queued = new KeyedStorage(plugin, provider);
+		PlayerRow player = new PlayerRow(UUID.randomUUID(), 7);
+		queued.queueSave(player);
+		queued.shutdown();
+		assertThrows(IllegalStateException.class, () -> queued.queueSave(player));
+
+		File file = new File(plugin.getDataFolder(), "test_storage.db");
+		try (Connection connection = DriverManager.getConnection("jdbc:sqlite:" + file)) {
+			assertEquals(7, getKills(connection, player.uuid));
+		}
+	}
+
+	@Test
+	void testLoadMany() throws Exception {
+		KeyedStorage keyed = new KeyedStorage(plugin, provider);
+		PlayerRow first = new PlayerRow(UUID.randomUUID(), 500);
+		PlayerRow second = new PlayerRow(UUID.randomUUID(), 600);
+		keyed.saveAll(List.of(first, second)).get();
+
+		// Keys without a row are left out, and the three keys are loaded in chunks of two.
+		List<PlayerRow> loaded = keyed.loadMany(List.of(second.uuid, UUID.randomUUID(), first.uuid)).get();
+		assertEquals(2, keyed.queries);
+		assertEquals(List.of(second.uuid, first.uuid), loaded.stream().map(p -> p.uuid).toList());
+		assertEquals(List.of(600, 500), loaded.stream().map(p -> p.kills).toList());
+		assertEquals(0, provider.getActiveConnections());
+	}
+
+	@Test
+	void testLoadAll() throws Exception {
+		KeyedStorage keyed = new KeyedStorage(plugin, provider);
+		List<PlayerRow> loaded = new ArrayList<>();
+		keyed.loadAll(loaded::add).get();
+
+		assertEquals(100, loaded.size());
+		assertEquals(4950, loaded.stream().mapToInt(p -> p.kills).sum());
+		assertEquals(0, provider.getActiveConnections());
+	}
+
+	@Test
+	void testSchedulerIsLimitedToConnections() throws Exception {
+		// One reader and the writer of the provider.
+		VirtualScheduler scheduler = assertInstanceOf(VirtualScheduler.class, storage.getScheduler());
+		assertEquals(2, scheduler.getAvailablePermits());
+
+		List<Integer> kills = new ArrayList<>();
+		storage.query(SELECT_PLAYERS, row -> row.getInt("kills"), kills::add).get();
+		assertEquals(100, kills.size());
+		assertEquals(2, scheduler.getAvailablePermits());
+	}
+
+	private static boolean hasTable(@Nonnull Connection connection, @Nonnull String table) throws SQLException {
+		try (ResultSet rs = connection.getMetaData().getTables(null, null, table, null)) {
+			return rs.next();
+		}
+	}
+
+	private static int getKills(@Nonnull Connection connection, @Nonnull UUID uuid) throws SQLException {
+		try (PreparedStatement ps = connection.prepareStatement("SELECT kills FROM players WHERE uuid = ?")) {
+			ps.setString(1, uuid.toString());
+			try (ResultSet rs = ps.executeQuery()) {
+				return rs.next() ? rs.getInt("kills") : -1;
+			}
+		}
+	}
+
+	private static class PlayerRow {
+		final UUID uuid;
+		final int kills;
+
+		PlayerRow(UUID uuid, int kills) {
+			this.uuid = uuid;
+			this.kills = kills;
+		}
+	}
+
+	private static class TestStorage extends SqlStorage<PlayerRow> {
+		TestStorage(@Nonnull Midnight plugin, @Nonnull ConnectionProvider provider) {
+			super(plugin, provider);
+		}
+
+		@Override
+		public void save(@Nonnull PlayerRow data) {}
+
+		@Override
+		public void delete(@Nonnull PlayerRow data) {}
+	}
+
+	private static class KeyedStorage extends KeyedSqlStorage<PlayerRow, UUID> {
+		int batches = 0;
+		int queries = 0;
+
+		KeyedStorage(@Nonnull Midnight plugin, @Nonnull ConnectionProvider provider) {
+			super(plugin, provider);
+			setBatchSize(2);
+		}
+
+		@Override
+		public void save(@Nonnull PlayerRow data) {}
+
+		@Override
+		public void delete(@Nonnull PlayerRow data) {}
+
+		@Nonnull
+		@Override
+		protected UUID getKey(@Nonnull PlayerRow data) {
+			return data.uuid;
+		}
+
+		@Nonnull
+		@Override
+		protected String getSaveQuery() {
+			return "REPLACE INTO 'players' ('uuid', 'kills') VALUES (?, ?)";
+		}
+
+		@Override
+		protected void bindSave(@Nonnull PreparedStatement statement, @Nonnull PlayerRow data) throws SQLException {
+			statement.setString(1, data.uuid.toString());
+			statement.setInt(2, data.kills);
+		}
+
+		@Nonnull
+		@Override
+		protected String getDeleteQuery() {
+			return "DELETE FROM 'players' WHERE 'uuid' = ?";
+		}
+
+		@Override
+		protected void bindDelete(@Nonnull PreparedStatement statement, @Nonnull PlayerRow data) throws SQLException {
+			statement.setString(1, data.uuid.toString());
+		}
+
+		@Nonnull
+		@Override
+		protected Query getLoadQuery() {
+			return Query.of("SELECT 'uuid', 'kills' FROM 'players' WHERE 'uuid' IN (?)");
+		}
+
+		@Nonnull
+		@Override
+		protected Query getLoadAllQuery() {
+			return Query.of("SELECT 'uuid', 'kills' FROM 'players'");
+		}
+
+		@Nonnull
+		@Override
+		protected PlayerRow map(@Nonnull Row row) throws SQLException {
+			return new PlayerRow(row.getUUID("uuid"), row.getInt("kills"));
+		}
+
+		@Nonnull
+		@Override
+		protected PreparedStatement prepare(@Nonnull Connection connection, @Nonnull Query query, @Nonnull Object... parameters) throws SQLException {
+			queries++;
+			return super.prepare(connection, query, parameters);
+		}
+
+		@Nonnull
+		@Override
+		protected PreparedStatement prepare(@Nonnull Connection connection, @Nonnull String query) throws SQLException {
+			batches++;
+			return super.prepare(connection, query);
+		}
+	}
+}
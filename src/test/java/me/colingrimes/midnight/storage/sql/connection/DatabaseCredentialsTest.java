@@ -2,6 +2,7 @@ package me.colingrimes.midnight.storage.sql.connection;
 
 import me.colingrimes.midnight.storage.database.DatabaseCredentials;
 import me.colingrimes.midnight.storage.database.DatabaseType;
+import me.colingrimes.midnight.storage.database.PoolSettings;
 import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.file.YamlConfiguration;
 import org.junit.jupiter.api.BeforeEach;
@@ -10,7 +11,9 @@ import org.junit.jupiter.api.Test;
 import java.io.StringReader;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class DatabaseCredentialsTest {
 
@@ -25,6 +28,12 @@ class DatabaseCredentialsTest {
                 database: test_db
                 username: test_user
                 password: test_password
+                pool:
+                  maximum-pool-size: 20
+                  leak-detection-threshold: 5000
+                  sqlite-wal: true
+                  properties:
+                    prepareThreshold: 1
                 """;
 
 		config = YamlConfiguration.loadConfiguration(new StringReader(yamlConfig));
@@ -59,4 +68,19 @@ class DatabaseCredentialsTest {
 		assertEquals("test_user", credentials.getUser());
 		assertEquals("test_password", credentials.getPassword());
 	}
+
+	@Test
+	void testPoolFromConfig() {
+		DatabaseCredentials credentials = DatabaseCredentials.fromConfig(config);
+		assertNotNull(credentials);
+
+		PoolSettings pool = credentials.getPool();
+		assertEquals(20, pool.getMaximumPoolSize());
+		assertEquals(5000, pool.getLeakDetectionThreshold());
+		assertEquals(PoolSettings.defaults().getMinimumIdle(), pool.getMinimumIdle());
+		assertEquals(PoolSettings.defaults().getMaxLifetime(), pool.getMaxLifetime());
+		assertEquals("1", pool.getProperties().get("prepareThreshold"));
+		assertTrue(pool.isSqliteWal());
+		assertFalse(PoolSettings.defaults().isSqliteWal());
+	}
 }
@@ -0,0 +1,138 @@
+package me.colingrimes.midnight.storage.sql.connection.file;
+
+import me.colingrimes.midnight.MockSetup;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WalSqliteConnectionProviderTest extends MockSetup {
+
+	private WalSqliteConnectionProvider provider;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		provider = new WalSqliteConnectionProvider(plugin, "test_wal", 2, 100);
+		provider.init();
+	}
+
+	@AfterEach
+	void tearDown() {
+		provider.shutdown();
+	}
+
+	@Test
+	void testJournalMode() throws SQLException {
+		try (Connection connection = provider.getReadConnection(); Statement statement = connection.createStatement()) {
+			try (ResultSet rs = statement.executeQuery("PRAGMA journal_mode")) {
+				assertTrue(rs.next());
+				assertEquals("wal", rs.getString(1).toLowerCase());
+			}
+		}
+	}
+
+	@Test
+	void testReadConnectionIsReadOnly() throws SQLException {
+		try (Connection connection = provider.getReadConnection(); Statement statement = connection.createStatement()) {
+			assertThrows(SQLException.class, () -> statement.execute("CREATE TABLE test (id INTEGER)"));
+		}
+	}
+
+	@Test
+	void testWriterIsSerialized() throws SQLException {
+		Connection writer = provider.getConnection();
+		assertEquals(1, provider.getActiveConnections());
+
+		// A nested call on the same thread fails right away, another thread waits for the timeout.
+		assertThrows(SQLException.class, provider::getConnection);
+		CompletableFuture<Connection> other = CompletableFuture.supplyAsync(() -> {
+			try {
+				return provider.getConnection();
+			} catch (SQLException e) {
+				throw new CompletionException(e);
+			}
+		});
+		assertThrows(CompletionException.class, other::join);
+
+		writer.close();
+		assertTrue(writer.isClosed());
+		try (Connection connection = provider.getConnection(); Statement statement = connection.createStatement()) {
+			statement.execute("CREATE TABLE IF NOT EXISTS test (id INTEGER)");
+		}
+	}
+
+	@Test
+	void testShutdownAndInitAgain() throws Exception {
+		provider.shutdown();
+		assertFalse(provider.isInitialized());
+		assertThrows(SQLException.class, provider::getConnection);
+		assertThrows(SQLException.class, provider::getReadConnection);
+
+		provider.init();
+		try (Connection connection = provider.getReadConnection(); Statement statement = connection.createStatement()) {
+			assertTrue(statement.execute("SELECT 1"));
+		}
+		assertEquals(3, provider.getIdleConnections());
+	}
+
+	@Test
+	void testReadConnectionsArePooled() throws SQLException {
+		Connection first = provider.getReadConnection();
+		Connection second = provider.getReadConnection();
+		// Only the writer is left idle.
+		assertEquals(1, provider.getIdleConnections());
+		assertThrows(SQLException.class, provider::getReadConnection);
+
+		first.close();
+		second.close();
+		assertEquals(3, provider.getIdleConnections());
+	}
+
+	@Test
+	void testStatementsAreReused() throws SQLException {
+		try (Connection connection = provider.getConnection()) {
+			PreparedStatement first = connection.prepareStatement("SELECT ?");
+			first.setInt(1, 5);
+			try (ResultSet rs = first.executeQuery()) {
+				assertTrue(rs.next());
+				assertEquals(5, rs.getInt(1));
+			}
+
+			// The statement is in use, so a separate statement is prepared.
+			PreparedStatement second = connection.prepareStatement("SELECT ?");
+			assertNotEquals(first.unwrap(PreparedStatement.class), second.unwrap(PreparedStatement.class));
+			second.close();
+
+			PreparedStatement firstUnwrapped = first.unwrap(PreparedStatement.class);
+			first.close();
+			assertTrue(first.isClosed());
+			try (PreparedStatement third = connection.prepareStatement("SELECT ?")) {
+				assertSame(firstUnwrapped, third.unwrap(PreparedStatement.class));
+			}
+		}
+	}
+
+	@Test
+	void testStatementsLeftOpenAreReleased() throws SQLException {
+		PreparedStatement unwrapped;
+		try (Connection connection = provider.getConnection()) {
+			PreparedStatement statement = connection.prepareStatement("SELECT 1");
+			unwrapped = statement.unwrap(PreparedStatement.class);
+			assertFalse(statement.isClosed());
+		}
+
+		// The statement was released with the lease, so the next lease reuses the cached statement.
+		try (Connection connection = provider.getConnection(); PreparedStatement statement = connection.prepareStatement("SELECT 1")) {
+			assertSame(unwrapped, statement.unwrap(PreparedStatement.class));
+		}
+	}
+}
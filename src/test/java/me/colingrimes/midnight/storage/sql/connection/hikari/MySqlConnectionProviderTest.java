@@ -45,5 +45,6 @@ class MySqlConnectionProviderTest {
 		verify(config).setJdbcUrl("jdbc:mysql://localhost:3306/test_db");
 		verify(config).setUsername("user");
 		verify(config).setPassword("password");
+		verify(config).addDataSourceProperty("rewriteBatchedStatements", "true");
 	}
 }
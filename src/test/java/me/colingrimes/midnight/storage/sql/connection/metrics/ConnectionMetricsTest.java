@@ -0,0 +1,78 @@
+package me.colingrimes.midnight.storage.sql.connection.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ConnectionMetricsTest {
+
+	@Test
+	void testTimedStatement() throws SQLException {
+		ConnectionMetrics metrics = new ConnectionMetrics();
+		metrics.setStatementTiming(true);
+		metrics.setSlowQueryThreshold(Duration.ZERO);
+
+		PreparedStatement statement = mock(PreparedStatement.class);
+		when(statement.executeUpdate()).thenReturn(1);
+
+		PreparedStatement timed = metrics.timed(statement, "UPDATE test SET a = ?");
+		timed.setInt(1, 5);
+		assertEquals(1, timed.executeUpdate());
+		timed.executeUpdate();
+
+		verify(statement).setInt(1, 5);
+		assertEquals(2, metrics.getStatements().get("UPDATE test SET a = ?").getCount());
+	}
+
+	@Test
+	void testTimedStatementException() throws SQLException {
+		ConnectionMetrics metrics = new ConnectionMetrics();
+		metrics.setStatementTiming(true);
+		PreparedStatement statement = mock(PreparedStatement.class);
+		when(statement.executeQuery()).thenThrow(new SQLException("failed"));
+
+		PreparedStatement timed = metrics.timed(statement, "SELECT 1");
+		assertThrows(SQLException.class, timed::executeQuery);
+		assertEquals(1, metrics.getStatements().get("SELECT 1").getCount());
+	}
+
+	@Test
+	void testStatementTimingIsOptIn() {
+		PreparedStatement statement = mock(PreparedStatement.class);
+		assertSame(statement, new ConnectionMetrics().timed(statement, "SELECT 1"));
+
+		ConnectionMetrics disabled = ConnectionMetrics.disabled();
+		disabled.setStatementTiming(true);
+		assertSame(statement, disabled.timed(statement, "SELECT 1"));
+		disabled.recordAcquisition(1000);
+		assertEquals(0, disabled.getAcquisition().getCount());
+	}
+
+	@Test
+	void testStatementsAreCapped() {
+		ConnectionMetrics metrics = new ConnectionMetrics();
+		for (int i = 0; i <= ConnectionMetrics.MAX_STATEMENTS; i++) {
+			metrics.recordStatement("SELECT " + i, 1000);
+		}
+		assertEquals(ConnectionMetrics.MAX_STATEMENTS, metrics.getStatements().size());
+		assertFalse(metrics.getStatements().containsKey("SELECT 0"));
+	}
+
+	@Test
+	void testLatencyStats() {
+		LatencyStats stats = new LatencyStats();
+		assertEquals(Duration.ZERO, stats.getPercentile(0.5));
+
+		stats.record(Duration.ofMillis(2).toNanos());
+		stats.record(Duration.ofMillis(4).toNanos());
+		assertEquals(2, stats.getCount());
+		assertEquals(Duration.ofMillis(3), stats.getAverage());
+		assertEquals(Duration.ofMillis(4), stats.getMax());
+		assertTrue(stats.getPercentile(1.0).compareTo(Duration.ofMillis(4)) >= 0);
+	}
+}
@@ -0,0 +1,142 @@
+package me.colingrimes.midnight.storage.sql.migration;
+
+import me.colingrimes.midnight.MockSetup;
+import me.colingrimes.midnight.storage.sql.connection.file.WalSqliteConnectionProvider;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.annotation.Nonnull;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MigrationRunnerTest extends MockSetup {
+
+	private WalSqliteConnectionProvider provider;
+	private MigrationRunner runner;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		provider = new WalSqliteConnectionProvider(plugin, "test_migrations", 1, 100);
+		provider.init();
+		runner = new MigrationRunner(plugin, "test_history", provider.getStatementProcessor());
+
+		try (Connection connection = provider.getConnection(); Statement statement = connection.createStatement()) {
+			statement.execute("DROP TABLE IF EXISTS test_history");
+			statement.execute("DROP TABLE IF EXISTS players");
+			statement.execute("DROP TABLE IF EXISTS totals");
+		}
+	}
+
+	@AfterEach
+	void tearDown() {
+		provider.shutdown();
+	}
+
+	@Test
+	void testAppliesOnce() throws SQLException {
+		List<Migration> migrations = List.of(
+				new SqlMigration(2, "INSERT INTO players VALUES (1, NULL); INSERT INTO players VALUES (2, NULL);"),
+				new SqlMigration(1, "CREATE TABLE players (id INTEGER PRIMARY KEY, kills INTEGER)")
+		);
+
+		try (Connection connection = provider.getConnection()) {
+			assertEquals(2, runner.run(connection, "test", migrations));
+			assertEquals(0, runner.run(connection, "test", migrations));
+			assertEquals(2, count(connection, "SELECT COUNT(*) FROM players"));
+			assertTrue(connection.getAutoCommit());
+		}
+	}
+
+	@Test
+	void testFailedMigrationIsRolledBack() throws SQLException {
+		try (Connection connection = provider.getConnection()) {
+			runner.run(connection, "test", List.of(new SqlMigration(1, "CREATE TABLE players (id INTEGER PRIMARY KEY, kills INTEGER)")));
+
+			Migration failing = new SqlMigration(2, "INSERT INTO players VALUES (1, 0); INSERT INTO missing VALUES (1);");
+			assertThrows(SQLException.class, () -> runner.run(connection, "test", List.of(failing)));
+			assertEquals(0, count(connection, "SELECT COUNT(*) FROM players"));
+			assertEquals(1, count(connection, "SELECT COUNT(*) FROM test_history"));
+		}
+	}
+
+	@Test
+	void testBatchedMigration() throws SQLException {
+		try (Connection connection = provider.getConnection(); Statement statement = connection.createStatement()) {
+			statement.execute("CREATE TABLE players (id INTEGER PRIMARY KEY, kills INTEGER)");
+			for (int i = 0; i < 25; i++) {
+				statement.execute("INSERT INTO players VALUES (" + i + ", NULL)");
+			}
+
+			Migration migration = new BatchedMigration(10) {
+				@Override
+				public int getVersion() {
+					return 1;
+				}
+
+				@Override
+				protected int applyBatch(@Nonnull Connection connection, int batchSize) throws SQLException {
+					String sql = "UPDATE players SET kills = 0 WHERE id IN (SELECT id FROM players WHERE kills IS NULL LIMIT ?)";
+					try (PreparedStatement ps = connection.prepareStatement(sql)) {
+						ps.setInt(1, batchSize);
+						return ps.executeUpdate();
+					}
+				}
+			};
+
+			assertEquals(1, runner.run(connection, "test", List.of(migration)));
+			assertEquals(0, count(connection, "SELECT COUNT(*) FROM players WHERE kills IS NULL"));
+		}
+	}
+
+	@Test
+	void testOwnersAreSeparate() throws SQLException {
+		try (Connection connection = provider.getConnection()) {
+			assertEquals(1, runner.run(connection, "first", List.of(new SqlMigration(1, "CREATE TABLE players (id INTEGER PRIMARY KEY, kills INTEGER)"))));
+			assertEquals(1, runner.run(connection, "second", List.of(new SqlMigration(1, "INSERT INTO players VALUES (1, 0)"))));
+			assertEquals(0, runner.run(connection, "first", List.of(new SqlMigration(1, "CREATE TABLE players (id INTEGER PRIMARY KEY, kills INTEGER)"))));
+			assertEquals(1, count(connection, "SELECT COUNT(*) FROM players"));
+			assertEquals(2, count(connection, "SELECT COUNT(*) FROM test_history"));
+		}
+	}
+
+	@Test
+	void testTriggerMigration() throws SQLException {
+		Migration migration = new SqlMigration(1, """
+				CREATE TABLE players (id INTEGER PRIMARY KEY, kills INTEGER);
+				CREATE TABLE totals (kills INTEGER);
+				INSERT INTO totals VALUES (0);
+				-- Counts every kill; including kills of the trigger itself.
+				CREATE TRIGGER count_kills AFTER INSERT ON players BEGIN
+					UPDATE totals SET kills = kills + NEW.kills;
+				END;
+				INSERT INTO players VALUES (1, 5);
+				""");
+		try (Connection connection = provider.getConnection()) {
+			assertEquals(1, runner.run(connection, "test", List.of(migration)));
+			assertEquals(5, count(connection, "SELECT kills FROM totals"));
+		}
+	}
+
+	@Test
+	void testDuplicateVersions() {
+		List<Migration> migrations = List.of(new SqlMigration(1, "SELECT 1"), new SqlMigration(1, "SELECT 2"));
+		assertThrows(IllegalArgumentException.class, () -> {
+			try (Connection connection = provider.getConnection()) {
+				runner.run(connection, "test", migrations);
+			}
+		});
+	}
+
+	private int count(@Nonnull Connection connection, @Nonnull String sql) throws SQLException {
+		try (Statement statement = connection.createStatement(); ResultSet rs = statement.executeQuery(sql)) {
+			return rs.next() ? rs.getInt(1) : 0;
+		}
+	}
+}
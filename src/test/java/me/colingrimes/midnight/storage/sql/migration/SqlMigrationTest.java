@@ -0,0 +1,36 @@
+package me.colingrimes.midnight.storage.sql.migration;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SqlMigrationTest {
+
+	@Test
+	void testSplit() {
+		assertEquals(List.of("SELECT 1", "SELECT 2"), SqlMigration.split("SELECT 1;\n\nSELECT 2;\n"));
+
+		// Semicolons in quotes and comments do not end a statement.
+		assertEquals(
+				List.of("INSERT INTO notes VALUES ('a; ''b''', \"c;\")", "SELECT 2"),
+				SqlMigration.split("-- Adds a note; with a comment\nINSERT INTO notes VALUES ('a; ''b''', \"c;\");\nSELECT 2 /* 1; */")
+		);
+
+		// Comments separate words instead of joining them.
+		assertEquals(List.of("SELECT 1"), SqlMigration.split("SELECT/**/1"));
+	}
+
+	@Test
+	void testSplitBlocks() {
+		String trigger = "CREATE TRIGGER count_kills AFTER UPDATE ON players BEGIN\n"
+				+ "  UPDATE totals SET kills = kills + CASE WHEN NEW.kills > OLD.kills THEN 1 ELSE 0 END;\n"
+				+ "  DELETE FROM log;\n"
+				+ "END";
+		assertEquals(List.of(trigger, "SELECT 1"), SqlMigration.split(trigger + ";\nSELECT 1;"));
+
+		// Only a trigger has a BEGIN block, a transaction is a statement of its own.
+		assertEquals(List.of("BEGIN", "SELECT 1", "COMMIT"), SqlMigration.split("BEGIN; SELECT 1; COMMIT;"));
+	}
+}